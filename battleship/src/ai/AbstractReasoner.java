@@ -1,24 +1,23 @@
 package ai;
 
 import java.awt.Point;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
-import model.CellState;
 import model.GameConfig;
-import model.GameState;
-import model.Grid;
+import model.Observation;
 import player.Player;
 
 /**
  * Abstract base class for AI reasoning logic.
- * Provides shared utilities for move selection and grid analysis.
+ * Holds what every reasoner shares: its player, the game configuration and its
+ * random generator. Move selection works on the live indexes of the
+ * {@link Observation} (see the {@link Strategy} implementations).
  */
 public abstract class AbstractReasoner implements Reasoner {
 
-    /** Random number generator for stochastic move selection */
-    protected final Random random = new Random();
+    /** Random number generator for stochastic move selection, owned by this reasoner */
+    protected final RandomGenerator random;
     
     /** The player associated with this reasoner */
     protected final Player player;
@@ -32,71 +31,29 @@ public abstract class AbstractReasoner implements Reasoner {
      * @param config The current game configuration.
      */
     public AbstractReasoner(Player player, GameConfig config) {
-        this.player = player;
-        this.config = config;
-    }
-    
-    /**
-     * Abstract method to be implemented by specific AI strategies.
-     * @param state The current snapshot of the game.
-     * @return The chosen coordinate for the next move.
-     */
-    public abstract Point chooseMove(GameState state);
-    
-    /**
-     * Retrieves a list of coordinates for all cells that have not been attacked yet.
-     * @param grid The opponent's grid to analyze.
-     * @return A list of Point objects representing untouched coordinates.
-     */
-    protected List<Point> getUntouchedCells(Grid grid) {
-        return grid.getSmartUntouchedCells().stream()                        
-                                       .map(s -> s.getCoordinates())
-                                       .toList(); 
+        this(player, config, new SplittableRandom());
     }
-    
+
     /**
-     * Selects a random coordinate from the available untouched cells.
-     * @param state The current game state.
-     * @return A random Point that is valid for a move.
-     * @throws IllegalStateException if no untouched cells remain.
+     * Initializes the reasoner with its own random generator, for reproducible games
+     * (see {@link model.GameSeeds}).
+     * @param random The generator of every random choice; it must not be shared with other threads.
+     * @throws IllegalArgumentException if the generator is null.
      */
-    protected Point randomCellPicker(GameState state) {
-        Grid enemyGrid = state.getEnemyGrid(this.player);
-
-        List<Point> available = getUntouchedCells(enemyGrid);
-
-        if (available.isEmpty()) {
-            throw new IllegalStateException("No valid moves available");
+    public AbstractReasoner(Player player, GameConfig config, RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("The random generator is required");
         }
-        
-        // Return a completely random choice from available cells
-        return available.get(random.nextInt(available.size()));
+        this.player = player;
+        this.config = config;
+        this.random = random;
     }
     
     /**
-     * Identifies adjacent cells (North, South, East, West) that have not been targeted.
-     * @param grid The grid to check.
-     * @param x The X coordinate of the reference cell.
-     * @param y The Y coordinate of the reference cell.
-     * @return A list of valid adjacent Points in NOTFIRED state.
+     * Abstract method to be implemented by specific AI strategies.
+     * @param board What the AI knows of the enemy board.
+     * @return The chosen coordinate for the next move.
      */
-    protected List<Point> getAdjacentUntouched(Grid grid, int x, int y) {
-        List<Point> result = new ArrayList<>();
-        // Define orthogonal movements only (up, down, left, right)
-        int[][] deltas = {{-1,0},{1,0},{0,-1},{0,1}}; 
-
-        for (int[] d : deltas) {
-            int nx = x + d[0];
-            int ny = y + d[1];
-
-            // Verify coordinates are within bounds and the cell hasn't been attacked
-            if (grid.isValidCoordinate(nx, ny) &&
-                grid.getCellState(nx, ny) == CellState.NOTFIRED) {
-                result.add(new Point(nx, ny));
-            }
-        }
-
-        return result;
-    }
+    public abstract Point chooseMove(Observation board);
 
 }
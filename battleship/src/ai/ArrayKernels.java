@@ -0,0 +1,104 @@
+package ai;
+
+import java.util.Optional;
+
+/**
+ * Inner loops of the score maps, over flat row-major arrays: reset, weighted
+ * accumulation and masked argmax. Masks are bit sets packed 64 cells per long, in
+ * the layout of {@link model.BitBoard#word}.
+ *
+ * Two implementations give identical results: a scalar one, and one that uses the
+ * SIMD registers through the {@code jdk.incubator.vector} module. The vector one is
+ * loaded reflectively and only if the module is present at run time (it must be
+ * added with {@code --add-modules jdk.incubator.vector}); otherwise the scalar one
+ * is used and the incubator classes are never linked.
+ *
+ * The vector kernels are the default when the module is present: once compiled by
+ * C2 they allocate nothing, as the scalar ones (until then the interpreter and C1 box
+ * their vectors, so they need a longer warmup in bench.AllocationBenchmark). The
+ * scalar ones are used otherwise, when the system property {@code ai.kernels} is
+ * {@code scalar}, or when passed explicitly.
+ */
+public abstract class ArrayKernels {
+
+    private static final ArrayKernels SCALAR = new ScalarKernels();
+    private static final ArrayKernels BEST = "scalar".equals(System.getProperty("ai.kernels"))
+            ? SCALAR : vector().orElse(SCALAR);
+
+    /**
+     * @return The kernels used by default: the vector ones if available, unless
+     *         {@code -Dai.kernels=scalar} asks for the scalar ones.
+     */
+    public static ArrayKernels best() {
+        return BEST;
+    }
+
+    /**
+     * @return The plain Java kernels, always available.
+     */
+    public static ArrayKernels scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return The SIMD kernels, or empty if the incubator module is not in the boot layer.
+     */
+    public static Optional<ArrayKernels> vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ArrayKernels) Class.forName("ai.VectorKernels")
+                    .getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return A short name of the implementation, for reports.
+     */
+    public abstract String getName();
+
+    /**
+     * Sets values[0..length) to the given value.
+     */
+    public abstract void fill(int[] values, int value, int length);
+
+    /**
+     * Sets to 0 the values[i], i < length, whose bit is set in the mask.
+     */
+    public abstract void clear(int[] values, long[] mask, int length);
+
+    /**
+     * Weighted accumulation: y[i] += a * x[i] for i in [from, to), with the product
+     * rounded before the sum (no fused multiply-add).
+     */
+    public abstract void accumulate(double[] y, double a, double[] x, int from, int to);
+
+    /**
+     * @return The largest values[i], i < length, whose bit is set in the mask, or
+     *         Integer.MIN_VALUE if no bit is set.
+     */
+    public abstract int max(int[] values, long[] mask, int length);
+
+    /**
+     * @return How many values[i], i < length, with their bit set equal the given value.
+     */
+    public abstract int count(int[] values, long[] mask, int length, int value);
+
+    /**
+     * @return The index of the k-th (from 0, in index order) values[i] with its bit set
+     *         that equals the given value, or -1 if there are not that many.
+     */
+    public abstract int find(int[] values, long[] mask, int length, int value, int k);
+
+    static boolean isSet(long[] mask, int i) {
+        return (mask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,325 @@
+package ai;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import model.*;
+
+/**
+ * Chooses the moves of many games at once, for tournaments where thousands of games
+ * are in progress: one call takes N observation boards (the enemy grids as seen by
+ * the AI players) and returns N moves, with the heat map strategy of
+ * {@link HardReasoner}.
+ *
+ * The heat is laid out as a struct of arrays: one array indexed by
+ * {@code cell * N + board}, reset for the whole batch in one contiguous pass. The rest
+ * of the work is sparse and reads the observation masks one word at a time: the hits
+ * scatter their heat, a board with a hit afloat only compares the cells next to those
+ * hits (the only ones with more heat than the base value), and a hunting board draws
+ * its checkerboard cell by bit counts. The boards share the scratch masks.
+ *
+ * As in {@link HardStrategy}, the cells that the {@link ShipConstraints} of a board
+ * prove to be water are no targets. Each board keeps its engine from one call to the
+ * next, so that it follows the board incrementally: the finished games may leave the
+ * batch, as long as the others keep their order.
+ *
+ * The heat is computed from scratch at every call, and an engine that meets a board
+ * it did not follow starts over, so any board can join the batch at any time. The
+ * moves follow the same distribution as the single-game reasoner (ties are broken
+ * uniformly at random). {@link HardReasoner} also starts over at every move, and the
+ * batch beats N of its calls (see bench.BatchBenchmark). There is no batched
+ * {@link ExpertReasoner}: each one re-weights only the placements a shot touches,
+ * which a full pass over the batch cannot match.
+ */
+public class BatchReasoner {
+
+    /** Orthogonal directions in {@link HardReasoner}'s order: Right, Left, Down, Up */
+    private static final int[][] DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final RandomGenerator random;
+
+    // Batch buffer, grown on demand: cell * n + board
+    private int n;
+    private int[] heat = new int[0];
+    // Per board: its constraints engine, and the board it followed at the last call
+    private ShipConstraints[] constraints = new ShipConstraints[0];
+    private Observation[] followed = new Observation[0];
+    private int followedCount;
+
+    // Scratch of the board being selected, one bit per cell (row-major)
+    private final long[] targets;					// Not fired, not next to a sunk ship
+    private final long[] listed;					// Already in the candidates
+    private final int[] candidates;
+    /** The cells with (x + y) even */
+    private final long[] checkerboard;
+
+    /**
+     * @param config The configuration shared by all the games of the batch.
+     */
+    public BatchReasoner(GameConfig config) {
+        this(config, new SplittableRandom());
+    }
+
+    /**
+     * @param random The generator breaking the ties of every board.
+     */
+    public BatchReasoner(GameConfig config, RandomGenerator random) {
+        if (config == null || random == null) {
+            throw new IllegalArgumentException("Config and random generator are required");
+        }
+        this.random = random;
+        this.width = config.getWidth();
+        this.height = config.getHeight();
+        this.cellCount = width * height;
+        int words = BitBoard.wordsFor(cellCount);
+        this.targets = new long[words];
+        this.listed = new long[words];
+        this.candidates = new int[cellCount];
+        this.checkerboard = new long[words];
+        for (int c = 0; c < cellCount; c++) {
+            if ((c % width + c / width) % 2 == 0) checkerboard[c >>> 6] |= 1L << c;
+        }
+    }
+
+    /**
+     * Chooses one move per board.
+     * @param boards The observations of the enemy grids of the games, all of the configured size.
+     * @return moves[i]: the shot to fire at boards[i].
+     * @throws IllegalStateException if a board has no cell left to fire at.
+     */
+    public Point[] chooseMoves(Observation... boards) {
+        if (boards == null || boards.length == 0) {
+            throw new IllegalArgumentException("At least one board is required");
+        }
+        load(boards);
+        matchConstraints(boards);
+        for (int b = 0; b < n; b++) {
+            computeHeat(b, boards[b]);
+        }
+
+        Point[] moves = new Point[n];
+        for (int b = 0; b < n; b++) {
+            int cell = select(b, boards[b]);
+            moves[b] = new Point(cell % width, cell / width);
+        }
+        return moves;
+    }
+
+    /**
+     * @return The heat of a cell of the given board at the last call.
+     */
+    public double getScore(int board, int x, int y) {
+        return heat[(y * width + x) * n + board];
+    }
+
+    // --- LAYOUT ---
+
+    /**
+     * Checks the boards and resets the heat of the whole batch to the base value,
+     * growing the buffer if needed.
+     */
+    private void load(Observation[] boards) {
+        n = boards.length;
+        for (int b = 0; b < n; b++) {
+            Observation board = boards[b];
+            if (board == null || board.getWidth() != width || board.getHeight() != height) {
+                throw new IllegalArgumentException("Board " + b + " does not match the configured size");
+            }
+        }
+        if (heat.length < cellCount * n) {
+            heat = new int[cellCount * n];
+        }
+        Arrays.fill(heat, 0, cellCount * n, 1);
+    }
+
+    /**
+     * Moves to slot b the engine that followed boards[b] at the last call, looking
+     * forward from the previous match. A board with no engine gets the one left in
+     * its slot, which starts over.
+     */
+    private void matchConstraints(Observation[] boards) {
+        if (constraints.length < n) {
+            constraints = Arrays.copyOf(constraints, n);
+            followed = Arrays.copyOf(followed, n);
+        }
+        int from = 0;
+        for (int b = 0; b < n; b++) {
+            int q = Math.max(from, b);
+            while (q < followedCount && followed[q] != boards[b]) q++;
+            if (q < followedCount) {
+                ShipConstraints engine = constraints[q];
+                constraints[q] = constraints[b];
+                constraints[b] = engine;
+                followed[q] = followed[b];
+                from = q + 1;
+            }
+            if (constraints[b] == null) constraints[b] = new ShipConstraints();
+            followed[b] = boards[b];
+        }
+        followedCount = n;
+    }
+
+    // --- HEAT KERNEL ---
+
+    /**
+     * {@link HardReasoner}'s heat map of one board, hit by hit in the same row-major
+     * order, so that the sunk penalties and the directional bonuses interleave
+     * identically. The fired cells are cleared first rather than last: the bonuses
+     * skip them and the penalties only write zeros, so the map is the same.
+     */
+    private void computeHeat(int b, Observation board) {
+        BitBoard hits = board.getHitMask();
+        BitBoard misses = board.getMissMask();
+        BitBoard sunk = board.getSunkMask();
+        for (int i = 0; i < targets.length; i++) {
+            long bits = hits.word(i) | misses.word(i);
+            while (bits != 0) {
+                heat[((i << 6) + Long.numberOfTrailingZeros(bits)) * n + b] = 0;
+                bits &= bits - 1;
+            }
+        }
+
+        for (int i = 0; i < targets.length; i++) {
+            long bits = hits.word(i);
+            while (bits != 0) {
+                int c = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (sunk.get(c)) {
+                    applySunkenPenalty(b, c % width, c / width);
+                } else {
+                    applyDirectionalHeat(b, hits, misses, c % width, c / width);
+                }
+            }
+        }
+    }
+
+    private void applyDirectionalHeat(int b, BitBoard hits, BitBoard misses, int x, int y) {
+        for (int[] d : DIRS) {
+            int nx = x + d[0];
+            int ny = y + d[1];
+            if (!isValid(nx, ny)) continue;
+            int next = ny * width + nx;
+            if (hits.get(next) || misses.get(next)) continue;
+            heat[next * n + b] += 10;
+            int ox = x - d[0];
+            int oy = y - d[1];
+            if (isValid(ox, oy) && hits.get(oy * width + ox)) {
+                heat[next * n + b] += 25;
+            }
+        }
+    }
+
+    private void applySunkenPenalty(int b, int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                heat[(ny * width + nx) * n + b] = 0;
+            }
+        }
+    }
+
+    private boolean isValid(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // --- SELECTION ---
+
+    /**
+     * {@link HardReasoner}'s choice for one board: a random cell of best heat among
+     * the targets (not fired, not next to a sunk ship, not certainly water), or the
+     * hunt if no target has more than the base heat. Only the neighbours of the hits
+     * afloat can have more, so they are the only candidates compared.
+     */
+    private int select(int b, Observation board) {
+        BitBoard hits = board.getHitMask();
+        BitBoard misses = board.getMissMask();
+        BitBoard forbidden = board.getForbiddenMask();
+        BitBoard sunk = board.getSunkMask();
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = ~(hits.word(i) | misses.word(i) | forbidden.word(i));
+        }
+        if ((cellCount & 63) != 0) {
+            targets[targets.length - 1] &= (1L << cellCount) - 1;
+        }
+        // Cells next to a ship but certainly not part of it are no targets
+        ShipConstraints known = constraints[b];
+        known.update(board);
+        long[] water = known.waterMask();
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] &= ~water[i];
+        }
+
+        // The distinct targets next to a hit afloat, and the best heat among them
+        int count = 0;
+        int best = 1;
+        for (int i = 0; i < targets.length; i++) {
+            long bits = hits.word(i) & ~sunk.word(i);
+            while (bits != 0) {
+                int c = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int x = c % width;
+                int y = c / width;
+                for (int[] d : DIRS) {
+                    int nx = x + d[0];
+                    int ny = y + d[1];
+                    if (!isValid(nx, ny)) continue;
+                    int next = ny * width + nx;
+                    if (!ArrayKernels.isSet(targets, next) || ArrayKernels.isSet(listed, next)) continue;
+                    listed[next >>> 6] |= 1L << next;
+                    candidates[count++] = next;
+                    best = Math.max(best, heat[next * n + b]);
+                }
+            }
+        }
+        int ties = 0;
+        for (int j = 0; j < count; j++) {
+            int c = candidates[j];
+            listed[c >>> 6] = 0;
+            if (heat[c * n + b] == best) candidates[ties++] = c;
+        }
+        // No tactical heat (Hunt Mode): checkerboard strategy
+        return ties > 0 && best > 1 ? candidates[random.nextInt(ties)] : hunt(board);
+    }
+
+    /**
+     * {@link HardReasoner}'s hunt, on the targets of the board being selected: a
+     * random one with (x + y) even.
+     */
+    private int hunt(Observation board) {
+        int available = 0;
+        for (int i = 0; i < targets.length; i++) {
+            available += Long.bitCount(targets[i] & checkerboard[i]);
+        }
+        if (available == 0) {
+            return fallbackCell(board);
+        }
+        int k = random.nextInt(available);
+        for (int i = 0; ; i++) {
+            long bits = targets[i] & checkerboard[i];
+            int count = Long.bitCount(bits);
+            if (k >= count) {
+                k -= count;
+                continue;
+            }
+            for (; k > 0; k--) {
+                bits &= bits - 1;
+            }
+            return (i << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+
+    /**
+     * Safety fallback of {@link HardReasoner}, when the strategy found no cell: any target.
+     */
+    private int fallbackCell(Observation board) {
+        int available = board.getPotentialTargetCount();
+        if (available == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
+        return board.getAnyPotentialTargetIndex(random.nextInt(available));
+    }
+}
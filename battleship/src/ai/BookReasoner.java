@@ -0,0 +1,46 @@
+package ai;
+
+import java.awt.Point;
+import java.time.Duration;
+
+import model.Observation;
+
+/**
+ * Decorator that plays the opening from an {@link OpeningBook} and hands over to the
+ * wrapped reasoner once the position leaves the book. A book move costs a canonical
+ * hash of the few shots fired and a binary search in the mapped file.
+ */
+public class BookReasoner implements Reasoner {
+
+    private final Reasoner delegate;
+    private final OpeningBook book;
+
+    /**
+     * @param delegate Reasoner used outside the book.
+     * @param book     Book computed for the game's configuration.
+     */
+    public BookReasoner(Reasoner delegate, OpeningBook book) {
+        if (delegate == null || book == null) {
+            throw new IllegalArgumentException("Delegate and book are required");
+        }
+        this.delegate = delegate;
+        this.book = book;
+    }
+
+    @Override
+    public Point chooseMove(Observation board) {
+        Point move = bookMove(board);
+        return move != null ? move : delegate.chooseMove(board);
+    }
+
+    @Override
+    public Point chooseMove(Observation board, Duration budget) {
+        Point move = bookMove(board);
+        return move != null ? move : delegate.chooseMove(board, budget);
+    }
+
+    private Point bookMove(Observation board) {
+        Point move = book.lookup(board);
+        return move != null && board.isPotentialTarget(move.x, move.y) ? move : null;
+    }
+}
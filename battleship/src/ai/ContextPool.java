@@ -0,0 +1,93 @@
+package ai;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Recycles the per-game contexts of a {@link Strategy}: a game takes a context when
+ * it starts and gives it back when it ends, so that a server allocates contexts (and
+ * their buffers) for its peak of concurrent games rather than for every game.
+ * Thread-safe; at most {@code maxIdle} contexts are kept waiting, the others are
+ * left to the garbage collector.
+ *
+ * @param <C> The type of the contexts.
+ */
+public final class ContextPool<C extends Strategy.Context> {
+
+    private final Strategy<C> strategy;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<C> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    // Metrics
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * @param strategy The strategy creating the contexts.
+     * @param maxIdle  Maximum number of contexts kept for reuse.
+     */
+    public ContextPool(Strategy<C> strategy, int maxIdle) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("The strategy is required");
+        }
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Invalid pool size: " + maxIdle);
+        }
+        this.strategy = strategy;
+        this.maxIdle = maxIdle;
+    }
+
+    public Strategy<C> getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @param random The generator of the random choices of the new game.
+     * @return A context ready for a new game, recycled when one is available.
+     */
+    public C acquire(RandomGenerator random) {
+        C context = idle.poll();
+        if (context == null) {
+            created.increment();
+            return strategy.newContext(random);
+        }
+        idleCount.decrementAndGet();
+        reused.increment();
+        context.restart(random);
+        return context;
+    }
+
+    /**
+     * Gives back the context of a finished game; it must no longer be used.
+     */
+    public void release(C context) {
+        if (context == null) return;
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(context);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    // --- METRICS ---
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getReused() {
+        return reused.sum();
+    }
+
+    public int getIdle() {
+        return idleCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Context pool: %d created, %d reused, %d idle", getCreated(), getReused(), getIdle());
+    }
+}
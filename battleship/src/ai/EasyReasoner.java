@@ -1,36 +1,50 @@
 package ai;
 
 import java.awt.Point;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 import model.GameConfig;
-import model.GameState;
+import model.Observation;
 import player.Player;
 
 /**
  * Basic AI implementation that provides an "Easy" difficulty level.
- * It simply selects moves at random without any specific tactical logic.
+ * It simply selects moves at random without any specific tactical logic
+ * (see the shared {@link EasyStrategy}).
  */
 public class EasyReasoner extends AbstractReasoner {
 
+    private static final EasyStrategy STRATEGY = new EasyStrategy();
+
+    private final Strategy.Context context;
+
     /**
      * Constructs an EasyReasoner by delegating setup to the abstract parent.
      * @param player The AI player using this reasoner.
      * @param config The current game settings.
      */
     public EasyReasoner(Player player, GameConfig config) {
-        super(player, config);
+        this(player, config, new SplittableRandom());
+    }
+
+    /**
+     * @param random The generator of the random choices (see {@link AbstractReasoner}).
+     */
+    public EasyReasoner(Player player, GameConfig config, RandomGenerator random) {
+        super(player, config, random);
+        this.context = STRATEGY.newContext(random);
     }
 
     /**
      * Executes a move by picking a random available cell from the grid.
-     * This implementation relies on the base randomCellPicker utility.
-     * @param state The current state of the game.
+     * This implementation relies on the shared EasyStrategy.
+     * @param board What the AI knows of the enemy board.
      * @return A random valid Point to attack.
      */
     @Override
-    public Point chooseMove(GameState state) {
-        // Delegates the selection logic to the random picker defined in AbstractReasoner
-        return this.randomCellPicker(state);
+    public Point chooseMove(Observation board) {
+        return STRATEGY.chooseMove(context, board);
     }
 
 }
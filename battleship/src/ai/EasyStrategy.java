@@ -0,0 +1,30 @@
+package ai;
+
+import java.awt.Point;
+import java.util.random.RandomGenerator;
+
+import model.Observation;
+
+/**
+ * The logic of the {@link EasyReasoner}, shared by all games: a random potential
+ * target, with no memory between moves.
+ */
+public final class EasyStrategy implements Strategy<Strategy.Context> {
+
+    @Override
+    public Strategy.Context newContext(RandomGenerator random) {
+        return new Strategy.Context(random);
+    }
+
+    /**
+     * @throws IllegalStateException if no potential target remains.
+     */
+    @Override
+    public Point chooseMove(Strategy.Context context, Observation board) {
+        int available = board.getPotentialTargetCount();
+        if (available == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
+        return board.getAnyPotentialTarget(context.random.nextInt(available));
+    }
+}
@@ -0,0 +1,457 @@
+package ai;
+
+import java.awt.Point;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import model.*;
+import player.Player;
+
+/**
+ * AI that computes the exact probability of each cell holding a ship: it counts
+ * every legal arrangement of the enemy ships still afloat (straight ships, no two
+ * touching, not even diagonally) that agrees with the observation, and how many of
+ * them occupy each cell. It then fires at the open cell occupied in the most
+ * arrangements.
+ *
+ * Counting is a dynamic program over the cells in row-major order (a "broken
+ * profile"). The memo key is the canonical state of the frontier: for each column the
+ * last processed cell (empty, occupied, or the open end of a vertical ship with its
+ * length so far and whether it is all hits), the open horizontal ship ending on the
+ * left, whether the up-left diagonal is occupied, and how many ships of each size are
+ * left to place. Partial boards with the same frontier have the same completions, so
+ * their counts are merged. A forward pass counts the ways to reach each state and a
+ * backward pass the ways to complete it; their product summed over the states that
+ * occupy a cell gives that cell's count. Counts are exact {@code long}s.
+ *
+ * Open boards have too many frontier states to count within a turn (the untouched
+ * classic board has about 1.9 billion arrangements and 40 million states), so positions
+ * projected to exceed the state budget, boards whose frontier does not fit a 64-bit
+ * key, counts that would overflow and computations exceeding the time budget fall
+ * back to {@link ExpertReasoner}.
+ */
+public class ExactReasoner extends AbstractReasoner {
+
+    // Frontier cell codes
+    private static final int EMPTY = 0;
+    private static final int CLOSED = 1;			// Occupied, no ship can extend from it
+    private static final int OPEN_RUN = 2;			// Open runs: 2 + kind * 2 * maxSize + 2 * (length - 1) + allHit
+
+    /** Frontier states kept over all the layers before giving up (about 20 bytes each) */
+    private static final int MAX_STATES = 3_000_000;
+    /** Successors of a state: water, a 1-cell ship, a horizontal run or a vertical run */
+    private static final int MAX_SUCCESSORS = 4;
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final ExpertReasoner fallback;
+    private Duration timeBudget = Duration.ofMillis(900);
+
+    // Key layout for the current move
+    private int maxSize;
+    private int bits;							// Bits per frontier slot
+    private long slotMask;
+    private int profileBits;					// (width + 1) slots: the columns, then the diagonal
+    private int[] countShift;					// Bit offset of each size's remaining count
+    private long[] countMask;
+
+    // Observation
+    private final boolean[] hit;
+    private final boolean[] blocked;
+    private final boolean[] open;
+
+    // Result of the last move
+    private final long[] occupancy;
+    private long arrangements;
+    private boolean exact;
+
+    // Successors of a state (at most MAX_SUCCESSORS)
+    private final long[] next = new long[MAX_SUCCESSORS];
+    private final boolean[] nextOccupied = new boolean[MAX_SUCCESSORS];
+
+    public ExactReasoner(Player player, GameConfig config) {
+        this(player, config, new SplittableRandom());
+    }
+
+    /**
+     * @param random The generator of the random choices (see {@link AbstractReasoner}).
+     */
+    public ExactReasoner(Player player, GameConfig config, RandomGenerator random) {
+        super(player, config, random);
+        this.width = config.getWidth();
+        this.height = config.getHeight();
+        this.cellCount = width * height;
+        this.fallback = new ExpertReasoner(player, config, new SplittableRandom(random.nextLong()));
+        this.hit = new boolean[cellCount];
+        this.blocked = new boolean[cellCount];
+        this.open = new boolean[cellCount];
+        this.occupancy = new long[cellCount];
+    }
+
+    /**
+     * @param budget Maximum time spent counting per move, after which the move is
+     *               chosen by the density map instead. Defaults to 900 ms, within the
+     *               one second the game gives to the AI.
+     */
+    public void setTimeBudget(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("The time budget must be positive: " + budget);
+        }
+        this.timeBudget = budget;
+    }
+
+    // --- RESULTS ---
+
+    /**
+     * @return true if the last move was chosen from exact counts (false if it fell back).
+     */
+    public boolean isLastMoveExact() {
+        return this.exact;
+    }
+
+    /**
+     * @return The number of fleet arrangements consistent with the last observation.
+     */
+    public long getArrangementCount() {
+        return this.arrangements;
+    }
+
+    /**
+     * @return In how many of those arrangements the cell holds a ship.
+     */
+    public long getOccupancyCount(int x, int y) {
+        return occupancy[y * width + x];
+    }
+
+    // --- MOVE SELECTION ---
+
+    @Override
+    public Point chooseMove(Observation board) {
+        return chooseMove(board, System.nanoTime() + timeBudget.toNanos());
+    }
+
+    /**
+     * Counts within the given budget instead of the configured one; if the counts are
+     * not ready in time, the density map's move is the best one available.
+     */
+    @Override
+    public Point chooseMove(Observation board, Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("The time budget must be positive: " + budget);
+        }
+        return chooseMove(board, System.nanoTime() + budget.toNanos());
+    }
+
+    private Point chooseMove(Observation board, long deadline) {
+        exact = board.getWidth() == width && board.getHeight() == height && count(board, deadline);
+        if (!exact) {
+            arrangements = 0;
+            Arrays.fill(occupancy, 0);
+            return fallback.chooseMove(board);
+        }
+
+        long max = -1;
+        int ties = 0;
+        for (int c = 0; c < cellCount; c++) {
+            if (!open[c]) continue;
+            if (occupancy[c] > max) {
+                max = occupancy[c];
+                ties = 1;
+            } else if (occupancy[c] == max) {
+                ties++;
+            }
+        }
+        if (ties == 0) return fallback.chooseMove(board);
+        int k = random.nextInt(ties);
+        for (int c = 0; c < cellCount; c++) {
+            if (open[c] && occupancy[c] == max && k-- == 0) {
+                return new Point(c % width, c / width);
+            }
+        }
+        throw new IllegalStateException("No valid moves available");
+    }
+
+    /**
+     * Runs the forward and backward passes.
+     * @return false if the position cannot be counted exactly within the limits.
+     */
+    private boolean count(Observation board, long deadline) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int c = y * width + x;
+                CellState cellState = board.getCellState(x, y);
+                blocked[c] = !board.isAreaClearOfSunkenShips(x, y) || cellState == CellState.MISS;
+                hit[c] = !blocked[c] && cellState == CellState.HIT;
+                open[c] = !blocked[c] && !hit[c];
+            }
+        }
+        Long initial = layoutKeys(board);
+        if (initial == null) return false;
+
+        try {
+            // Forward: layer c holds the states after the first c cells with the number of ways to reach
+            // them, and where each state goes next (position + 1, doubled, plus 1 if the cell is a ship)
+            long[][] ways = new long[cellCount + 1][];
+            int[][] successors = new int[cellCount][];
+            Layer layer = new Layer(16);
+            layer.add(initial, 1);
+            int stored = 0;
+            for (int c = 0; c < cellCount; c++) {
+                Layer to = new Layer(layer.size);
+                int[] links = new int[MAX_SUCCESSORS * layer.size];
+                for (int i = 0; i < layer.size; i++) {
+                    int n = expand(layer.keys[i], c);
+                    for (int j = 0; j < n; j++) {
+                        int pos = to.add(next[j], layer.values[i]);
+                        links[MAX_SUCCESSORS * i + j] = 2 * (pos + 1) + (nextOccupied[j] ? 1 : 0);
+                    }
+                }
+                ways[c] = Arrays.copyOf(layer.values, layer.size);
+                successors[c] = links;
+                stored += to.size;
+                // The remaining layers are assumed to be half as large on average: give up early on open boards
+                long projected = stored + (long) to.size * (cellCount - c - 1) / 2;
+                if (projected > MAX_STATES || System.nanoTime() > deadline) return false;
+                if (Thread.currentThread().isInterrupted()) return false;		// Cancelled by the caller
+                layer = to;
+            }
+
+            // Backward: ways to complete each state; a complete board must have placed every ship
+            long[] completions = new long[layer.size];
+            for (int i = 0; i < layer.size; i++) {
+                completions[i] = (layer.keys[i] >>> profileBits) == 0 ? 1 : 0;
+            }
+            for (int c = cellCount - 1; c >= 0; c--) {
+                long[] reach = ways[c];
+                int[] links = successors[c];
+                long[] previous = new long[reach.length];
+                long occupied = 0;
+                for (int i = 0; i < reach.length; i++) {
+                    long total = 0;
+                    for (int j = MAX_SUCCESSORS * i; j < MAX_SUCCESSORS * (i + 1) && links[j] != 0; j++) {
+                        long completing = completions[(links[j] >>> 1) - 1];
+                        total = Math.addExact(total, completing);
+                        if ((links[j] & 1) != 0 && completing != 0) {
+                            occupied = Math.addExact(occupied, Math.multiplyExact(reach[i], completing));
+                        }
+                    }
+                    previous[i] = total;
+                }
+                occupancy[c] = occupied;
+                completions = previous;
+                ways[c] = null;
+                successors[c] = null;
+            }
+            arrangements = completions[0];
+            return arrangements > 0;
+        } catch (ArithmeticException overflow) {
+            return false;
+        }
+    }
+
+    /**
+     * Chooses the key layout for the ships still afloat.
+     * @return The initial key (empty frontier, all ships to place), or null if it does not fit in 63 bits.
+     */
+    private Long layoutKeys(Observation board) {
+        maxSize = board.getMaxShipSize();
+        int codes = OPEN_RUN + 4 * maxSize;
+        bits = 32 - Integer.numberOfLeadingZeros(codes - 1);
+        slotMask = (1L << bits) - 1;
+        profileBits = (width + 1) * bits;
+
+        countShift = new int[maxSize + 1];
+        countMask = new long[maxSize + 1];
+        long initial = 0;
+        int shift = profileBits;
+        for (int size = 1; size <= maxSize; size++) {
+            int count = board.getAfloatShipCount(size);
+            int countBits = 32 - Integer.numberOfLeadingZeros(count);
+            countShift[size] = shift;
+            countMask[size] = (1L << countBits) - 1;
+            initial |= (long) count << shift;
+            shift += countBits;
+        }
+        return shift <= 63 ? initial : null;
+    }
+
+    // --- TRANSITIONS ---
+
+    /**
+     * Lists the states reachable by deciding whether cell {@code c} holds a ship.
+     * Results go to {@link #next} and {@link #nextOccupied}.
+     * @return The number of successors.
+     */
+    private int expand(long key, int c) {
+        int x = c % width;
+        int y = c / width;
+        int left = x > 0 ? slot(key, x - 1) : EMPTY;
+        int up = y > 0 ? slot(key, x) : EMPTY;
+        int upRight = y > 0 && x + 1 < width ? slot(key, x + 1) : EMPTY;
+        int upLeft = x > 0 && y > 0 ? slot(key, width) : EMPTY;
+        int n = 0;
+
+        // 1. Water: an open run next to the cell ends here
+        if (!hit[c]) {
+            long k = key;
+            boolean ok = true;
+            if (isRun(left, true)) {
+                int length = runLength(left);
+                ok = length >= 2 && !runAllHit(left) && remaining(k, length) > 0;
+                if (ok) k = withSlot(k - (1L << countShift[length]), x - 1, CLOSED);
+            }
+            int upAfter = up == EMPTY ? EMPTY : CLOSED;
+            if (ok && isRun(up, false)) {
+                int length = runLength(up);
+                ok = length >= 2 && !runAllHit(up) && remaining(k, length) > 0;
+                if (ok) k -= 1L << countShift[length];
+            }
+            if (ok) {
+                next[n] = withSlot(withSlot(k, width, upAfter), x, EMPTY);
+                nextOccupied[n++] = false;
+            }
+        }
+
+        // 2. Ship: no diagonal contact, and only a run pointing at the cell may touch it
+        if (blocked[c] || upLeft != EMPTY || upRight != EMPTY) return n;
+        boolean fromLeft = isRun(left, true);
+        boolean fromUp = isRun(up, false);
+        if ((left != EMPTY && !fromLeft) || (up != EMPTY && !fromUp) || (fromLeft && fromUp)) return n;
+
+        if (fromLeft || fromUp) {
+            int run = fromLeft ? left : up;
+            int length = runLength(run) + 1;
+            boolean allHit = runAllHit(run) && hit[c];
+            long k = withSlot(key, width, fromUp ? CLOSED : EMPTY);
+            if (fromLeft) k = withSlot(k, x - 1, CLOSED);
+            boolean mustEnd = fromLeft ? x == width - 1 : y == height - 1;
+            if (mustEnd || length == maxSize) {
+                // The ship cannot grow further: it is complete here
+                if (allHit || remaining(k, length) == 0) return n;
+                next[n] = withSlot(k - (1L << countShift[length]), x, CLOSED);
+            } else {
+                if (!anyRemaining(k, length)) return n;
+                next[n] = withSlot(k, x, runCode(fromLeft, length, allHit));
+            }
+            nextOccupied[n++] = true;
+            return n;
+        }
+
+        // A new ship starts here
+        long k = withSlot(key, width, EMPTY);
+        if (maxSize >= 1 && !hit[c] && remaining(k, 1) > 0) {
+            next[n] = withSlot(k - (1L << countShift[1]), x, CLOSED);
+            nextOccupied[n++] = true;
+        }
+        if (anyRemaining(k, 2)) {
+            if (x + 1 < width) {
+                next[n] = withSlot(k, x, runCode(true, 1, hit[c]));
+                nextOccupied[n++] = true;
+            }
+            if (y + 1 < height) {
+                next[n] = withSlot(k, x, runCode(false, 1, hit[c]));
+                nextOccupied[n++] = true;
+            }
+        }
+        return n;
+    }
+
+    private int slot(long key, int i) {
+        return (int) ((key >>> (i * bits)) & slotMask);
+    }
+
+    private long withSlot(long key, int i, int code) {
+        int shift = i * bits;
+        return (key & ~(slotMask << shift)) | ((long) code << shift);
+    }
+
+    private int remaining(long key, int size) {
+        return size <= maxSize ? (int) ((key >>> countShift[size]) & countMask[size]) : 0;
+    }
+
+    private boolean anyRemaining(long key, int minSize) {
+        for (int size = minSize; size <= maxSize; size++) {
+            if (remaining(key, size) > 0) return true;
+        }
+        return false;
+    }
+
+    private int runCode(boolean horizontal, int length, boolean allHit) {
+        return OPEN_RUN + (horizontal ? 0 : 2 * maxSize) + 2 * (length - 1) + (allHit ? 1 : 0);
+    }
+
+    private boolean isRun(int code, boolean horizontal) {
+        if (code < OPEN_RUN) return false;
+        return ((code - OPEN_RUN) < 2 * maxSize) == horizontal;
+    }
+
+    private int runLength(int code) {
+        return ((code - OPEN_RUN) % (2 * maxSize)) / 2 + 1;
+    }
+
+    private boolean runAllHit(int code) {
+        return ((code - OPEN_RUN) & 1) == 1;
+    }
+
+    /**
+     * States of one layer with their counts, in insertion order, indexed by an
+     * open-addressing hash table.
+     */
+    private static final class Layer {
+
+        long[] keys;
+        long[] values;
+        int size;
+        private int[] index;					// Position + 1, 0 for a free slot
+
+        Layer(int expected) {
+            keys = new long[expected];
+            values = new long[expected];
+            index = new int[Integer.highestOneBit(Math.max(2, expected) * 2 - 1) * 2];
+        }
+
+        /**
+         * Adds ways to reach a state.
+         * @return The position of the state.
+         */
+        int add(long key, long value) {
+            int mask = index.length - 1;
+            for (int h = hash(key) & mask; ; h = (h + 1) & mask) {
+                int pos = index[h] - 1;
+                if (pos < 0) {
+                    if (size == keys.length) {
+                        keys = Arrays.copyOf(keys, size * 2);
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    keys[size] = key;
+                    values[size] = value;
+                    index[h] = ++size;
+                    if (size * 2 > index.length) rehash();
+                    return size - 1;
+                }
+                if (keys[pos] == key) {
+                    values[pos] = Math.addExact(values[pos], value);
+                    return pos;
+                }
+            }
+        }
+
+        private void rehash() {
+            index = new int[index.length * 2];
+            int mask = index.length - 1;
+            for (int pos = 0; pos < size; pos++) {
+                int h = hash(keys[pos]) & mask;
+                while (index[h] != 0) h = (h + 1) & mask;
+                index[h] = pos + 1;
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
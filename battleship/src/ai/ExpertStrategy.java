@@ -0,0 +1,920 @@
+package ai;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.random.RandomGenerator;
+
+import model.*;
+
+/**
+ * The density logic of the {@link ExpertReasoner}, shared by all games of one
+ * configuration. It calculates the likelihood of a ship being present in each cell
+ * based on remaining ships and current grid state (Hits and Misses).
+ *
+ * The map is maintained incrementally: between two calls only the shots appended
+ * to the enemy grid's journal are examined, and only the placements covering a
+ * changed cell (the shot, or the buffer zone of a ship just sunk) are re-weighted.
+ * The best cells are tracked by a max tree over blocks of cells, so choosing a
+ * move does not rescan the board either. All weights are integers, capped so that
+ * any sum of them stays below 2^53 (see {@link #placementWeights}): the incremental
+ * sums are exactly those of a full recomputation.
+ *
+ * Placements are checked against bit masks of the board (see {@link PlacementTable}):
+ * a placement is possible if it covers no blocked bit, and its hit count is the
+ * number of hit bits it covers.
+ *
+ * A full recomputation (after an undo, an edit or on another board) goes region by
+ * region (see {@link RegionMap}): the density of a region that no shot has touched
+ * since the last map is kept as is, only the other regions are enumerated again.
+ *
+ * That map is per-game data by nature, so the {@link Context} of a game holds it, and
+ * nothing else: the placement tables and weights of the configuration are shared by
+ * all contexts, and the scratch of an update (the pending masks, the changed cells,
+ * the regions being relabelled) is a per-thread {@link Workspace}. Contexts are meant
+ * to be pooled (see {@link ContextPool}): a restarted context keeps its buffers and
+ * recomputes the map on the first move of its new game.
+ *
+ * With a {@link TranspositionTable}, the best cells of every position analysed are
+ * shared with the other games: a position already in the table is played from its
+ * stored cells, with the same random choice among them, and the map is brought up to
+ * date only at the next position the table does not know.
+ */
+public final class ExpertStrategy implements Strategy<ExpertStrategy.Context> {
+
+    // Cell codes, as seen by ship placements
+    private static final int OPEN = 0;			// Not fired and not next to a sunk ship
+    private static final int BLOCKED = 1;		// Miss, sunk ship or its buffer zone
+    private static final int HIT = 2;			// Hit on a ship still afloat
+
+    private static final int[][] DELTAS = {{-1,0},{1,0},{0,-1},{0,1}};
+
+    /** Cells per leaf of the max tree */
+    private static final int BLOCK = 16;
+
+    /** Boards with fewer cells are always enumerated sequentially: forking would cost more */
+    private static final int PARALLEL_THRESHOLD = 128 * 128;
+    /** Approximate number of cells handled by one parallel task */
+    private static final int BAND_CELLS = 16 * 1024;
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final int blocks;
+    /** Leaves of the max tree: the blocks, rounded up to a power of two */
+    private final int leaves;
+
+    private final PlacementTable table;
+    /** weights[h]: weight of a placement covering h hits */
+    private final double[] weights;
+    private final ArrayKernels kernels;
+    /** Pool used to recompute the map of large boards (null: always sequential) */
+    private final ForkJoinPool pool;
+
+    // Shared cache of the best cells per position (null: none)
+    private final TranspositionTable transpositions;
+    private final long transpositionSalt;
+
+    private final ThreadLocal<Workspace> workspaces;
+
+    public ExpertStrategy(GameConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param transpositions Table shared by the games, or null to always compute the moves.
+     */
+    public ExpertStrategy(GameConfig config, TranspositionTable transpositions) {
+        this(config, transpositions, ArrayKernels.best(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param kernels The kernels used to sum the densities into the probabilities.
+     * @param pool    The pool of the recomputations of large boards, or null to always
+     *                compute on the calling thread.
+     */
+    ExpertStrategy(GameConfig config, TranspositionTable transpositions, ArrayKernels kernels, ForkJoinPool pool) {
+        if (config == null) {
+            throw new IllegalArgumentException("The configuration is required");
+        }
+        if (kernels == null) {
+            throw new IllegalArgumentException("Kernels are required");
+        }
+        this.width = config.getWidth();
+        this.height = config.getHeight();
+        this.cellCount = width * height;
+        this.blocks = (cellCount + BLOCK - 1) / BLOCK;
+        this.leaves = Integer.highestOneBit(Math.max(1, blocks - 1)) << 1;
+        this.table = PlacementTable.forConfig(config);
+        // Weighted up to the longest ship allowed, so that any observation of the board fits
+        this.weights = placementWeights(config, GameConfig.MAX_SHIP_SIZE);
+        this.kernels = kernels;
+        this.pool = pool;
+        this.transpositions = transpositions;
+        this.transpositionSalt = TranspositionTable.salt("expert", width, height);
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(width, height, blocks, transpositions != null));
+    }
+
+    /**
+     * The incremental probability map of a game: the density of the placements per
+     * ship size, the masks of the board it reflects and the max tree of its best cells.
+     */
+    public static final class Context extends Strategy.Context {
+
+        private final int width;
+        /** Probability score of each cell (row-major): the sum over sizes of count * density */
+        private final double[] probability;
+        /** Per ship size, the total weight of the valid placements covering each cell */
+        private double[][] density = new double[0][];
+        /** Afloat enemy ships per size reflected in the probabilities */
+        private int[] counts = new int[0];
+
+        // Blocked and hit cells the density reflects, row-major and column-major
+        private final long[] blockedRows;
+        private final long[] hitRows;
+        private final long[] blockedCols;
+        private final long[] hitCols;
+        /** Regions of the cells the density reflects */
+        private RegionMap regions;
+
+        // Max tree over blocks of cells: best open score and how many open cells reach it
+        private final double[] treeMax;
+        private final int[] treeTies;
+
+        // What the density was computed from
+        private Observation trackedBoard;
+        private int trackedRevision;
+        private int trackedShots;
+
+        private Context(RandomGenerator random, int width, int height, int leaves) {
+            super(random);
+            this.width = width;
+            this.probability = new double[width * height];
+            int words = BitBoard.wordsFor(width * height);
+            this.blockedRows = new long[words];
+            this.hitRows = new long[words];
+            this.blockedCols = new long[words];
+            this.hitCols = new long[words];
+            this.regions = new RegionMap(width, height);
+            this.treeMax = new double[2 * leaves];
+            this.treeTies = new int[2 * leaves];
+        }
+
+        /**
+         * Drops the observation the map was computed from: the map is recomputed from
+         * scratch at the next move.
+         */
+        @Override
+        protected void clear() {
+            trackedBoard = null;
+        }
+
+        /**
+         * @return The probability score computed for the cell at the last move
+         *         (or at the last one computed, with a transposition table).
+         */
+        public double getProbability(int x, int y) {
+            return probability[y * width + x];
+        }
+    }
+
+    /**
+     * The scratch of an update, valid only during a call.
+     */
+    private static final class Workspace {
+        // The masks of the context once the pending changes are applied
+        private final long[] nextBlockedRows;
+        private final long[] nextHitRows;
+        private final long[] nextBlockedCols;
+        private final long[] nextHitCols;
+
+        private int[] changed = new int[64];		// Cells whose code differs between the two mask sets
+        private int changedCount;
+        private int[] starts = new int[64];			// Scratch list of placement start cells
+
+        /** Regions of the board being recomputed, swapped with those of the context */
+        private RegionMap nextRegions;
+        private boolean[] staleLabels = new boolean[16];	// Labels of regions touched by a change
+        private boolean[] staleRegions = new boolean[16];
+
+        /** Per ship size, partial density of the vertical placements during a parallel recomputation */
+        private double[][] vertical = new double[0][];
+
+        // Blocks of the max tree whose cells changed
+        private final boolean[] blockDirty;
+        private final int[] dirtyBlocks;
+        private int dirtyBlockCount;
+
+        /** The best cells stored in the transposition table (null: no table) */
+        private final int[] bestCells;
+
+        private Workspace(int width, int height, int blocks, boolean transpositions) {
+            int words = BitBoard.wordsFor(width * height);
+            this.nextBlockedRows = new long[words];
+            this.nextHitRows = new long[words];
+            this.nextBlockedCols = new long[words];
+            this.nextHitCols = new long[words];
+            this.nextRegions = new RegionMap(width, height);
+            this.blockDirty = new boolean[blocks];
+            this.dirtyBlocks = new int[blocks];
+            this.bestCells = transpositions ? new int[TranspositionTable.MAX_MOVES] : null;
+        }
+    }
+
+    @Override
+    public Context newContext(RandomGenerator random) {
+        return new Context(random, width, height, leaves);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the board does not have the size of the configuration.
+     */
+    @Override
+    public Point chooseMove(Context context, Observation board) {
+        if (board.getWidth() != width || board.getHeight() != height) {
+            throw new IllegalArgumentException("Board of " + board.getWidth() + "x" + board.getHeight()
+                + " for a strategy of " + width + "x" + height);
+        }
+
+        // A position analysed before, in this game or another one
+        long key = 0;
+        if (transpositions != null) {
+            key = board.getZobristKey() ^ transpositionSalt;
+            int[] best = transpositions.probe(key);
+            if (best != null) {
+                int c = best[context.random.nextInt(best.length)];
+                if (c < cellCount && board.isPotentialTarget(c % width, c / width)) {
+                    return new Point(c % width, c / width);
+                }
+            }
+        }
+
+        // Bring the probabilities up to date with the current state
+        Workspace w = workspaces.get();
+        updateProbability(context, board, w);
+
+        // Fallback to a random valid move if no candidates are found (edge case)
+        if (context.treeMax[1] < 0) return getRandomMove(context.random, board);
+
+        if (transpositions != null && context.treeTies[1] <= w.bestCells.length) {
+            transpositions.store(key, w.bestCells, collectBest(context, w));
+        }
+
+        // Pick one coordinate randomly among those with the highest probability
+        return pickAmongBest(context);
+    }
+
+    /**
+     * Weights of the placements by number of hits covered: 1 for none (searching),
+     * 20^hitCount otherwise (targeting). A cell is covered by at most 2 * size
+     * placements per ship of that size, so no sum of weights exceeds twice the fleet's
+     * cells times the largest weight: the exponent stops where that bound would reach
+     * 2^53, and the sums stay exact integers. Only placements of long ships covering
+     * many hits share the capped weight.
+     * @param maxHits The largest hit count weighted.
+     */
+    static double[] placementWeights(GameConfig config, int maxHits) {
+        long fleetCells = 0;
+        for (ShipConfig sc : config.getShipTypes()) {
+            fleetCells += (long) sc.getSize() * sc.getCount();
+        }
+        double limit = Math.scalb(1.0, 53) / (2 * fleetCells);
+        double[] weights = new double[maxHits + 1];
+        weights[0] = 1.0;
+        for (int h = 1; h <= maxHits; h++) {
+            weights[h] = weights[h - 1] * 20.0 <= limit ? weights[h - 1] * 20.0 : weights[h - 1];
+        }
+        return weights;
+    }
+
+    /**
+     * Updates the probability map: incrementally when the enemy grid has only
+     * received new shots since the last call, from scratch otherwise.
+     */
+    private void updateProbability(Context game, Observation board, Workspace w) {
+        if (board != game.trackedBoard || board.getRevision() != game.trackedRevision
+                || board.getShotCount() < game.trackedShots) {
+            recompute(game, board, w);
+            return;
+        }
+
+        // The pending masks start from those of the game (the workspace may have served another one)
+        System.arraycopy(game.blockedRows, 0, w.nextBlockedRows, 0, game.blockedRows.length);
+        System.arraycopy(game.hitRows, 0, w.nextHitRows, 0, game.hitRows.length);
+        System.arraycopy(game.blockedCols, 0, w.nextBlockedCols, 0, game.blockedCols.length);
+        System.arraycopy(game.hitCols, 0, w.nextHitCols, 0, game.hitCols.length);
+        w.changedCount = 0;
+        for (int n = game.trackedShots; n < board.getShotCount(); n++) {
+            collectChanges(game, w, board, board.getShotIndex(n));
+        }
+        game.trackedShots = board.getShotCount();
+
+        applyChanges(game, w);
+        boolean fleetChanged = applyCountChanges(game, board);
+        if (fleetChanged) {
+            rebuildTree(game, w);
+        } else {
+            refreshDirtyBlocks(game, w);
+        }
+    }
+
+    // --- FULL RECOMPUTATION ---
+
+    /**
+     * Resets and updates the probability grid by simulating all possible placements
+     * for every remaining enemy ship. The regions left untouched since the density was
+     * last computed keep it, the others are enumerated again.
+     */
+    private void recompute(Context game, Observation board, Workspace w) {
+        game.trackedBoard = board;
+        game.trackedRevision = board.getRevision();
+        game.trackedShots = board.getShotCount();
+
+        // Codes straight from the board's masks, word by word (see codeOf), then transposed
+        BitBoard hits = board.getHitMask();
+        BitBoard misses = board.getMissMask();
+        BitBoard forbidden = board.getForbiddenMask();
+        Arrays.fill(w.nextBlockedCols, 0);
+        Arrays.fill(w.nextHitCols, 0);
+        for (int i = 0; i < w.nextBlockedRows.length; i++) {
+            w.nextBlockedRows[i] = misses.word(i) | forbidden.word(i);
+            w.nextHitRows[i] = hits.word(i) & ~w.nextBlockedRows[i];
+            transpose(w.nextBlockedRows[i], i, w.nextBlockedCols);
+            transpose(w.nextHitRows[i], i, w.nextHitCols);
+        }
+        int staleCells = findStaleRegions(game, w);
+        System.arraycopy(w.nextBlockedRows, 0, game.blockedRows, 0, game.blockedRows.length);
+        System.arraycopy(w.nextHitRows, 0, game.hitRows, 0, game.hitRows.length);
+        System.arraycopy(w.nextBlockedCols, 0, game.blockedCols, 0, game.blockedCols.length);
+        System.arraycopy(w.nextHitCols, 0, game.hitCols, 0, game.hitCols.length);
+        RegionMap previous = game.regions;
+        game.regions = w.nextRegions;
+        w.nextRegions = previous;
+        Arrays.fill(game.probability, 0);
+
+        int maxSize = board.getMaxShipSize();
+        boolean reuse = game.density.length == maxSize + 1 && staleCells < game.regions.getCellCount();
+        if (game.density.length != maxSize + 1) {
+            game.density = new double[maxSize + 1][];
+            game.counts = new int[maxSize + 1];
+        }
+        if (reuse && !(pool != null && staleCells >= PARALLEL_THRESHOLD)) {
+            recomputeStaleRegions(game, w, board, maxSize);
+        } else {
+            recomputeAll(game, w, board, maxSize);
+        }
+        w.changedCount = 0;
+        rebuildTree(game, w);
+    }
+
+    /**
+     * Enumerates the placements of the whole board, in parallel on large ones.
+     */
+    private void recomputeAll(Context game, Workspace w, Observation board, int maxSize) {
+        // Ships of the same size have identical placements: enumerate each size once
+        // and weight it by how many ships of that size are still afloat
+        double[][] density = game.density;
+        for (int size = 1; size <= maxSize; size++) {
+            game.counts[size] = board.getAfloatShipCount(size);
+            if (game.counts[size] == 0) {
+                density[size] = null;
+                continue;
+            }
+            if (density[size] == null) {
+                density[size] = new double[cellCount];
+            } else {
+                Arrays.fill(density[size], 0);
+            }
+        }
+
+        if (pool != null && cellCount >= PARALLEL_THRESHOLD) {
+            enumerateInParallel(game, w, maxSize);
+        } else {
+            for (int size = 1; size <= maxSize; size++) {
+                if (density[size] == null) continue;
+                double[] d = density[size];
+                enumerateRows(game, d, size, 0, height);
+                enumerateColumns(game, d, size, 0, width);
+                kernels.accumulate(game.probability, game.counts[size], d, 0, cellCount);
+            }
+        }
+    }
+
+    private void transpose(long bits, int word, long[] columns) {
+        for (; bits != 0; bits &= bits - 1) {
+            int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+            int t = (cell % width) * height + cell / width;
+            columns[t >>> 6] |= 1L << t;
+        }
+    }
+
+    /**
+     * Lists in changed the cells whose code differs between the current and the next
+     * masks, labels the regions of the next masks and flags as stale those holding a
+     * changed cell, or made of cells of a region holding one.
+     * @return The number of cells of the stale regions.
+     */
+    private static int findStaleRegions(Context game, Workspace w) {
+        w.changedCount = 0;
+        for (int i = 0; i < game.blockedRows.length; i++) {
+            long bits = (game.blockedRows[i] ^ w.nextBlockedRows[i]) | (game.hitRows[i] ^ w.nextHitRows[i]);
+            while (bits != 0) {
+                addChanged(w, (i << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+
+        RegionMap regions = game.regions;
+        if (w.staleLabels.length < regions.getCount()) {
+            w.staleLabels = new boolean[Math.max(regions.getCount(), w.staleLabels.length * 2)];
+        }
+        Arrays.fill(w.staleLabels, 0, regions.getCount(), false);
+        for (int i = 0; i < w.changedCount; i++) {
+            int label = regions.getLabel(w.changed[i]);
+            if (label != RegionMap.NONE) w.staleLabels[label] = true;
+        }
+
+        RegionMap next = w.nextRegions;
+        next.relabel(w.nextBlockedRows);
+        int count = next.getCount();
+        if (w.staleRegions.length < count) {
+            w.staleRegions = new boolean[Math.max(count, w.staleRegions.length * 2)];
+        }
+        // Same codes in a region, and in the whole region its cells belonged to: same density
+        for (int r = 0; r < count; r++) {
+            int label = regions.getLabel(next.getCell(next.getStart(r)));
+            w.staleRegions[r] = label == RegionMap.NONE || w.staleLabels[label];
+        }
+        for (int i = 0; i < w.changedCount; i++) {
+            int region = next.getLabel(w.changed[i]);
+            if (region != RegionMap.NONE) w.staleRegions[region] = true;
+        }
+        int staleCells = 0;
+        for (int r = 0; r < count; r++) {
+            if (w.staleRegions[r]) staleCells += next.getEnd(r) - next.getStart(r);
+        }
+        return staleCells;
+    }
+
+    /**
+     * Brings the density up to date by enumerating again the placements of the stale
+     * regions only (those of the sizes with no density yet, everywhere), then sums the
+     * sizes into the probability. Cells changed outside them have become blocked.
+     */
+    private void recomputeStaleRegions(Context game, Workspace w, Observation board, int maxSize) {
+        double[][] density = game.density;
+        RegionMap regions = game.regions;
+        for (int size = 1; size <= maxSize; size++) {
+            game.counts[size] = board.getAfloatShipCount(size);
+            if (game.counts[size] == 0) {
+                density[size] = null;
+                continue;
+            }
+            if (density[size] == null) {
+                density[size] = new double[cellCount];
+                enumerateRows(game, density[size], size, 0, height);
+                enumerateColumns(game, density[size], size, 0, width);
+                continue;
+            }
+            double[] d = density[size];
+            for (int i = 0; i < w.changedCount; i++) {
+                d[w.changed[i]] = 0;
+            }
+            for (int r = 0; r < regions.getCount(); r++) {
+                if (!w.staleRegions[r]) continue;
+                for (int i = regions.getStart(r); i < regions.getEnd(r); i++) {
+                    d[regions.getCell(i)] = 0;
+                }
+                enumerateRegion(game, d, size, r);
+            }
+        }
+        for (int size = 1; size <= maxSize; size++) {
+            if (density[size] != null) {
+                kernels.accumulate(game.probability, game.counts[size], density[size], 0, cellCount);
+            }
+        }
+    }
+
+    /**
+     * Analyzes the placements starting in a region: the possible ones lie in it.
+     */
+    private void enumerateRegion(Context game, double[] d, int size, int region) {
+        RegionMap regions = game.regions;
+        for (int i = regions.getStart(region); i < regions.getEnd(region); i++) {
+            int start = regions.getCell(i);
+            int x = start % width;
+            int y = start / width;
+            if (x + size <= width) {
+                addPlacement(d, start, 1, size, hitsCovered(game.blockedRows, game.hitRows, start, size));
+            }
+            if (y + size <= height) {
+                addPlacement(d, start, width, size, hitsCovered(game.blockedCols, game.hitCols, x * height + y, size));
+            }
+        }
+    }
+
+    /**
+     * Analyzes all possible horizontal placements lying in rows [fromY, toY).
+     * Writes only to the cells of those rows.
+     */
+    private void enumerateRows(Context game, double[] d, int size, int fromY, int toY) {
+        if (size > width) return;
+        for (int y = fromY; y < toY; y++) {
+            for (int x = 0; x <= width - size; x++) {
+                int start = y * width + x;
+                addPlacement(d, start, 1, size, hitsCovered(game.blockedRows, game.hitRows, start, size));
+            }
+        }
+    }
+
+    /**
+     * Analyzes all possible vertical placements lying in columns [fromX, toX)
+     * (contiguous in the column-major masks). Writes only to the cells of those columns.
+     */
+    private void enumerateColumns(Context game, double[] d, int size, int fromX, int toX) {
+        for (int x = fromX; x < toX; x++) {
+            for (int y = 0; y <= height - size; y++) {
+                int hitCount = hitsCovered(game.blockedCols, game.hitCols, x * height + y, size);
+                addPlacement(d, y * width + x, width, size, hitCount);
+            }
+        }
+    }
+
+    /**
+     * Parallel version of the enumeration, for large boards. Each ship size is split
+     * into bands of rows (horizontal placements, written straight into the density)
+     * and bands of columns (vertical placements, written into a partial grid of the
+     * workspace), so that no two tasks write the same cell. A second round merges the
+     * partial grids and sums the sizes into the probability, band by band.
+     */
+    private void enumerateInParallel(Context game, Workspace w, int maxSize) {
+        if (w.vertical.length < maxSize + 1) {
+            w.vertical = Arrays.copyOf(w.vertical, maxSize + 1);
+        }
+        double[][] vertical = w.vertical;
+        int bandRows = Math.max(1, BAND_CELLS / width);
+        int bandColumns = Math.max(1, BAND_CELLS / height);
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int size = 1; size <= maxSize; size++) {
+            if (game.density[size] == null) continue;
+            if (vertical[size] == null) {
+                vertical[size] = new double[cellCount];		// Left zeroed by the merge
+            }
+            double[] d = game.density[size];
+            double[] v = vertical[size];
+            int s = size;
+            for (int y = 0; y < height; y += bandRows) {
+                int fromY = y, toY = Math.min(height, y + bandRows);
+                tasks.add(ForkJoinTask.adapt(() -> enumerateRows(game, d, s, fromY, toY)));
+            }
+            for (int x = 0; x < width; x += bandColumns) {
+                int fromX = x, toX = Math.min(width, x + bandColumns);
+                tasks.add(ForkJoinTask.adapt(() -> enumerateColumns(game, v, s, fromX, toX)));
+            }
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        List<ForkJoinTask<?>> merges = new ArrayList<>();
+        for (int y = 0; y < height; y += bandRows) {
+            int from = y * width, to = Math.min(height, y + bandRows) * width;
+            merges.add(ForkJoinTask.adapt(() -> mergeBand(game, vertical, maxSize, from, to)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(merges)));
+    }
+
+    private void mergeBand(Context game, double[][] vertical, int maxSize, int from, int to) {
+        for (int size = 1; size <= maxSize; size++) {
+            if (game.density[size] == null) continue;
+            double[] d = game.density[size];
+            double[] v = vertical[size];
+            kernels.accumulate(d, 1, v, from, to);
+            Arrays.fill(v, from, to, 0);
+            kernels.accumulate(game.probability, game.counts[size], d, from, to);
+        }
+    }
+
+    private void addPlacement(double[] d, int start, int stride, int size, int hitCount) {
+        if (hitCount < 0) return;
+        double weight = weights[hitCount];
+        for (int i = 0, c = start; i < size; i++, c += stride) {
+            d[c] += weight;
+        }
+    }
+
+    // --- INCREMENTAL UPDATE ---
+
+    /**
+     * Records the cells whose code may have changed because of a shot: the shot
+     * itself and, if it sank a ship, the whole ship with its buffer zone.
+     */
+    private void collectChanges(Context game, Workspace w, Observation board, int index) {
+        addChange(game, w, board, index);
+        int x = index % width;
+        int y = index / width;
+        if (!board.isSunkCell(x, y)) return;
+
+        // Ships are straight: walk the sunk cells in the four directions
+        addNeighbourhood(game, w, board, x, y);
+        for (int[] d : DELTAS) {
+            for (int nx = x + d[0], ny = y + d[1];
+                    board.isValidCoordinate(nx, ny) && board.isSunkCell(nx, ny);
+                    nx += d[0], ny += d[1]) {
+                addNeighbourhood(game, w, board, nx, ny);
+            }
+        }
+    }
+
+    private void addNeighbourhood(Context game, Workspace w, Observation board, int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                addChange(game, w, board, ny * width + nx);
+            }
+        }
+    }
+
+    private void addChange(Context game, Workspace w, Observation board, int index) {
+        int code = codeOf(board, index);
+        int current = codeAt(game.blockedRows, game.hitRows, index);
+        if (codeAt(w.nextBlockedRows, w.nextHitRows, index) == current && code != current) {
+            addChanged(w, index);
+        }
+        setCode(index, code, w.nextBlockedRows, w.nextHitRows, w.nextBlockedCols, w.nextHitCols);
+    }
+
+    private static void addChanged(Workspace w, int cell) {
+        if (w.changedCount == w.changed.length) {
+            w.changed = Arrays.copyOf(w.changed, w.changedCount * 2);
+        }
+        w.changed[w.changedCount++] = cell;
+    }
+
+    /**
+     * Re-weights every placement that covers a changed cell, then commits the new codes.
+     */
+    private void applyChanges(Context game, Workspace w) {
+        if (w.changedCount == 0) return;
+        for (int size = 1; size < game.density.length; size++) {
+            if (game.density[size] == null) continue;
+            if (size <= width) updatePlacements(game, w, size, true);
+            if (size <= height) updatePlacements(game, w, size, false);
+        }
+        for (int i = 0; i < w.changedCount; i++) {
+            int c = w.changed[i];
+            int code = codeAt(w.nextBlockedRows, w.nextHitRows, c);
+            setCode(c, code, game.blockedRows, game.hitRows, game.blockedCols, game.hitCols);
+            if (code == BLOCKED) game.regions.block(c);
+            markBlock(w, c);
+        }
+        w.changedCount = 0;
+    }
+
+    private void updatePlacements(Context game, Workspace w, int size, boolean horizontal) {
+        int n = 0;
+        int[] starts = w.starts;
+        for (int i = 0; i < w.changedCount; i++) {
+            int x = w.changed[i] % width;
+            int y = w.changed[i] / width;
+            int from = Math.max(0, (horizontal ? x : y) - size + 1);
+            int to = Math.min(horizontal ? x : y, (horizontal ? width : height) - size);
+            if (n + to - from + 1 > starts.length) {
+                starts = w.starts = Arrays.copyOf(starts, Math.max(starts.length * 2, n + to - from + 1));
+            }
+            for (int p = from; p <= to; p++) {
+                starts[n++] = horizontal ? y * width + p : p * width + x;
+            }
+        }
+        // Several changed cells can share a placement: evaluate each one once
+        Arrays.sort(starts, 0, n);
+
+        int stride = horizontal ? 1 : width;
+        double[] d = game.density[size];
+        int count = game.counts[size];
+        for (int i = 0; i < n; i++) {
+            int start = starts[i];
+            if (i > 0 && start == starts[i - 1]) continue;
+
+            int first = horizontal ? start : (start % width) * height + start / width;
+            int before = horizontal
+                ? hitsCovered(game.blockedRows, game.hitRows, first, size)
+                : hitsCovered(game.blockedCols, game.hitCols, first, size);
+            int after = horizontal
+                ? hitsCovered(w.nextBlockedRows, w.nextHitRows, first, size)
+                : hitsCovered(w.nextBlockedCols, w.nextHitCols, first, size);
+            if (before == after) continue;
+
+            double delta = (after < 0 ? 0 : weights[after]) - (before < 0 ? 0 : weights[before]);
+            for (int k = 0, c = start; k < size; k++, c += stride) {
+                d[c] += delta;
+                game.probability[c] += count * delta;
+                markBlock(w, c);
+            }
+        }
+    }
+
+    /**
+     * Applies the ships sunk since the last call: the placements of their size are
+     * still valid elsewhere, but now count for fewer ships.
+     * @return true if any count changed (every cell's score moved).
+     */
+    private boolean applyCountChanges(Context game, Observation board) {
+        boolean changedAny = false;
+        for (int size = 1; size < game.density.length; size++) {
+            if (game.density[size] == null) continue;
+            int count = board.getAfloatShipCount(size);
+            if (count == game.counts[size]) continue;
+
+            kernels.accumulate(game.probability, count - game.counts[size], game.density[size], 0, cellCount);
+            game.counts[size] = count;
+            if (count == 0) {
+                game.density[size] = null;
+            }
+            changedAny = true;
+        }
+        return changedAny;
+    }
+
+    /**
+     * @param first The placement's first bit in the given masks' layout.
+     * @return The number of hits covered by the placement, or -1 if it is not
+     *         possible (it crosses a miss, a sunk ship or a sunk ship's buffer zone).
+     */
+    private int hitsCovered(long[] blocked, long[] hits, int first, int size) {
+        return table.intersects(blocked, first, size) ? -1 : table.count(hits, first, size);
+    }
+
+    private static int codeAt(long[] blocked, long[] hits, int cell) {
+        if ((blocked[cell >>> 6] & (1L << cell)) != 0) return BLOCKED;
+        return (hits[cell >>> 6] & (1L << cell)) != 0 ? HIT : OPEN;
+    }
+
+    /**
+     * Writes a cell code into a set of row-major and column-major masks.
+     */
+    private void setCode(int cell, int code, long[] blocked, long[] hits, long[] blockedT, long[] hitsT) {
+        int t = (cell % width) * height + cell / width;
+        blocked[cell >>> 6] &= ~(1L << cell);
+        hits[cell >>> 6] &= ~(1L << cell);
+        blockedT[t >>> 6] &= ~(1L << t);
+        hitsT[t >>> 6] &= ~(1L << t);
+        if (code == BLOCKED) {
+            blocked[cell >>> 6] |= 1L << cell;
+            blockedT[t >>> 6] |= 1L << t;
+        } else if (code == HIT) {
+            hits[cell >>> 6] |= 1L << cell;
+            hitsT[t >>> 6] |= 1L << t;
+        }
+    }
+
+    private static boolean isOpen(Context game, int cell) {
+        return ((game.blockedRows[cell >>> 6] | game.hitRows[cell >>> 6]) & (1L << cell)) == 0;
+    }
+
+    private int codeOf(Observation board, int index) {
+        int x = index % width;
+        int y = index / width;
+        // A cell next to a sunk ship cannot hold another ship (this includes the sunk cells)
+        if (!board.isAreaClearOfSunkenShips(x, y)) return BLOCKED;
+        CellState state = board.getCellState(x, y);
+        if (state == CellState.MISS) return BLOCKED;
+        return state == CellState.HIT ? HIT : OPEN;
+    }
+
+    // --- BEST CELL TRACKING ---
+
+    private static void markBlock(Workspace w, int cell) {
+        int block = cell / BLOCK;
+        if (!w.blockDirty[block]) {
+            w.blockDirty[block] = true;
+            w.dirtyBlocks[w.dirtyBlockCount++] = block;
+        }
+    }
+
+    private void refreshDirtyBlocks(Context game, Workspace w) {
+        for (int i = 0; i < w.dirtyBlockCount; i++) {
+            int block = w.dirtyBlocks[i];
+            w.blockDirty[block] = false;
+            computeLeaf(game, block);
+            for (int node = (leaves + block) >> 1; node >= 1; node >>= 1) {
+                combine(game, node);
+            }
+        }
+        w.dirtyBlockCount = 0;
+    }
+
+    private void rebuildTree(Context game, Workspace w) {
+        for (int i = 0; i < w.dirtyBlockCount; i++) {
+            w.blockDirty[w.dirtyBlocks[i]] = false;
+        }
+        w.dirtyBlockCount = 0;
+        for (int leaf = 0; leaf < leaves; leaf++) {
+            computeLeaf(game, leaf);
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            combine(game, node);
+        }
+    }
+
+    /**
+     * Best score among the open cells of a block (-1 if none) and how many reach it.
+     */
+    private void computeLeaf(Context game, int block) {
+        double max = -1.0;
+        int ties = 0;
+        int end = Math.min(cellCount, (block + 1) * BLOCK);
+        for (int c = block * BLOCK; c < end; c++) {
+            if (!isOpen(game, c)) continue;
+            double value = game.probability[c];
+            if (value > max) {
+                max = value;
+                ties = 1;
+            } else if (value == max) {
+                ties++;
+            }
+        }
+        game.treeMax[leaves + block] = max;
+        game.treeTies[leaves + block] = ties;
+    }
+
+    private static void combine(Context game, int node) {
+        double[] treeMax = game.treeMax;
+        int[] treeTies = game.treeTies;
+        int left = 2 * node;
+        int right = left + 1;
+        if (treeMax[left] > treeMax[right]) {
+            treeMax[node] = treeMax[left];
+            treeTies[node] = treeTies[left];
+        } else if (treeMax[left] < treeMax[right]) {
+            treeMax[node] = treeMax[right];
+            treeTies[node] = treeTies[right];
+        } else {
+            treeMax[node] = treeMax[left];
+            treeTies[node] = treeTies[left] + treeTies[right];
+        }
+    }
+
+    /**
+     * Picks uniformly one of the open cells with the highest score, counting them in
+     * row-major order, by walking down the tree to the block that holds it.
+     */
+    private Point pickAmongBest(Context game) {
+        double max = game.treeMax[1];
+        int k = game.random.nextInt(game.treeTies[1]);
+        int node = 1;
+        while (node < leaves) {
+            int left = 2 * node;
+            if (game.treeMax[left] == max) {
+                if (k < game.treeTies[left]) {
+                    node = left;
+                    continue;
+                }
+                k -= game.treeTies[left];
+            }
+            node = left + 1;
+        }
+        int end = Math.min(cellCount, (node - leaves + 1) * BLOCK);
+        for (int c = (node - leaves) * BLOCK; c < end; c++) {
+            if (isOpen(game, c) && game.probability[c] == max && k-- == 0) {
+                return new Point(c % width, c / width);
+            }
+        }
+        throw new IllegalStateException("Probability tree out of sync");
+    }
+
+    /**
+     * Lists the open cells reaching the best score in the workspace's bestCells,
+     * visiting only the blocks of the tree that hold one.
+     * @return The number of cells listed.
+     */
+    private int collectBest(Context game, Workspace w) {
+        double max = game.treeMax[1];
+        int count = 0;
+        for (int block = 0; block < blocks; block++) {
+            if (game.treeMax[leaves + block] != max) continue;
+            int end = Math.min(cellCount, (block + 1) * BLOCK);
+            for (int c = block * BLOCK; c < end; c++) {
+                if (isOpen(game, c) && game.probability[c] == max) w.bestCells[count++] = c;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Simple random picker used as a safety fallback: reservoir sampling over the
+     * cells not fired at, without building a list.
+     */
+    private Point getRandomMove(RandomGenerator random, Observation board) {
+        int chosen = -1;
+        int seen = 0;
+        for (int c = 0; c < cellCount; c++) {
+            if (board.getCellState(c % width, c / width) == CellState.NOTFIRED && random.nextInt(++seen) == 0) {
+                chosen = c;
+            }
+        }
+        if (chosen < 0) throw new IllegalStateException("No valid moves available");
+        return new Point(chosen % width, chosen / width);
+    }
+}
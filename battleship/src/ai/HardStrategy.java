@@ -0,0 +1,240 @@
+package ai;
+
+import java.awt.Point;
+import java.util.random.RandomGenerator;
+
+import model.*;
+
+/**
+ * The heat map logic of the {@link HardReasoner}, shared by all games. The map is
+ * rebuilt from the observation at every move, so a game needs no memory between
+ * moves: its context is just its random generator. The map and the scratch masks
+ * are a per-thread {@link Workspace}, resized when the board size changes, so that
+ * a server needs one workspace per thread rather than one per game.
+ *
+ * The cells that the {@link ShipConstraints} of the board prove to be water (next to a
+ * hit ship but outside all its possible placements, or in pockets too small for any
+ * ship afloat) are removed from the targets.
+ */
+public final class HardStrategy implements Strategy<Strategy.Context> {
+
+    /** Orthogonal directions: Right, Left, Down, Up */
+    private static final int[][] DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private final ArrayKernels kernels;
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+    /** Which ship the hits belong to, incremental while a thread follows one board */
+    private static final ThreadLocal<ShipConstraints> CONSTRAINTS = ThreadLocal.withInitial(ShipConstraints::new);
+
+    /**
+     * Uses the default kernels (see {@link ArrayKernels#best()}).
+     */
+    public HardStrategy() {
+        this(ArrayKernels.best());
+    }
+
+    /**
+     * @param kernels The kernels used by the heat map.
+     */
+    public HardStrategy(ArrayKernels kernels) {
+        if (kernels == null) {
+            throw new IllegalArgumentException("Kernels are required");
+        }
+        this.kernels = kernels;
+    }
+
+    /**
+     * The heat map of one board and its scratch masks, all row-major
+     * (index = y * width + x).
+     */
+    static final class Workspace {
+        private int width;
+        private int height;
+        private int cellCount;
+        /** Probability/attractiveness of each cell */
+        int[] heat = new int[0];
+        // Scratch masks, one bit per cell: fired at (hit or miss), and potential targets
+        private long[] fired = new long[0];
+        private long[] targets = new long[0];
+        /** The cells with (x + y) even */
+        private long[] checkerboard = new long[0];
+
+        /**
+         * Sizes the buffers for the board, keeping them if the size is unchanged.
+         */
+        void resize(int width, int height) {
+            if (width == this.width && height == this.height) return;
+            this.width = width;
+            this.height = height;
+            this.cellCount = width * height;
+            this.heat = new int[cellCount];
+            this.fired = new long[BitBoard.wordsFor(cellCount)];
+            this.targets = new long[fired.length];
+            this.checkerboard = new long[fired.length];
+            for (int c = 0; c < cellCount; c++) {
+                if ((c % width + c / width) % 2 == 0) checkerboard[c >>> 6] |= 1L << c;
+            }
+        }
+    }
+
+    @Override
+    public Strategy.Context newContext(RandomGenerator random) {
+        return new Strategy.Context(random);
+    }
+
+    @Override
+    public Point chooseMove(Strategy.Context context, Observation board) {
+        return chooseMove(context, board, workspaces.get());
+    }
+
+    /**
+     * Selects the next move by finding the cell(s) with the highest heat value.
+     * If multiple cells have the same maximum heat, one is picked at random.
+     */
+    Point chooseMove(Strategy.Context context, Observation board, Workspace w) {
+        w.resize(board.getWidth(), board.getHeight());
+
+        // Recalculate the heat map based on the current grid state
+        updateHeat(board, w);
+
+        // Cells next to a ship but certainly not part of it are no targets
+        ShipConstraints known = CONSTRAINTS.get();
+        known.update(board);
+        long[] water = known.waterMask();
+        for (int i = 0; i < w.targets.length; i++) {
+            w.targets[i] &= ~water[i];
+        }
+
+        // Best heat among the targetable cells, and a random one of the cells reaching it
+        int maxHeat = kernels.max(w.heat, w.targets, w.cellCount);
+
+        // If no tactical heat is found (e.g., Hunt Mode), use checkerboard strategy
+        if (maxHeat <= 1) {
+            return checkerboardPicker(context.random, board, w);
+        }
+
+        // Randomly pick from the most promising target cells
+        int ties = kernels.count(w.heat, w.targets, w.cellCount, maxHeat);
+        int cell = kernels.find(w.heat, w.targets, w.cellCount, maxHeat, context.random.nextInt(ties));
+        return new Point(cell % w.width, cell / w.width);
+    }
+
+    /**
+     * Refreshes the heat map. Logic flows from:
+     * 1. Reset -> 2. Tactical Analysis -> 3. Cleaning already fired cells.
+     */
+    private void updateHeat(Observation board, Workspace w) {
+        BitBoard hits = board.getHitMask();
+        BitBoard misses = board.getMissMask();
+        BitBoard forbidden = board.getForbiddenMask();
+        for (int i = 0; i < w.fired.length; i++) {
+            w.fired[i] = hits.word(i) | misses.word(i);
+            w.targets[i] = ~(w.fired[i] | forbidden.word(i));
+        }
+        if ((w.cellCount & 63) != 0) {
+            w.targets[w.targets.length - 1] &= (1L << w.cellCount) - 1;
+        }
+
+        // 1. Initialization: Reset all cells to a base value of 1
+        kernels.fill(w.heat, 1, w.cellCount);
+
+        // 2. Strategic Calculation: the HIT cells, in row-major order
+        BitBoard sunk = board.getSunkMask();
+        for (int i = 0; i < w.fired.length; i++) {
+            long bits = hits.word(i);
+            while (bits != 0) {
+                int c = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                // If the ship is sunk, neutralize surrounding area (Standard Rule: ships can't touch)
+                if (sunk.get(c)) {
+                    applySunkenPenalty(w, c % w.width, c / w.width);
+                } else {
+                    // TARGETING MODE: Identify ship orientation and boost heat along that axis
+                    applyDirectionalHeat(w, hits, c % w.width, c / w.width);
+                }
+            }
+        }
+
+        // 3. Cleanup: Set heat to 0 for any cell that has already been fired upon
+        kernels.clear(w.heat, w.fired, w.cellCount);
+    }
+
+    /**
+     * Applies heat to adjacent cells. If two hits are aligned, it heavily
+     * boosts the heat of the next cell in that line.
+     */
+    private static void applyDirectionalHeat(Workspace w, BitBoard hits, int x, int y) {
+        for (int[] d : DIRS) {
+            int nx = x + d[0];
+            int ny = y + d[1];
+
+            if (isValid(w, nx, ny) && !ArrayKernels.isSet(w.fired, ny * w.width + nx)) {
+                // Standard proximity bonus
+                w.heat[ny * w.width + nx] += 10;
+
+                // ALIGNMENT CHECK:
+                // If there is another HIT in the OPPOSITE direction, it confirms the ship's axis.
+                // We add a significant bonus to "continue" the line.
+                int ox = x - d[0];
+                int oy = y - d[1];
+                if (isValid(w, ox, oy) && hits.get(oy * w.width + ox)) {
+                    w.heat[ny * w.width + nx] += 25; // Massive boost for maintaining the direction
+                }
+            }
+        }
+    }
+
+    private static boolean isValid(Workspace w, int x, int y) {
+        return x >= 0 && x < w.width && y >= 0 && y < w.height;
+    }
+
+    /**
+     * Hunt Mode Strategy: Checkerboard pattern.
+     * Filters available cells to only those where (x + y) is even.
+     * This ensures the AI finds any ship (minimum size 2) in half the turns.
+     */
+    private static Point checkerboardPicker(RandomGenerator random, Observation board, Workspace w) {
+        int available = 0;
+        for (int i = 0; i < w.targets.length; i++) {
+            available += Long.bitCount(w.targets[i] & w.checkerboard[i]);
+        }
+
+        // If no checkerboard cells are left, fallback to standard random selection
+        if (available == 0) {
+            int targets = board.getPotentialTargetCount();
+            if (targets == 0) {
+                throw new IllegalStateException("No valid moves available");
+            }
+            return board.getAnyPotentialTarget(random.nextInt(targets));
+        }
+
+        // Walk to the word holding the k-th candidate, then to its bit
+        int k = random.nextInt(available);
+        for (int i = 0; ; i++) {
+            long bits = w.targets[i] & w.checkerboard[i];
+            int count = Long.bitCount(bits);
+            if (k >= count) {
+                k -= count;
+                continue;
+            }
+            for (; k > 0; k--) {
+                bits &= bits - 1;
+            }
+            int c = (i << 6) + Long.numberOfTrailingZeros(bits);
+            return new Point(c % w.width, c / w.width);
+        }
+    }
+
+    /**
+     * Nullifies the heat in a 3x3 area around a sunk ship's cell.
+     * Used because ships usually cannot be placed immediately adjacent to each other.
+     */
+    private static void applySunkenPenalty(Workspace w, int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(w.height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(w.width - 1, x + 1); nx++) {
+                w.heat[ny * w.width + nx] = 0;
+            }
+        }
+    }
+}
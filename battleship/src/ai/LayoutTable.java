@@ -0,0 +1,165 @@
+package ai;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.GameConfig;
+
+/**
+ * Every ship placement of a configuration, prepared for fast whole-fleet layout
+ * generation. For each placement the table lists the words of its halo (the ship
+ * and the ring of cells around it, where no other ship may be) on a row-major
+ * bitset of the board, with the ship's own cells in each word, so that checking
+ * and applying a placement is a handful of word operations.
+ *
+ * The table holds O(placements) segments and is meant for small and medium boards;
+ * it is immutable and shared by all the reasoners playing the same configuration.
+ */
+final class LayoutTable {
+
+    private static final Map<GameConfig, LayoutTable> CACHE = new ConcurrentHashMap<>();
+
+    final int width;
+    final int height;
+    final int words;
+
+    // Placements, grouped by size: those of size s are [sizeFrom[s], sizeFrom[s + 1])
+    final int[] sizeFrom;
+    final int[] size;
+    final int[] start;					// First cell (row-major)
+    final int[] stride;					// 1 for horizontal ships, width for vertical ones
+
+    // Halo segments of placement p: [segFrom[p], segFrom[p + 1])
+    final int[] segFrom;
+    final int[] segWord;
+    final long[] segHalo;				// Halo bits in the word (ship cells included)
+    final long[] segBody;				// Ship cells in the word
+
+    // Placements covering cell c: cover[coverFrom[c] .. coverFrom[c + 1])
+    final int[] coverFrom;
+    final int[] cover;
+
+    final int maxSegments;				// Most halo segments of a single placement
+    final int maxCover;					// Most placements covering a single cell
+
+    private LayoutTable(GameConfig config) {
+        this.width = config.getWidth();
+        this.height = config.getHeight();
+        this.words = (width * height + 63) >>> 6;
+        int maxSize = config.getMaxShipSize();
+
+        // 1. Enumerate the placements, size by size
+        this.sizeFrom = new int[maxSize + 2];
+        int total = 0;
+        for (int s = 1; s <= maxSize; s++) {
+            sizeFrom[s] = total;
+            total += placementsOf(s);
+        }
+        sizeFrom[maxSize + 1] = total;
+        this.size = new int[total];
+        this.start = new int[total];
+        this.stride = new int[total];
+        int p = 0;
+        for (int s = 1; s <= maxSize; s++) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x + s <= width; x++, p++) {
+                    size[p] = s; start[p] = y * width + x; stride[p] = 1;
+                }
+            }
+            // A single-cell ship has one placement per cell, counted as horizontal
+            for (int y = 0; y + s <= height && s > 1; y++) {
+                for (int x = 0; x < width; x++, p++) {
+                    size[p] = s; start[p] = y * width + x; stride[p] = width;
+                }
+            }
+        }
+
+        // 2. Halo segments: rasterize each placement on a scratch board and keep the non-empty words
+        this.segFrom = new int[total + 1];
+        long[] halo = new long[words];
+        long[] body = new long[words];
+        int segments = 0;
+        for (p = 0; p < total; p++) {
+            rasterize(p, halo, body);
+            for (int w = 0; w < words; w++) {
+                if (halo[w] != 0) segments++;
+            }
+        }
+        this.segWord = new int[segments];
+        this.segHalo = new long[segments];
+        this.segBody = new long[segments];
+        int seg = 0;
+        for (p = 0; p < total; p++) {
+            segFrom[p] = seg;
+            rasterize(p, halo, body);
+            for (int w = 0; w < words; w++) {
+                if (halo[w] != 0) {
+                    segWord[seg] = w;
+                    segHalo[seg] = halo[w];
+                    segBody[seg] = body[w];
+                    seg++;
+                }
+            }
+        }
+        segFrom[total] = seg;
+        int mostSegments = 0;
+        for (p = 0; p < total; p++) {
+            mostSegments = Math.max(mostSegments, segFrom[p + 1] - segFrom[p]);
+        }
+        this.maxSegments = mostSegments;
+
+        // 3. Reverse index: placements covering each cell
+        int cells = width * height;
+        this.coverFrom = new int[cells + 1];
+        for (p = 0; p < total; p++) {
+            for (int i = 0, c = start[p]; i < size[p]; i++, c += stride[p]) {
+                coverFrom[c + 1]++;
+            }
+        }
+        for (int c = 0; c < cells; c++) {
+            coverFrom[c + 1] += coverFrom[c];
+        }
+        int mostCover = 0;
+        for (int c = 0; c < cells; c++) {
+            mostCover = Math.max(mostCover, coverFrom[c + 1] - coverFrom[c]);
+        }
+        this.maxCover = mostCover;
+        this.cover = new int[coverFrom[cells]];
+        int[] fill = coverFrom.clone();
+        for (p = 0; p < total; p++) {
+            for (int i = 0, c = start[p]; i < size[p]; i++, c += stride[p]) {
+                cover[fill[c]++] = p;
+            }
+        }
+    }
+
+    /**
+     * @return The table of the configuration, built on first use.
+     */
+    static LayoutTable forConfig(GameConfig config) {
+        return CACHE.computeIfAbsent(config, LayoutTable::new);
+    }
+
+    private int placementsOf(int s) {
+        int horizontal = s <= width ? height * (width - s + 1) : 0;
+        int vertical = s > 1 && s <= height ? width * (height - s + 1) : 0;
+        return horizontal + vertical;
+    }
+
+    private void rasterize(int p, long[] halo, long[] body) {
+        Arrays.fill(halo, 0);
+        Arrays.fill(body, 0);
+        for (int i = 0, c = start[p]; i < size[p]; i++, c += stride[p]) {
+            body[c >>> 6] |= 1L << c;
+            int x = c % width;
+            int y = c / width;
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    int n = ny * width + nx;
+                    halo[n >>> 6] |= 1L << n;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package ai;
+
+import java.awt.Point;
+import java.util.random.RandomGenerator;
+
+import ai.MediumReasoner.Direction;
+import model.CellState;
+import model.Observation;
+
+/**
+ * The "Hunt and Target" logic of the {@link MediumReasoner}, shared by all games:
+ * the ship being chased (first and last hit, firing axis, cells to try around it)
+ * is kept in each game's {@link Context}, a few ints. Works on any board size.
+ */
+public final class MediumStrategy implements Strategy<MediumStrategy.Context> {
+
+    private static final int NONE = -1;
+    private static final int[][] NEIGHBOURS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+
+    /**
+     * The ship a game is chasing. Cells are packed row-major indices (y * width + x,
+     * -1 for none) and the candidates live in a fixed buffer, so a move allocates
+     * nothing but its result.
+     */
+    public static final class Context extends Strategy.Context {
+
+        // Potential target cells adjacent to a hit (at most the four neighbours of one cell)
+        private final int[] candidates = new int[4];
+        private int candidateCount = 0;
+
+        // The very first hit of the ship we are currently attacking
+        private int firstHitOfCurrentShip = NONE;
+
+        // The most recent successful hit (used to determine direction)
+        private int lastHit = NONE;
+
+        // Current firing axis (UP, DOWN, LEFT, RIGHT) once a direction is found
+        private Direction currentDirection = null;
+
+        public Context(RandomGenerator random) {
+            super(random);
+        }
+
+        /**
+         * Clears all internal states and candidate sets.
+         */
+        @Override
+        protected void clear() {
+            candidateCount = 0;
+            firstHitOfCurrentShip = NONE;
+            lastHit = NONE;
+            currentDirection = null;
+        }
+    }
+
+    @Override
+    public Context newContext(RandomGenerator random) {
+        return new Context(random);
+    }
+
+    @Override
+    public Point chooseMove(Context c, Observation board) {
+        int width = board.getWidth();
+
+        // --- STEP 1: SMART CLEANUP ---
+        // Remove any candidates that are no longer valid targets.
+        // This includes cells that were recently fired upon or that became
+        // "buffer zones" because a nearby ship was sunk.
+        int kept = 0;
+        for (int i = 0; i < c.candidateCount; i++) {
+            int cell = c.candidates[i];
+            if (board.isPotentialTarget(cell % width, cell / width)) c.candidates[kept++] = cell;
+        }
+        c.candidateCount = kept;
+
+        // --- STEP 2: SUNK CHECK ---
+        // Check if the ship we were tracking has been sunk.
+        // If so, we reset targeting data to stop wasting shots around it.
+        if (c.firstHitOfCurrentShip != NONE
+                && board.isSunkCell(c.firstHitOfCurrentShip % width, c.firstHitOfCurrentShip / width)) {
+            c.clear();
+        }
+
+        // --- STEP 3: DIRECTIONAL MODE (LINEAR ATTACK) ---
+        // If we know the ship's orientation (currentDirection), keep firing along that line.
+        if (c.currentDirection != null && c.lastHit != NONE) {
+            int next = nextInDirection(board, c.lastHit, c.currentDirection);
+            if (next != NONE) {
+                return toPoint(next, width); // Valid next shot in the same direction
+            } else {
+                // We reached an edge, water, or a forbidden zone.
+                // Flip the direction and start again from the first hit to find the other end.
+                c.currentDirection = reverseDirection(c.currentDirection);
+                c.lastHit = c.firstHitOfCurrentShip;
+                int reverseNext = nextInDirection(board, c.lastHit, c.currentDirection);
+
+                if (reverseNext != NONE) return toPoint(reverseNext, width);
+
+                // If both ends are blocked, the ship is likely done. Reset direction.
+                c.currentDirection = null;
+            }
+        }
+
+        // --- STEP 4: CANDIDATE EXPLORATION (SKEW ATTACK) ---
+        // If we have hit a ship once but don't know the direction yet,
+        // try one of the adjacent candidate cells.
+        if (c.candidateCount > 0) {
+            int next = chooseFromCandidates(c);
+
+            // If the last shot was a hit and this next one is adjacent,
+            // we can establish a firing axis (direction).
+            if (c.lastHit != NONE && board.getCellState(c.lastHit % width, c.lastHit / width) == CellState.HIT) {
+                if (isAdjacent(c.lastHit, next, width)) {
+                    c.currentDirection = direction(c.lastHit, next, width);
+                }
+            }
+            return toPoint(next, width);
+        }
+
+        // --- STEP 5: RE-ENGAGEMENT (CLEANUP SCATTERED HITS) ---
+        // Look for any successful hit that belongs to a ship not yet sunk.
+        // This happens if we hit a ship but got distracted by another one.
+        // The grid keeps these hits indexed, so no scan is needed.
+        int activeHit = board.getAnyActiveHitIndex();
+        if (activeHit != NONE) {
+            // Clear old ship data to prevent logical "jumping" between distant ships
+            c.clear();
+
+            c.firstHitOfCurrentShip = activeHit;
+            c.lastHit = activeHit;
+            // Generate new smart candidates around this existing hit
+            addSmartNeighbors(c, board, activeHit);
+
+            if (c.candidateCount > 0) {
+                return toPoint(chooseFromCandidates(c), width);
+            }
+        }
+
+        // --- STEP 6: SMART HUNT MODE (RANDOM SEARCH) ---
+        // No active targets left. Pick a random cell from the "Smart List".
+        // This list excludes all cells where a ship cannot possibly exist;
+        // the grid maintains it live, so the pick is constant time.
+        c.clear();
+        int smartCells = board.getPotentialTargetCount();
+        if (smartCells == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
+        int p = board.getAnyPotentialTargetIndex(c.random.nextInt(smartCells));
+        c.lastHit = p; // Seed lastHit for potential candidate logic next turn
+        return toPoint(p, width);
+    }
+
+    /**
+     * Adds North, South, East, and West neighbors of a point to candidates,
+     * provided they are within bounds and logically targetable.
+     */
+    private static void addSmartNeighbors(Context c, Observation board, int p) {
+        int width = board.getWidth();
+        for (int[] d : NEIGHBOURS) {
+            int nx = p % width + d[0];
+            int ny = p / width + d[1];
+            if (board.isValidCoordinate(nx, ny) && board.isPotentialTarget(nx, ny)) {
+                c.candidates[c.candidateCount++] = ny * width + nx;
+            }
+        }
+    }
+
+    /**
+     * Picks one cell from the candidates and removes it to prevent duplicate shots.
+     */
+    private static int chooseFromCandidates(Context c) {
+        int chosen = c.candidates[0];
+        c.candidateCount--;
+        System.arraycopy(c.candidates, 1, c.candidates, 0, c.candidateCount);
+        return chosen;
+    }
+
+    /**
+     * Simple utility to flip the search direction 180 degrees.
+     */
+    private static Direction reverseDirection(Direction dir) {
+        return switch (dir) {
+            case UP -> Direction.DOWN;
+            case DOWN -> Direction.UP;
+            case LEFT -> Direction.RIGHT;
+            case RIGHT -> Direction.LEFT;
+        };
+    }
+
+    /**
+     * Calculates the next point in a line and ensures it's a "Smart" target.
+     */
+    private static int nextInDirection(Observation board, int from, Direction dir) {
+        int width = board.getWidth();
+        int nx = from % width, ny = from / width;
+        switch (dir) {
+            case UP -> ny--; case DOWN -> ny++;
+            case LEFT -> nx--; case RIGHT -> nx++;
+        }
+        if (board.isValidCoordinate(nx, ny) && board.isPotentialTarget(nx, ny)) {
+            return ny * width + nx;
+        }
+        return NONE;
+    }
+
+    /**
+     * Determines the vertical or horizontal axis based on the last two hits.
+     */
+    private static Direction direction(int last, int next, int width) {
+        if (last % width == next % width) {
+            return (next > last) ? Direction.DOWN : Direction.UP;
+        }
+        return (next > last) ? Direction.RIGHT : Direction.LEFT;
+    }
+
+    /**
+     * Checks if two points are exactly one cell apart (Manhattan distance of 1).
+     */
+    private static boolean isAdjacent(int a, int b, int width) {
+        return Math.abs(a % width - b % width) + Math.abs(a / width - b / width) == 1;
+    }
+
+    private static Point toPoint(int cell, int width) {
+        return new Point(cell % width, cell / width);
+    }
+}
@@ -0,0 +1,268 @@
+package ai;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Precomputed first moves: for every observation reached in the first {@code depth}
+ * shots, the move a (slow) reasoner chose there.
+ *
+ * Observations equivalent under a symmetry of the board (mirrors, the 180° turn,
+ * and on square boards the transpositions and quarter turns) share one entry:
+ * each observation is mapped to its canonical form, the smallest of its images, and
+ * the move is stored in that frame.
+ *
+ * The file is a 32-byte header (magic, version, board size, fleet fingerprint,
+ * depth, entry count) followed by the entries sorted by key, 12 bytes each: the
+ * 64-bit hash of the canonical observation and the canonical move as a row-major cell
+ * index. The file is memory-mapped and searched in place, with no deserialization.
+ */
+public final class OpeningBook {
+
+    private static final int MAGIC = 0x42534F42;		// "BSOB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 32;
+    private static final int ENTRY = 12;
+
+    private final ByteBuffer data;
+    private final int width;
+    private final int height;
+    private final long fleet;
+    private final int depth;
+    private final int size;
+
+    private OpeningBook(ByteBuffer data) {
+        if (data.capacity() < HEADER || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not an opening book");
+        }
+        this.data = data;
+        this.width = data.getInt(8);
+        this.height = data.getInt(12);
+        this.fleet = data.getLong(16);
+        this.depth = data.getInt(24);
+        this.size = data.getInt(28);
+        if (data.capacity() != HEADER + (long) size * ENTRY) {
+            throw new IllegalArgumentException("Truncated opening book: " + size + " entries expected");
+        }
+    }
+
+    /**
+     * Maps a book file in memory.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if it is not a valid book.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    // --- GETTERS ---
+
+    /**
+     * @return true if the book was computed for this board and fleet.
+     */
+    public boolean supports(GameConfig config) {
+        return config.getWidth() == width && config.getHeight() == height && fingerprint(config) == fleet;
+    }
+
+    /**
+     * @return Number of shots covered: positions with fewer shots may be in the book.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return Number of (canonical) positions stored.
+     */
+    public int size() {
+        return size;
+    }
+
+    // --- LOOKUP ---
+
+    /**
+     * @param board The AI's observation of the opponent's grid.
+     * @return The book move for the current observation, or null if it is not in the book.
+     */
+    public Point lookup(Observation board) {
+        if (board.getShotCount() >= depth || board.getWidth() != width || board.getHeight() != height) {
+            return null;
+        }
+        Canonical canonical = new Canonical(board);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = data.getLong(HEADER + mid * ENTRY);
+            if (key < canonical.key) {
+                low = mid + 1;
+            } else if (key > canonical.key) {
+                high = mid - 1;
+            } else {
+                int move = data.getInt(HEADER + mid * ENTRY + 8);
+                return canonical.toBoard(move % width, move / width);
+            }
+        }
+        return null;
+    }
+
+    // --- GENERATION ---
+
+    /**
+     * Builds a book by playing the first {@code depth} moves of many games against
+     * random fleets. The source reasoner is asked once per new canonical position;
+     * later games reaching the same position replay the stored move, so every branch
+     * of the observation tree met in {@code games} games is covered.
+     * @param source Creates the reasoner whose moves are recorded, for the given AI player.
+     * @return The number of positions written.
+     */
+    public static int generate(GameConfig config, int depth, int games, Function<AIPlayer, Reasoner> source,
+                               Path file) throws IOException {
+        if (depth <= 0 || games <= 0) {
+            throw new IllegalArgumentException("Depth and games must be positive");
+        }
+        Map<Long, Integer> moves = new TreeMap<>();
+        AIPlayer ai = new AIPlayer("Book", new Grid(config));
+        Reasoner reasoner = source.apply(ai);
+        RandomShipPlacer placer = new RandomShipPlacer(config);
+
+        for (int g = 0; g < games; g++) {
+            Grid target = new Grid(config);
+            HumanPlayer opponent = new HumanPlayer("Target", target);
+            placer.placeAllShips(null, opponent);
+            Observation board = target.getObservation();
+            for (int d = 0; d < depth && !target.allShipsSunk(); d++) {
+                Canonical canonical = new Canonical(board);
+                Integer move = moves.get(canonical.key);
+                if (move == null) {
+                    Point chosen = reasoner.chooseMove(board);
+                    Point stored = canonical.fromBoard(chosen.x, chosen.y);
+                    move = stored.y * config.getWidth() + stored.x;
+                    moves.put(canonical.key, move);
+                }
+                Point shot = canonical.toBoard(move % config.getWidth(), move / config.getWidth());
+                target.fireAt(shot.x, shot.y);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + moves.size() * ENTRY);
+        buffer.putInt(MAGIC).putInt(VERSION)
+              .putInt(config.getWidth()).putInt(config.getHeight())
+              .putLong(fingerprint(config)).putInt(depth).putInt(moves.size());
+        for (Map.Entry<Long, Integer> entry : moves.entrySet()) {
+            buffer.putLong(entry.getKey()).putInt(entry.getValue());
+        }
+        Files.write(file, buffer.array());
+        return moves.size();
+    }
+
+    /**
+     * Identifies the fleet regardless of the ship names.
+     */
+    private static long fingerprint(GameConfig config) {
+        long h = 0x5EED;
+        for (int size = 1; size <= config.getMaxShipSize(); size++) {
+            int count = 0;
+            for (ShipConfig type : config.getShipTypes()) {
+                if (type.getSize() == size) count += type.getCount();
+            }
+            h = mix(h ^ ((long) size << 32 | count));
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Canonical form of an observation: the shots (cell and outcome) seen through the
+     * symmetry that gives the smallest sorted list, and the hash of that list.
+     */
+    private static final class Canonical {
+
+        final int width;
+        final int height;
+        final int symmetry;
+        final long key;
+
+        Canonical(Observation board) {
+            this.width = board.getWidth();
+            this.height = board.getHeight();
+            int shots = board.getShotCount();
+            int[] cells = new int[shots];
+            int[] outcomes = new int[shots];
+            for (int n = 0; n < shots; n++) {
+                int index = board.getShotIndex(n);
+                int x = index % width;
+                int y = index / width;
+                cells[n] = index;
+                outcomes[n] = board.isSunkCell(x, y) ? 3 : board.getCellState(x, y) == CellState.HIT ? 2 : 1;
+            }
+
+            int[] best = null;
+            int bestSymmetry = 0;
+            int[] image = new int[shots];
+            for (int s = 0; s < (width == height ? 8 : 4); s++) {
+                for (int n = 0; n < shots; n++) {
+                    Point p = transform(s, cells[n] % width, cells[n] / width);
+                    image[n] = (p.y * width + p.x) * 4 + outcomes[n];
+                }
+                Arrays.sort(image);
+                if (best == null || Arrays.compare(image, best) < 0) {
+                    best = image.clone();
+                    bestSymmetry = s;
+                }
+            }
+            this.symmetry = bestSymmetry;
+            long h = mix(shots);
+            for (int e : best) {
+                h = mix(h ^ e);
+            }
+            this.key = h;
+        }
+
+        /** Board cell to canonical cell */
+        Point fromBoard(int x, int y) {
+            return transform(symmetry, x, y);
+        }
+
+        /** Canonical cell to board cell */
+        Point toBoard(int x, int y) {
+            if ((symmetry & 2) != 0) y = height - 1 - y;
+            if ((symmetry & 1) != 0) x = width - 1 - x;
+            return (symmetry & 4) != 0 ? new Point(y, x) : new Point(x, y);
+        }
+
+        /** Symmetry s: transpose if bit 2 is set (square boards only), then mirror x (bit 0) and y (bit 1) */
+        private Point transform(int s, int x, int y) {
+            if ((s & 4) != 0) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+            if ((s & 1) != 0) x = width - 1 - x;
+            if ((s & 2) != 0) y = height - 1 - y;
+            return new Point(x, y);
+        }
+    }
+}
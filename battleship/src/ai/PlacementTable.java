@@ -0,0 +1,83 @@
+package ai;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.GameConfig;
+
+/**
+ * Precomputed ship placements of a game configuration, as bit masks.
+ *
+ * Placements are tested against bitsets of the board kept in two layouts:
+ * row-major (index = y * width + x) for horizontal placements and column-major
+ * (index = x * height + y) for vertical ones, so that every placement is a run of
+ * consecutive bits. A run of up to 64 bits spans at most two words, and its masks
+ * only depend on the ship size and on the bit offset of its first cell inside the
+ * word: the table stores those masks once per size and offset instead of once per
+ * placement, which keeps it a few kilobytes even on a 1000x1000 board.
+ * Validity is then {@code (mask & blocked) == 0} and the hit count
+ * {@code bitCount(mask & hits)}, without any allocation.
+ *
+ * Tables are immutable and shared by all the reasoners playing the same configuration.
+ */
+final class PlacementTable {
+
+    private static final Map<GameConfig, PlacementTable> CACHE = new ConcurrentHashMap<>();
+
+    private final long[][] low;				// [size][offset]: bits of the run in its first word
+    private final long[][] high;			// [size][offset]: bits spilling into the next word
+
+    private PlacementTable(GameConfig config) {
+        int maxSize = Math.min(64, Math.max(config.getWidth(), config.getHeight()));
+        this.low = new long[maxSize + 1][64];
+        this.high = new long[maxSize + 1][64];
+        for (int size = 1; size <= maxSize; size++) {
+            long run = size == 64 ? -1L : (1L << size) - 1;
+            for (int offset = 0; offset < 64; offset++) {
+                low[size][offset] = run << offset;
+                high[size][offset] = offset + size > 64 ? run >>> (64 - offset) : 0L;
+            }
+        }
+    }
+
+    /**
+     * @return The table of the configuration, built on first use.
+     */
+    static PlacementTable forConfig(GameConfig config) {
+        return CACHE.computeIfAbsent(config, PlacementTable::new);
+    }
+
+    /**
+     * @return true if any of the {@code size} bits starting at {@code first} is set.
+     */
+    boolean intersects(long[] words, int first, int size) {
+        int w = first >>> 6;
+        int offset = first & 63;
+        if (size < low.length) {
+            long hi = high[size][offset];
+            return (words[w] & low[size][offset]) != 0 || (hi != 0 && (words[w + 1] & hi) != 0);
+        }
+        for (int bit = first; bit < first + size; bit++) {
+            if ((words[bit >>> 6] & (1L << bit)) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return How many of the {@code size} bits starting at {@code first} are set.
+     */
+    int count(long[] words, int first, int size) {
+        int w = first >>> 6;
+        int offset = first & 63;
+        if (size < low.length) {
+            long hi = high[size][offset];
+            int n = Long.bitCount(words[w] & low[size][offset]);
+            return hi == 0 ? n : n + Long.bitCount(words[w + 1] & hi);
+        }
+        int n = 0;
+        for (int bit = first; bit < first + size; bit++) {
+            if ((words[bit >>> 6] & (1L << bit)) != 0) n++;
+        }
+        return n;
+    }
+}
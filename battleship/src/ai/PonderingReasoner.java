@@ -0,0 +1,130 @@
+package ai;
+
+import java.awt.Point;
+import java.time.Duration;
+
+import model.Observation;
+
+/**
+ * Decorator that computes the AI's next move ahead of time, while the human is
+ * deciding. The AI's move only depends on its observation of the grid it fires at,
+ * which the human's shot does not change: a move pondered on that observation is still
+ * valid when the AI's turn comes, as long as it is unchanged (same revision and shot count).
+ *
+ * {@link #ponder} and {@link #chooseMove} must run on the same thread (or at least one
+ * after the other), since the wrapped reasoner is not thread-safe; the metrics can be
+ * read from any thread.
+ */
+public class PonderingReasoner implements Reasoner {
+
+    private final Reasoner delegate;
+
+    // Pondered move and the observation version it was computed for
+    private Point pondered;
+    private Observation board;
+    private int revision;
+    private int shots;
+    private long ponderNanos;
+
+    // Metrics
+    private long hits;
+    private long misses;
+    private long savedNanos;
+
+    /**
+     * @param delegate The reasoner that computes the moves.
+     */
+    public PonderingReasoner(Reasoner delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("The delegate is required");
+        }
+        this.delegate = delegate;
+    }
+
+    /**
+     * Computes the move for the current position and keeps it for the next turn.
+     * @param budget Time given to the wrapped reasoner, as for a regular move.
+     */
+    public synchronized void ponder(Observation current, Duration budget) {
+        if (isPondered(current)) return;
+        long start = System.nanoTime();
+        Point move = delegate.chooseMove(current, budget);
+        ponderNanos = System.nanoTime() - start;
+        pondered = move;
+        board = current;
+        revision = current.getRevision();
+        shots = current.getShotCount();
+    }
+
+    @Override
+    public Point chooseMove(Observation current) {
+        Point move = takePondered(current);
+        return move != null ? move : delegate.chooseMove(current);
+    }
+
+    @Override
+    public Point chooseMove(Observation current, Duration budget) {
+        Point move = takePondered(current);
+        return move != null ? move : delegate.chooseMove(current, budget);
+    }
+
+    /**
+     * @return The pondered move if it was computed for this very position (and
+     *         forgets it), or null on a ponder miss.
+     */
+    private synchronized Point takePondered(Observation current) {
+        Point move = isPondered(current) ? pondered : null;
+        pondered = null;
+        board = null;
+        if (move != null && current.isPotentialTarget(move.x, move.y)) {
+            hits++;
+            savedNanos += ponderNanos;
+            return move;
+        }
+        misses++;
+        return null;
+    }
+
+    private boolean isPondered(Observation current) {
+        return pondered != null && board == current
+                && revision == current.getRevision() && shots == current.getShotCount();
+    }
+
+    // --- METRICS ---
+
+    /**
+     * @return Turns played with a pondered move.
+     */
+    public synchronized long getPonderHits() {
+        return hits;
+    }
+
+    /**
+     * @return Turns computed from scratch (nothing pondered, or the position changed).
+     */
+    public synchronized long getPonderMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The fraction of turns played with a pondered move (0 before the first turn).
+     */
+    public synchronized double getHitRate() {
+        long turns = hits + misses;
+        return turns == 0 ? 0.0 : (double) hits / turns;
+    }
+
+    /**
+     * @return Computation time moved out of the AI's turns: the sum of the pondering
+     *         times of the moves that were used.
+     */
+    public synchronized Duration getLatencySaved() {
+        return Duration.ofNanos(savedNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Pondering: %d hits, %d misses (%.0f%%), %d ms saved",
+                hits, misses, 100 * getHitRate(), savedNanos / 1_000_000);
+    }
+}
@@ -1,18 +1,34 @@
 package ai;
 
-import model.GameState;
+import model.Observation;
 import java.awt.Point;
+import java.time.Duration;
 
 /**
  * Interface representing the decision-making logic for the AI.
  * Each implementation defines a specific strategy for choosing the next move.
+ * A reasoner only sees the {@link Observation} of the enemy board: shots, outcomes,
+ * sunk ships and afloat counters, never the hidden ship positions.
  */
 public interface Reasoner {
     
     /**
-     * Determines the next coordinates to attack based on the current game state.
-     * * @param state The current state of the game, including grid information and hit history.
+     * Determines the next coordinates to attack based on what is known of the enemy board.
+     * @param board The observation of the enemy board (see GameState.getObservation).
      * @return A Point object containing the X and Y coordinates for the next shot.
      */
-    Point chooseMove(GameState state);
+    Point chooseMove(Observation board);
+
+    /**
+     * Deadline-aware variant: returns within (about) the given time with the best move
+     * found so far. Anytime reasoners keep improving their move until the budget runs
+     * out, so a larger budget gives stronger play; the default ignores the budget, for
+     * reasoners whose move is cheap anyway.
+     * @param board  The observation of the enemy board.
+     * @param budget Time available for this move.
+     * @return The coordinates of the next shot.
+     */
+    default Point chooseMove(Observation board, Duration budget) {
+        return chooseMove(board);
+    }
 }
@@ -0,0 +1,118 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * The connected regions (orthogonally) of the cells a ship can still cover: misses,
+ * sunk ships and their buffer zones cut the board apart. A placement is a straight run
+ * of such cells, so it lies in a single region, and the placements of two regions only
+ * share the counts of the ships afloat.
+ *
+ * Labels are row-major (index = y * width + x, -1 for blocked cells), and the cells of
+ * each region are listed together. As shots land, {@link #block} only clears the label
+ * of the cell: a region cut in two keeps one label until the next {@link #relabel},
+ * so a label always covers one or more whole regions.
+ */
+final class RegionMap {
+
+    static final int NONE = -1;
+
+    private final int width;
+    private final int height;
+
+    private final int[] label;
+    private int count;
+    private int[] start = new int[2];		// Cells of region r: cells[start[r]] to cells[start[r + 1] - 1]
+    private final int[] cells;
+
+    RegionMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.label = new int[width * height];
+        this.cells = new int[width * height];
+        Arrays.fill(label, NONE);
+    }
+
+    /**
+     * Labels the regions of the cells not set in the row-major blocked mask, by a
+     * flood fill in row-major order.
+     */
+    void relabel(long[] blocked) {
+        Arrays.fill(label, NONE);
+        count = 0;
+        start[0] = 0;
+        int size = 0;
+        for (int c = 0; c < label.length; c++) {
+            if (label[c] != NONE || (blocked[c >>> 6] & (1L << c)) != 0) continue;
+            if (count + 2 > start.length) {
+                start = Arrays.copyOf(start, start.length * 2);
+            }
+            start[count] = size;
+            label[c] = count;
+            cells[size++] = c;
+            // The cell list of the region is the queue of the fill
+            for (int head = start[count]; head < size; head++) {
+                int cell = cells[head];
+                int x = cell % width;
+                int y = cell / width;
+                if (x > 0) size = visit(blocked, cell - 1, size);
+                if (x < width - 1) size = visit(blocked, cell + 1, size);
+                if (y > 0) size = visit(blocked, cell - width, size);
+                if (y < height - 1) size = visit(blocked, cell + width, size);
+            }
+            start[++count] = size;
+        }
+    }
+
+    private int visit(long[] blocked, int cell, int size) {
+        if (label[cell] == NONE && (blocked[cell >>> 6] & (1L << cell)) == 0) {
+            label[cell] = count;
+            cells[size++] = cell;
+        }
+        return size;
+    }
+
+    /**
+     * Takes a cell that just became blocked out of its region.
+     */
+    void block(int cell) {
+        label[cell] = NONE;
+    }
+
+    /**
+     * @return The number of labels.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The label of the cell, or {@link #NONE} if it is blocked.
+     */
+    int getLabel(int cell) {
+        return label[cell];
+    }
+
+    /**
+     * @return The number of cells in the lists, those not blocked at the last relabel.
+     */
+    int getCellCount() {
+        return start[count];
+    }
+
+    int getStart(int region) {
+        return start[region];
+    }
+
+    int getEnd(int region) {
+        return start[region + 1];
+    }
+
+    /**
+     * @return The i-th cell of the lists, between {@link #getStart} and {@link #getEnd}
+     *         of its region (a cell blocked since the last relabel still appears there).
+     */
+    int getCell(int i) {
+        return cells[i];
+    }
+}
@@ -0,0 +1,463 @@
+package ai;
+
+import java.awt.Point;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.random.RandomGenerator;
+
+import model.*;
+import player.Player;
+
+/**
+ * Monte Carlo AI: it samples complete enemy fleet layouts consistent with everything
+ * observed so far and fires at the cell occupied in the largest number of samples.
+ * Unlike the density map of {@link ExpertReasoner}, which weighs each ship on its own,
+ * every sample respects the no-touch rule between ships and assigns each hit to
+ * exactly one ship that is still afloat.
+ *
+ * A layout is built by constrained backtracking: ships are first laid over the hits
+ * not yet explained (trying the placements covering the first such hit in random
+ * order and backtracking on dead ends), then the rest of the fleet is placed at random
+ * in the remaining free space. Sampling runs on every worker of a fork/join pool, each
+ * with its own random stream and counters, until the sample budget or the time budget
+ * is exhausted; the counters are then merged.
+ */
+public class SamplingReasoner extends AbstractReasoner {
+
+    /** Larger boards are played with the density map */
+    private static final int MAX_CELLS = 64 * 64;
+    /** Backtracking steps allowed for one layout before starting over */
+    private static final int MAX_NODES = 1000;
+    /** Random placements tried for a ship before sweeping all of them */
+    private static final int RANDOM_TRIES = 32;
+    /** Layouts attempted between two deadline checks */
+    private static final int CHECK_EVERY = 256;
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final LayoutTable table;			// null on boards too large for sampling
+    private final ExpertReasoner fallback;
+    private final SplittableRandom seeds;		// One stream per sampler and move
+
+    private int sampleBudget = 200_000;
+    private Duration timeBudget = Duration.ofMillis(250);
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private Sampler[] samplers = new Sampler[0];
+
+    // Observation of the enemy grid, written before sampling and only read by the workers
+    private final long[] blocked;				// Misses, sunk ships and their buffer zones
+    private final long[] hits;					// Hits on ships still afloat
+    private final long[] open;					// Cells worth firing at
+    private int[] afloat = new int[0];			// Afloat ships per size
+
+    // Result of the last move
+    private final long[] occupancy;
+    private long samples;
+
+    public SamplingReasoner(Player player, GameConfig config) {
+        this(player, config, new SplittableRandom());
+    }
+
+    /**
+     * @param random The generator of the random choices (see {@link AbstractReasoner}).
+     */
+    public SamplingReasoner(Player player, GameConfig config, RandomGenerator random) {
+        super(player, config, random);
+        this.width = config.getWidth();
+        this.height = config.getHeight();
+        this.cellCount = width * height;
+        this.table = cellCount <= MAX_CELLS ? LayoutTable.forConfig(config) : null;
+        this.fallback = new ExpertReasoner(player, config, new SplittableRandom(random.nextLong()));
+        this.seeds = new SplittableRandom(random.nextLong());
+
+        int words = BitBoard.wordsFor(cellCount);
+        this.blocked = new long[words];
+        this.hits = new long[words];
+        this.open = new long[words];
+        this.occupancy = new long[cellCount];
+    }
+
+    // --- SETTINGS ---
+
+    /**
+     * @param samples Maximum number of layouts generated per move (across all workers).
+     */
+    public void setSampleBudget(int samples) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("The sample budget must be positive: " + samples);
+        }
+        this.sampleBudget = samples;
+    }
+
+    /**
+     * @param budget Maximum time spent sampling per move.
+     */
+    public void setTimeBudget(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("The time budget must be positive: " + budget);
+        }
+        this.timeBudget = budget;
+    }
+
+    /**
+     * @param pool The pool whose workers generate the samples, or null to sample
+     *             on the calling thread only. Defaults to the common pool.
+     */
+    public void setForkJoinPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // --- RESULTS ---
+
+    /**
+     * @return The number of consistent layouts generated for the last move.
+     */
+    public long getLastSampleCount() {
+        return this.samples;
+    }
+
+    /**
+     * @return The fraction of the last move's samples with a ship on the cell.
+     */
+    public double getOccupancy(int x, int y) {
+        return samples == 0 ? 0.0 : (double) occupancy[y * width + x] / samples;
+    }
+
+    // --- MOVE SELECTION ---
+
+    @Override
+    public Point chooseMove(Observation board) {
+        return chooseMove(board, System.nanoTime() + timeBudget.toNanos(), sampleBudget);
+    }
+
+    /**
+     * Samples until the budget runs out, whatever the sample budget: more time gives
+     * more samples and a better estimate.
+     */
+    @Override
+    public Point chooseMove(Observation board, Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("The time budget must be positive: " + budget);
+        }
+        return chooseMove(board, System.nanoTime() + budget.toNanos(), Integer.MAX_VALUE);
+    }
+
+    private Point chooseMove(Observation board, long deadline, int quota) {
+        if (table == null || board.getMaxShipSize() >= table.sizeFrom.length - 1) {
+            samples = 0;
+            return fallback.chooseMove(board);
+        }
+
+        observe(board);
+        sample(deadline, quota);
+
+        // No consistent layout found in time (or a contradictory board): use the density map
+        if (samples == 0) return fallback.chooseMove(board);
+        return pickMostOccupied();
+    }
+
+    private void observe(Observation board) {
+        Arrays.fill(blocked, 0);
+        Arrays.fill(hits, 0);
+        Arrays.fill(open, 0);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int c = y * width + x;
+                CellState cellState = board.getCellState(x, y);
+                if (!board.isAreaClearOfSunkenShips(x, y) || cellState == CellState.MISS) {
+                    blocked[c >>> 6] |= 1L << c;
+                } else if (cellState == CellState.HIT) {
+                    hits[c >>> 6] |= 1L << c;
+                } else {
+                    open[c >>> 6] |= 1L << c;
+                }
+            }
+        }
+        afloat = new int[board.getMaxShipSize() + 1];
+        for (int size = 1; size < afloat.length; size++) {
+            afloat[size] = board.getAfloatShipCount(size);
+        }
+    }
+
+    /**
+     * Runs the samplers (one per pool worker) and merges their counters.
+     * @param deadline  System.nanoTime() at which sampling stops.
+     * @param budget    Maximum number of layouts, across all workers.
+     */
+    private void sample(long deadline, int budget) {
+        int workers = pool == null ? 1 : Math.max(1, pool.getParallelism());
+        if (samplers.length != workers) {
+            samplers = new Sampler[workers];
+        }
+        int ships = 0;
+        for (int count : afloat) {
+            ships += count;
+        }
+        int quota = (int) Math.min(Integer.MAX_VALUE, ((long) budget + workers - 1) / workers);
+        for (int i = 0; i < workers; i++) {
+            if (samplers[i] == null || samplers[i].maxShips < ships) {
+                samplers[i] = new Sampler(table, cellCount, Math.max(ships, 1));
+            }
+            samplers[i].prepare(blocked, hits, afloat, seeds.split(), quota, deadline);
+        }
+
+        if (workers == 1) {
+            samplers[0].run();
+        } else {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+            for (Sampler sampler : samplers) {
+                tasks.add(ForkJoinTask.adapt(sampler::run));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+
+        Arrays.fill(occupancy, 0);
+        samples = 0;
+        for (Sampler sampler : samplers) {
+            samples += sampler.samples;
+            for (int c = 0; c < cellCount; c++) {
+                occupancy[c] += sampler.counts[c];
+            }
+        }
+    }
+
+    /**
+     * Picks uniformly one of the open cells occupied in the most samples.
+     */
+    private Point pickMostOccupied() {
+        long max = -1;
+        int ties = 0;
+        for (int c = 0; c < cellCount; c++) {
+            if ((open[c >>> 6] & (1L << c)) == 0) continue;
+            if (occupancy[c] > max) {
+                max = occupancy[c];
+                ties = 1;
+            } else if (occupancy[c] == max) {
+                ties++;
+            }
+        }
+        if (ties == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
+        int k = random.nextInt(ties);
+        for (int c = 0; c < cellCount; c++) {
+            if ((open[c >>> 6] & (1L << c)) != 0 && occupancy[c] == max && k-- == 0) {
+                return new Point(c % width, c / width);
+            }
+        }
+        throw new IllegalStateException("No valid moves available");
+    }
+
+    /**
+     * One sampling worker. Keeps all its scratch state between moves, so that
+     * generating a layout allocates nothing.
+     */
+    private static final class Sampler {
+
+        private final LayoutTable table;
+        private final int words;
+        final int maxShips;
+
+        // Shared, read-only observation
+        private long[] blocked;
+        private long[] hits;
+        private int[] afloat;
+
+        // Layout under construction
+        private final long[] halo;				// Cells no further ship may occupy
+        private final long[] uncovered;			// Hits not explained by a placed ship yet
+        private int[] remaining = new int[0];
+        private final int[] placed;
+        private int placedCount;
+        private final long[] saved;				// Words overwritten by placements, for backtracking
+        private int savedCount;
+        private final int[][] candidates;		// Per backtracking depth
+        private int nodes;
+
+        private SplittableRandom rng;
+        private int quota;
+        private long deadline;
+
+        final long[] counts;
+        long samples;
+
+        Sampler(LayoutTable table, int cellCount, int maxShips) {
+            this.table = table;
+            this.words = table.words;
+            this.maxShips = maxShips;
+            this.halo = new long[words];
+            this.uncovered = new long[words];
+            this.placed = new int[maxShips];
+            this.saved = new long[2 * maxShips * table.maxSegments];
+            this.candidates = new int[maxShips + 1][table.maxCover];
+            this.counts = new long[cellCount];
+        }
+
+        void prepare(long[] blocked, long[] hits, int[] afloat, SplittableRandom rng, int quota, long deadline) {
+            this.blocked = blocked;
+            this.hits = hits;
+            this.afloat = afloat;
+            if (remaining.length != afloat.length) {
+                remaining = new int[afloat.length];
+            }
+            this.rng = rng;
+            this.quota = quota;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            Arrays.fill(counts, 0);
+            samples = 0;
+            long attempts = 0;
+            while (samples < quota) {
+                if (attempts % CHECK_EVERY == 0 && System.nanoTime() > deadline) break;
+                attempts++;
+                if (buildLayout()) {
+                    record();
+                    samples++;
+                }
+            }
+        }
+
+        private boolean buildLayout() {
+            System.arraycopy(blocked, 0, halo, 0, words);
+            System.arraycopy(hits, 0, uncovered, 0, words);
+            System.arraycopy(afloat, 0, remaining, 0, afloat.length);
+            placedCount = 0;
+            savedCount = 0;
+            nodes = MAX_NODES;
+
+            if (!coverHits(0)) return false;
+            for (int size = remaining.length - 1; size >= 1; size--) {
+                while (remaining[size] > 0) {
+                    if (!placeAnywhere(size)) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Lays ships over the unexplained hits, first hit first, backtracking on dead ends.
+         */
+        private boolean coverHits(int depth) {
+            int cell = firstUncovered();
+            if (cell < 0) return true;
+            if (--nodes < 0) return false;
+
+            int[] cand = candidates[depth];
+            int n = 0;
+            for (int i = table.coverFrom[cell]; i < table.coverFrom[cell + 1]; i++) {
+                int p = table.cover[i];
+                if (remaining[table.size[p]] > 0 && fitsOverHits(p)) {
+                    cand[n++] = p;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                int j = i + rng.nextInt(n - i);
+                int p = cand[j];
+                cand[j] = cand[i];
+                cand[i] = p;
+
+                int mark = savedCount;
+                place(p);
+                if (coverHits(depth + 1)) return true;
+                undo(p, mark);
+            }
+            return false;
+        }
+
+        /**
+         * A ship over a hit must stay clear of the other ships, must not touch a hit
+         * that another ship has to explain, and must have a cell not hit yet (otherwise
+         * it would already be sunk).
+         */
+        private boolean fitsOverHits(int p) {
+            boolean intact = false;
+            for (int s = table.segFrom[p]; s < table.segFrom[p + 1]; s++) {
+                int w = table.segWord[s];
+                long body = table.segBody[s];
+                if ((body & halo[w]) != 0) return false;
+                if ((table.segHalo[s] & ~body & uncovered[w]) != 0) return false;
+                if ((body & ~hits[w]) != 0) intact = true;
+            }
+            return intact;
+        }
+
+        private boolean fits(int p) {
+            for (int s = table.segFrom[p]; s < table.segFrom[p + 1]; s++) {
+                if ((table.segBody[s] & halo[table.segWord[s]]) != 0) return false;
+            }
+            return true;
+        }
+
+        private boolean placeAnywhere(int size) {
+            int from = table.sizeFrom[size];
+            int count = table.sizeFrom[size + 1] - from;
+            if (count == 0) return false;
+            for (int t = 0; t < RANDOM_TRIES; t++) {
+                int p = from + rng.nextInt(count);
+                if (fits(p)) {
+                    place(p);
+                    return true;
+                }
+            }
+            // Crowded board: sweep every placement from a random one
+            int offset = rng.nextInt(count);
+            for (int i = 0; i < count; i++) {
+                int p = from + (offset + i) % count;
+                if (fits(p)) {
+                    place(p);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void place(int p) {
+            for (int s = table.segFrom[p]; s < table.segFrom[p + 1]; s++) {
+                int w = table.segWord[s];
+                saved[savedCount++] = halo[w];
+                saved[savedCount++] = uncovered[w];
+                halo[w] |= table.segHalo[s];
+                uncovered[w] &= ~table.segBody[s];
+            }
+            placed[placedCount++] = p;
+            remaining[table.size[p]]--;
+        }
+
+        private void undo(int p, int mark) {
+            for (int s = table.segFrom[p + 1] - 1; s >= table.segFrom[p]; s--) {
+                int w = table.segWord[s];
+                uncovered[w] = saved[--savedCount];
+                halo[w] = saved[--savedCount];
+            }
+            savedCount = mark;
+            placedCount--;
+            remaining[table.size[p]]++;
+        }
+
+        private int firstUncovered() {
+            for (int w = 0; w < words; w++) {
+                if (uncovered[w] != 0) {
+                    return (w << 6) + Long.numberOfTrailingZeros(uncovered[w]);
+                }
+            }
+            return -1;
+        }
+
+        private void record() {
+            for (int i = 0; i < placedCount; i++) {
+                int p = placed[i];
+                for (int k = 0, c = table.start[p]; k < table.size[p]; k++, c += table.stride[p]) {
+                    counts[c]++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * Plain Java version of the {@link ArrayKernels}, the reference for the vector one.
+ */
+class ScalarKernels extends ArrayKernels {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void fill(int[] values, int value, int length) {
+        Arrays.fill(values, 0, length, value);
+    }
+
+    @Override
+    public void clear(int[] values, long[] mask, int length) {
+        for (int w = 0; w << 6 < length; w++) {
+            long bits = mask[w];
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (i >= length) break;
+                values[i] = 0;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    @Override
+    public void accumulate(double[] y, double a, double[] x, int from, int to) {
+        for (int i = from; i < to; i++) {
+            y[i] += a * x[i];
+        }
+    }
+
+    // The argmax walks the set bits of the mask only
+
+    @Override
+    public int max(int[] values, long[] mask, int length) {
+        int max = Integer.MIN_VALUE;
+        for (int w = 0; w << 6 < length; w++) {
+            for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (i >= length) break;
+                if (values[i] > max) max = values[i];
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public int count(int[] values, long[] mask, int length, int value) {
+        int count = 0;
+        for (int w = 0; w << 6 < length; w++) {
+            for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (i >= length) break;
+                if (values[i] == value) count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int find(int[] values, long[] mask, int length, int value, int k) {
+        for (int w = 0; w << 6 < length; w++) {
+            for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (i >= length) break;
+                if (values[i] == value && k-- == 0) return i;
+            }
+        }
+        return -1;
+    }
+}
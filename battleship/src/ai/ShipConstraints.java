@@ -0,0 +1,661 @@
+package ai;
+
+import java.util.Arrays;
+
+import model.BitBoard;
+import model.GameConfig;
+import model.Observation;
+
+/**
+ * Constraint propagation over the hits of the ships still afloat: which ship each
+ * hit can belong to, and which cells are therefore certainly water or certainly ship.
+ *
+ * Ships never touch, not even diagonally, so the hits of two ships are never
+ * 8-adjacent: each 8-connected cluster of hits belongs to a single ship (two clusters
+ * may still be the same ship, split by an unfired cell). The variables are the
+ * clusters and their values the placements of the afloat sizes that
+ * <ul>
+ *   <li>cover the whole cluster, in a straight line, on no miss and no sunk buffer;</li>
+ *   <li>leave no hit in their 8-neighbourhood: a hit touching a ship is part of it.</li>
+ * </ul>
+ * Two clusters are then arc-consistent when their placements are the same ship (one
+ * placement covering both) or two ships that neither overlap nor touch, and that the
+ * fleet has enough afloat ships of their sizes for. The domains are pruned until every
+ * placement left has a support in every other cluster (AC-3).
+ *
+ * From the pruned domains: the cells covered by every placement of a cluster are
+ * certainly ship. The open cells that no possible placement covers are certainly
+ * water: next to a cluster, the cells outside its domain (another ship there would
+ * touch it), and elsewhere the pockets too small for the smallest ship afloat.
+ *
+ * The engine follows one board incrementally, as the reasoners do: after new shots,
+ * the domains of the clusters that did not change and that no shot came near are
+ * kept, and only the propagation is run again. Placements are encoded in ints, so
+ * the ships must not be longer than {@link GameConfig#MAX_SHIP_SIZE} (64) cells and
+ * the boards must stay below 2^24 cells (see {@link GameConfig#MAX_CELLS}).
+ */
+public final class ShipConstraints {
+
+    private static final int NONE = -1;
+    private static final int MAX_SIZE = GameConfig.MAX_SHIP_SIZE;
+
+    private int width;
+    private int height;
+    private int cellCount;
+
+    // What the domains were computed from
+    private Observation trackedBoard;
+    private int trackedRevision;
+    private int trackedShots;
+    private int[] afloat = new int[0];
+    private int maxSize;
+
+    // Clusters of active hits: their cells, packed one cluster after the other
+    private int clusterCount;
+    private int[] clusterOf = new int[0];
+    private int[] clusterStart = new int[8];			// clusterStart[k]..clusterStart[k + 1]
+    private int[] clusterCells = new int[16];
+    private int[][] unary = new int[8][];				// Placements that pass the unary checks
+    private int[] unarySize = new int[8];
+    private int[][] domain = new int[8][];				// Placements left by the propagation
+    private int[] domainSize = new int[8];
+    private int[] box = new int[32];					// Min x, min y, max x, max y of the unary domains
+    private long[] sizes = new long[8];					// Bit s - 1 set: the domain has placements of size s
+
+    // The previous clusters, whose unary domains can be reused
+    private int previousCount;
+    private int[] previousFirst = new int[8];
+    private int[] previousCellCount = new int[8];
+    private int[][] previousUnary = new int[8][];
+    private int[] previousUnarySize = new int[8];
+
+    // Results, one bit per cell
+    private long[] water = new long[0];
+    private long[] ship = new long[0];
+    private long[] blocked = new long[0];				// Cells no unseen ship can cover
+    private long[] free = new long[0];
+    private long[] runs = new long[0];					// First cells of the free runs long enough
+    private long[] shifted = new long[0];
+    private long[] rowStarts = new long[0];				// Cells with a run of rowStartsSize cells left in their row
+    private int rowStartsSize;
+
+    // Scratch
+    private int[] stack = new int[16];
+    private int[] queue = new int[16];					// Arcs a * clusterCount + b waiting for AC-3
+    private boolean[] queued = new boolean[16];
+    private int[] cover = new int[0];
+
+    /**
+     * Brings the domains up to date with the board: incrementally when it has only
+     * received new shots since the last call, from scratch otherwise.
+     */
+    public void update(Observation board) {
+        boolean incremental = board == trackedBoard && board.getRevision() == trackedRevision
+            && board.getShotCount() >= trackedShots && sameFleet(board);
+        if (!incremental) {
+            resize(board);
+            previousCount = 0;
+        } else if (board.getShotCount() == trackedShots) {
+            return;
+        } else {
+            keepPrevious();
+        }
+        int firstNewShot = incremental ? trackedShots : board.getShotCount();
+
+        trackedBoard = board;
+        trackedRevision = board.getRevision();
+        trackedShots = board.getShotCount();
+
+        buildClusters(board);
+        for (int k = 0; k < clusterCount; k++) {
+            if (!reuseUnary(board, k, firstNewShot)) {
+                computeUnary(board, k);
+            }
+            domain[k] = ensure(domain[k], unarySize[k]);
+            System.arraycopy(unary[k], 0, domain[k], 0, unarySize[k]);
+            domainSize[k] = unarySize[k];
+        }
+        propagate();
+        computeCertainties(board);
+    }
+
+    // --- RESULTS ---
+
+    /**
+     * @return The number of clusters of hits on ships still afloat.
+     */
+    public int getClusterCount() {
+        return clusterCount;
+    }
+
+    /**
+     * @return The cluster of the hit at (x, y), or -1 if it is not the hit of a ship afloat.
+     */
+    public int getCluster(int x, int y) {
+        return clusterOf[y * width + x];
+    }
+
+    /**
+     * @return The number of placements the ship of the cluster can still have
+     *         (0 if the observation is inconsistent).
+     */
+    public int getPlacementCount(int cluster) {
+        return domainSize[cluster];
+    }
+
+    /**
+     * @return true if the hit at (x, y) can belong to a ship of the given size.
+     */
+    public boolean canBelongTo(int x, int y, int size) {
+        int k = clusterOf[y * width + x];
+        if (k == NONE) return false;
+        for (int i = 0; i < domainSize[k]; i++) {
+            if (sizeOf(domain[k][i]) == size) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if no ship can be at (x, y), a cell not fired at.
+     */
+    public boolean isCertainlyWater(int x, int y) {
+        return ArrayKernels.isSet(water, y * width + x);
+    }
+
+    /**
+     * @return true if (x, y), not yet hit, belongs to the ship of a hit for sure.
+     */
+    public boolean isCertainlyShip(int x, int y) {
+        return ArrayKernels.isSet(ship, y * width + x);
+    }
+
+    /**
+     * @return The cells certainly water, one bit per row-major cell index (read-only).
+     */
+    long[] waterMask() {
+        return water;
+    }
+
+    // --- CLUSTERS ---
+
+    private boolean sameFleet(Observation board) {
+        if (board.getMaxShipSize() != maxSize) return false;
+        for (int size = 1; size <= maxSize; size++) {
+            if (afloat[size] != board.getAfloatShipCount(size)) return false;
+        }
+        return true;
+    }
+
+    private void resize(Observation board) {
+        if (board.getWidth() != width || board.getHeight() != height) {
+            width = board.getWidth();
+            height = board.getHeight();
+            cellCount = width * height;
+            clusterOf = new int[cellCount];
+            cover = new int[cellCount];
+            water = new long[BitBoard.wordsFor(cellCount)];
+            ship = new long[water.length];
+            blocked = new long[water.length];
+            free = new long[water.length];
+            runs = new long[water.length];
+            shifted = new long[water.length];
+            rowStarts = new long[water.length];
+            rowStartsSize = 0;
+        }
+        if (board.getMaxShipSize() > MAX_SIZE) {
+            throw new IllegalArgumentException("Ships longer than " + MAX_SIZE + " cells are not supported");
+        }
+        maxSize = board.getMaxShipSize();
+        if (afloat.length <= maxSize) afloat = new int[maxSize + 1];
+        for (int size = 1; size <= maxSize; size++) {
+            afloat[size] = board.getAfloatShipCount(size);
+        }
+    }
+
+    /** Moves the current clusters and their unary domains to the previous ones */
+    private void keepPrevious() {
+        previousFirst = ensure(previousFirst, clusterCount);
+        previousCellCount = ensure(previousCellCount, clusterCount);
+        previousUnarySize = ensure(previousUnarySize, clusterCount);
+        if (previousUnary.length < clusterCount) previousUnary = Arrays.copyOf(previousUnary, clusterCount * 2);
+        for (int k = 0; k < clusterCount; k++) {
+            previousFirst[k] = clusterCells[clusterStart[k]];
+            previousCellCount[k] = clusterStart[k + 1] - clusterStart[k];
+            // Swap the arrays rather than copying them
+            int[] swap = previousUnary[k];
+            previousUnary[k] = unary[k];
+            unary[k] = swap;
+            previousUnarySize[k] = unarySize[k];
+        }
+        previousCount = clusterCount;
+    }
+
+    /**
+     * Groups the hits of the ships afloat into 8-connected clusters, in row-major
+     * order of their first cell.
+     */
+    private void buildClusters(Observation board) {
+        Arrays.fill(clusterOf, NONE);
+        BitBoard hits = board.getHitMask();
+        BitBoard sunk = board.getSunkMask();
+        clusterCount = 0;
+        int cells = 0;
+        for (int c = hits.nextSetBit(0); c >= 0; c = hits.nextSetBit(c + 1)) {
+            if (sunk.get(c) || clusterOf[c] != NONE) continue;
+            if (clusterCount + 2 > clusterStart.length) growClusters();
+            clusterStart[clusterCount] = cells;
+            int top = 0;
+            stack = ensure(stack, 1);
+            stack[top++] = c;
+            clusterOf[c] = clusterCount;
+            while (top > 0) {
+                int cell = stack[--top];
+                clusterCells = ensure(clusterCells, cells + 1);
+                clusterCells[cells++] = cell;
+                int x = cell % width, y = cell / width;
+                for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                    for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                        int n = ny * width + nx;
+                        if (hits.get(n) && !sunk.get(n) && clusterOf[n] == NONE) {
+                            clusterOf[n] = clusterCount;
+                            stack = ensure(stack, top + 1);
+                            stack[top++] = n;
+                        }
+                    }
+                }
+            }
+            // Row-major order inside the cluster, so that its first cell identifies it
+            Arrays.sort(clusterCells, clusterStart[clusterCount], cells);
+            clusterCount++;
+        }
+        clusterStart[clusterCount] = cells;
+    }
+
+    private void growClusters() {
+        int n = clusterStart.length * 2;
+        clusterStart = Arrays.copyOf(clusterStart, n);
+        unary = Arrays.copyOf(unary, n);
+        unarySize = Arrays.copyOf(unarySize, n);
+        domain = Arrays.copyOf(domain, n);
+        domainSize = Arrays.copyOf(domainSize, n);
+        sizes = Arrays.copyOf(sizes, n);
+    }
+
+    /**
+     * Takes the unary domain of the same cluster at the previous update, if no new
+     * shot landed where one of its placements or their neighbourhood could be.
+     */
+    private boolean reuseUnary(Observation board, int k, int firstNewShot) {
+        int first = clusterCells[clusterStart[k]];
+        int count = clusterStart[k + 1] - clusterStart[k];
+        for (int p = 0; p < previousCount; p++) {
+            if (previousFirst[p] != first || previousCellCount[p] != count || previousUnary[p] == null) continue;
+            int minX = width, maxX = -1, minY = height, maxY = -1;
+            for (int i = clusterStart[k]; i < clusterStart[k + 1]; i++) {
+                int x = clusterCells[i] % width, y = clusterCells[i] / width;
+                minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+            }
+            for (int n = firstNewShot; n < board.getShotCount(); n++) {
+                int shot = board.getShotIndex(n);
+                int x = shot % width, y = shot / width;
+                if (x >= minX - maxSize && x <= maxX + maxSize && y >= minY - maxSize && y <= maxY + maxSize) {
+                    return false;
+                }
+            }
+            int[] swap = unary[k];
+            unary[k] = previousUnary[p];
+            unarySize[k] = previousUnarySize[p];
+            previousUnary[p] = swap;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lists the placements of the afloat sizes covering the whole cluster in a line,
+     * on open or hit cells, with no hit in their neighbourhood.
+     */
+    private void computeUnary(Observation board, int k) {
+        // Allocated even if no placement is found: an empty domain is a valid result
+        unary[k] = ensure(unary[k], 0);
+        unarySize[k] = 0;
+        int minX = width, maxX = -1, minY = height, maxY = -1;
+        for (int i = clusterStart[k]; i < clusterStart[k + 1]; i++) {
+            int x = clusterCells[i] % width, y = clusterCells[i] / width;
+            minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+        }
+        BitBoard misses = board.getMissMask();
+        BitBoard forbidden = board.getForbiddenMask();
+        for (int horizontal = 1; horizontal >= 0; horizontal--) {
+            int dx = horizontal, dy = 1 - horizontal;
+            // A cluster spanning both axes is not a straight line: no placement at all
+            if (horizontal == 1 ? minY != maxY : minX != maxX) continue;
+            // A single cell is the same cluster in both directions: size 1 only once
+            int span = horizontal == 1 ? maxX - minX + 1 : maxY - minY + 1;
+            for (int size = Math.max(span, horizontal == 1 ? 1 : 2); size <= maxSize; size++) {
+                if (afloat[size] == 0) continue;
+                for (int shift = size - span; shift >= 0; shift--) {
+                    int x = minX - dx * shift, y = minY - dy * shift;
+                    if (x < 0 || y < 0 || x + dx * (size - 1) >= width || y + dy * (size - 1) >= height) continue;
+                    if (fits(misses, forbidden, x, y, size, dx, dy) && !touchesHit(x, y, size, dx, dy)) {
+                        unary[k] = ensure(unary[k], unarySize[k] + 1);
+                        unary[k][unarySize[k]++] = encode(y * width + x, size, horizontal == 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean fits(BitBoard misses, BitBoard forbidden, int x, int y, int size, int dx, int dy) {
+        for (int i = 0; i < size; i++) {
+            int c = (y + dy * i) * width + x + dx * i;
+            if (misses.get(c) || forbidden.get(c)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if a hit of a ship afloat lies in the ring around the placement.
+     */
+    private boolean touchesHit(int x, int y, int size, int dx, int dy) {
+        int endX = x + dx * (size - 1), endY = y + dy * (size - 1);
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, endY + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, endX + 1); nx++) {
+                boolean inside = nx >= x && nx <= endX && ny >= y && ny <= endY;
+                if (!inside && clusterOf[ny * width + nx] != NONE) return true;
+            }
+        }
+        return false;
+    }
+
+    // --- PROPAGATION ---
+
+    /**
+     * AC-3 over the pairs of clusters: removes the placements of a cluster that no
+     * placement of another cluster is compatible with. The arcs (a, b) wait in a
+     * queue; when the domain of a shrinks, the arcs towards a are checked again.
+     */
+    private void propagate() {
+        int k2 = clusterCount * clusterCount;
+        box = ensure(box, 4 * clusterCount);
+        queued = queued.length >= k2 ? queued : new boolean[Math.max(k2, 2 * queued.length)];
+        queue = ensure(queue, k2);
+        int head = 0, size = 0;
+        for (int k = 0; k < clusterCount; k++) {
+            computeBox(k);
+            sizes[k] = sizeMask(k);
+        }
+        for (int a = 0; a < clusterCount; a++) {
+            for (int b = 0; b < clusterCount; b++) {
+                if (a == b) continue;
+                queue[size++] = a * clusterCount + b;
+                queued[a * clusterCount + b] = true;
+            }
+        }
+        while (size > 0) {
+            int arc = queue[head];
+            head = (head + 1) % k2;
+            size--;
+            queued[arc] = false;
+            int a = arc / clusterCount, b = arc % clusterCount;
+            if (!revise(a, b)) continue;
+            for (int c = 0; c < clusterCount; c++) {
+                int back = c * clusterCount + a;
+                if (c != a && c != b && !queued[back]) {
+                    queued[back] = true;
+                    queue[(head + size++) % k2] = back;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if placements of {@code a} were removed.
+     */
+    private boolean revise(int a, int b) {
+        // An inconsistent cluster (hits off a line, edited boards) constrains nothing
+        if (domainSize[b] == 0) return false;
+
+        // Clusters too far apart to touch only constrain each other through the fleet
+        boolean distant = !areaTouches(a, b);
+        long sizesOfB = sizes[b];
+        if (distant && Long.bitCount(sizesOfB) >= 2) return false;	// Always a size left for b
+        int kept = 0;
+        for (int i = 0; i < domainSize[a]; i++) {
+            int p = domain[a][i];
+            boolean supported = false;
+            if (distant) {
+                supported = afloat[sizeOf(p)] >= 2 ? sizesOfB != 0 : (sizesOfB & ~(1L << (sizeOf(p) - 1))) != 0;
+            }
+            for (int j = 0; j < domainSize[b] && !supported && !distant; j++) {
+                supported = compatible(p, domain[b][j]);
+            }
+            if (supported) domain[a][kept++] = p;
+        }
+        boolean removed = kept < domainSize[a];
+        domainSize[a] = kept;
+        if (removed) sizes[a] = sizeMask(a);
+        return removed;
+    }
+
+    /**
+     * @return true if some placements of the two clusters may overlap or touch: the
+     *         boxes of their unary domains, grown by one cell, intersect. The domains
+     *         only shrink during the propagation, so the boxes stay conservative.
+     */
+    private boolean areaTouches(int a, int b) {
+        return box[4 * a] <= box[4 * b + 2] + 1 && box[4 * b] <= box[4 * a + 2] + 1
+            && box[4 * a + 1] <= box[4 * b + 3] + 1 && box[4 * b + 1] <= box[4 * a + 3] + 1;
+    }
+
+    private void computeBox(int k) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < domainSize[k]; i++) {
+            int p = domain[k][i];
+            int x = startOf(p) % width, y = startOf(p) / width;
+            int end = sizeOf(p) - 1;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, isHorizontal(p) ? x + end : x);
+            maxY = Math.max(maxY, isHorizontal(p) ? y : y + end);
+        }
+        box[4 * k] = minX;
+        box[4 * k + 1] = minY;
+        box[4 * k + 2] = maxX;
+        box[4 * k + 3] = maxY;
+    }
+
+    private long sizeMask(int k) {
+        long mask = 0;
+        for (int i = 0; i < domainSize[k]; i++) {
+            mask |= 1L << (sizeOf(domain[k][i]) - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Two placements can coexist if they are the same ship, or two ships that do not
+     * touch and that the fleet has enough afloat ships for.
+     */
+    private boolean compatible(int p, int q) {
+        if (p == q) return true;
+        int sp = sizeOf(p), sq = sizeOf(q);
+        if (sp == sq && afloat[sp] < 2) return false;
+        int px = startOf(p) % width, py = startOf(p) / width;
+        int qx = startOf(q) % width, qy = startOf(q) / width;
+        int pEndX = isHorizontal(p) ? px + sp - 1 : px, pEndY = isHorizontal(p) ? py : py + sp - 1;
+        int qEndX = isHorizontal(q) ? qx + sq - 1 : qx, qEndY = isHorizontal(q) ? qy : qy + sq - 1;
+        // Ships are one cell wide: they touch when their boxes grown by one cell overlap
+        return qx > pEndX + 1 || qEndX < px - 1 || qy > pEndY + 1 || qEndY < py - 1;
+    }
+
+    /**
+     * Cells covered by all the placements of a cluster are ship. Open cells that no
+     * possible placement covers are water: the ones next to a ship and outside its
+     * domain, and the pockets where even the smallest ship afloat does not fit.
+     */
+    private void computeCertainties(Observation board) {
+        BitBoard hits = board.getHitMask();
+        BitBoard misses = board.getMissMask();
+        BitBoard forbidden = board.getForbiddenMask();
+
+        Arrays.fill(ship, 0);
+        for (int k = 0; k < clusterCount; k++) {
+            int count = domainSize[k];
+            forEachCell(k, 1);
+            for (int i = 0; i < count; i++) {
+                int p = domain[k][i];
+                int step = isHorizontal(p) ? 1 : width;
+                for (int j = 0, c = startOf(p); j < sizeOf(p); j++, c += step) {
+                    if (cover[c] == count && !hits.get(c)) ship[c >>> 6] |= 1L << c;
+                }
+            }
+            forEachCell(k, -1);
+        }
+
+        // The water mask first collects the coverable cells, then is complemented
+        Arrays.fill(water, 0);
+        markHitlessRuns(misses, forbidden);
+        for (int k = 0; k < clusterCount; k++) {
+            for (int i = 0; i < domainSize[k]; i++) {
+                int p = domain[k][i];
+                int step = isHorizontal(p) ? 1 : width;
+                for (int j = 0, c = startOf(p); j < sizeOf(p); j++, c += step) {
+                    water[c >>> 6] |= 1L << c;
+                }
+            }
+        }
+        for (int i = 0; i < water.length; i++) {
+            water[i] = ~water[i] & ~(hits.word(i) | misses.word(i) | forbidden.word(i));
+        }
+        if ((cellCount & 63) != 0) {
+            water[water.length - 1] &= (1L << cellCount) - 1;
+        }
+    }
+
+    /**
+     * Marks in the water mask the cells of the rows and columns of free cells (no
+     * miss, no sunk buffer, no hit ship around) long enough for the smallest ship afloat:
+     * the cells a ship not hit yet can cover.
+     */
+    private void markHitlessRuns(BitBoard misses, BitBoard forbidden) {
+        int minSize = 0;
+        for (int size = 1; size <= maxSize && minSize == 0; size++) {
+            if (afloat[size] > 0) minSize = size;
+        }
+        if (minSize == 0) return;
+        for (int i = 0; i < blocked.length; i++) {
+            blocked[i] = misses.word(i) | forbidden.word(i);
+        }
+        // Another ship cannot touch the hit ships, nor the cells certainly theirs
+        for (int i = 0; i < clusterStart[clusterCount]; i++) {
+            blockNeighbourhood(clusterCells[i]);
+        }
+        for (int i = 0; i < ship.length; i++) {
+            for (long bits = ship[i]; bits != 0; bits &= bits - 1) {
+                blockNeighbourhood((i << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        for (int i = 0; i < free.length; i++) {
+            free[i] = ~blocked[i];
+        }
+        if ((cellCount & 63) != 0) {
+            free[free.length - 1] &= (1L << cellCount) - 1;
+        }
+        if (rowStartsSize != minSize) {
+            Arrays.fill(rowStarts, 0);
+            for (int c = 0; c < cellCount; c++) {
+                if (c % width + minSize <= width) rowStarts[c >>> 6] |= 1L << c;
+            }
+            rowStartsSize = minSize;
+        }
+        markRuns(1, minSize, rowStarts);
+        markRuns(width, minSize, null);
+    }
+
+    /**
+     * Marks in the water mask the free runs of at least size cells along one
+     * direction, a whole word of cells at a time: a run starts where the cells
+     * 0, step, ..., (size - 1) * step further are all free, and covers those cells.
+     * @param starts The cells a run can start from, or null for all of them.
+     */
+    private void markRuns(int step, int size, long[] starts) {
+        System.arraycopy(free, 0, runs, 0, free.length);
+        for (int s = 1; s < size; s++) {
+            shiftDown(free, s * step, shifted);
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] &= shifted[i];
+            }
+        }
+        if (starts != null) {
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] &= starts[i];
+            }
+        }
+        for (int s = 0; s < size; s++) {
+            shiftUp(runs, s * step, shifted);
+            for (int i = 0; i < water.length; i++) {
+                water[i] |= shifted[i];
+            }
+        }
+    }
+
+    /** Bit c of dst = bit c + s of src (0 past the end) */
+    private static void shiftDown(long[] src, int s, long[] dst) {
+        int words = s >>> 6, bits = s & 63;
+        for (int i = 0; i < dst.length; i++) {
+            long low = i + words < src.length ? src[i + words] : 0;
+            long high = i + words + 1 < src.length ? src[i + words + 1] : 0;
+            dst[i] = bits == 0 ? low : (low >>> bits) | (high << (64 - bits));
+        }
+    }
+
+    /** Bit c of dst = bit c - s of src (0 before the start) */
+    private static void shiftUp(long[] src, int s, long[] dst) {
+        int words = s >>> 6, bits = s & 63;
+        for (int i = 0; i < dst.length; i++) {
+            long high = i - words >= 0 ? src[i - words] : 0;
+            long low = i - words - 1 >= 0 ? src[i - words - 1] : 0;
+            dst[i] = bits == 0 ? high : (high << bits) | (low >>> (64 - bits));
+        }
+    }
+
+    private void blockNeighbourhood(int c) {
+        int x = c % width, y = c / width;
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                int n = ny * width + nx;
+                blocked[n >>> 6] |= 1L << n;
+            }
+        }
+    }
+
+    /** Adds delta to the cover count of every cell of every placement of the cluster */
+    private void forEachCell(int k, int delta) {
+        for (int i = 0; i < domainSize[k]; i++) {
+            int p = domain[k][i];
+            int step = isHorizontal(p) ? 1 : width;
+            for (int j = 0, c = startOf(p); j < sizeOf(p); j++, c += step) {
+                cover[c] += delta;
+            }
+        }
+    }
+
+    // --- PLACEMENT CODES ---
+
+    private static int encode(int start, int size, boolean horizontal) {
+        return (start << 7) | ((size - 1) << 1) | (horizontal ? 1 : 0);
+    }
+
+    private static int startOf(int code) { return code >>> 7; }
+    private static int sizeOf(int code) { return ((code >>> 1) & 63) + 1; }
+    private static boolean isHorizontal(int code) { return (code & 1) != 0; }
+
+    private static int[] ensure(int[] array, int length) {
+        if (array == null) return new int[Math.max(8, length)];
+        return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+}
@@ -0,0 +1,87 @@
+package ai;
+
+import java.awt.Point;
+import java.util.random.RandomGenerator;
+
+import model.Observation;
+
+/**
+ * The logic of a reasoner, split from the state of the games it plays: a strategy is
+ * immutable and holds no per-game data, so a single instance can serve any number of
+ * games from any number of threads. What a game needs between two moves lives in its
+ * {@link Context}, which is small and can be reused by the next game (see {@link ContextPool}).
+ *
+ * <pre>
+ * MediumStrategy medium = new MediumStrategy();              // one for the whole server
+ * MediumStrategy.Context game = medium.newContext(seeds.forGame(g));
+ * Point move = medium.chooseMove(game, state.getObservation(ai));
+ * </pre>
+ *
+ * A context belongs to one game at a time: the moves of a game must not be computed
+ * concurrently, those of different games can.
+ *
+ * @param <C> The type of the per-game contexts.
+ */
+public interface Strategy<C extends Strategy.Context> {
+
+    /**
+     * @param random The generator of the random choices of the game.
+     * @return A context ready for a new game.
+     */
+    C newContext(RandomGenerator random);
+
+    /**
+     * Chooses the next move of a game.
+     * @param context The context of the game, updated by the call.
+     * @param board   What the AI knows of the enemy board.
+     * @return The coordinates of the next shot.
+     */
+    Point chooseMove(C context, Observation board);
+
+    /**
+     * @return A reasoner playing one game with this strategy, for the places that
+     *         expect a {@link Reasoner} (AIPlayer, decorators...).
+     */
+    default Reasoner reasoner(C context) {
+        return board -> chooseMove(context, board);
+    }
+
+    /**
+     * Per-game state of a strategy. The base context only holds the random generator,
+     * which is all a strategy without memory between moves needs.
+     */
+    class Context {
+
+        /** Generator of the random choices of the game: it must not be shared with other games */
+        protected RandomGenerator random;
+
+        /**
+         * @throws IllegalArgumentException if the generator is null.
+         */
+        public Context(RandomGenerator random) {
+            this.random = checked(random);
+        }
+
+        /**
+         * Readies the context for a new game, keeping its buffers.
+         * @throws IllegalArgumentException if the generator is null.
+         */
+        public void restart(RandomGenerator random) {
+            this.random = checked(random);
+            clear();
+        }
+
+        private static RandomGenerator checked(RandomGenerator random) {
+            if (random == null) {
+                throw new IllegalArgumentException("The random generator is required");
+            }
+            return random;
+        }
+
+        /**
+         * Forgets the previous game; subclasses with memory override it.
+         */
+        protected void clear() {
+        }
+    }
+}
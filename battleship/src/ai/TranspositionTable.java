@@ -0,0 +1,187 @@
+package ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.Observation;
+
+/**
+ * Cache of the best moves of already analysed positions, shared by all the games of
+ * the JVM: the opening and the common hunting positions come back in game after game,
+ * and their density maps need not be recomputed each time.
+ *
+ * Positions are identified by the {@link Observation#getZobristKey() Zobrist key} of the
+ * observation, salted with the strategy and the board size (see {@link #salt}), since
+ * two reasoners do not rank the cells in the same way. Each entry keeps the set of the
+ * cells tied for the best score, among which the reasoner draws its move as usual.
+ *
+ * The table is bounded and lossy: one entry per slot, addressed by the low bits of the
+ * key, and a store always replaces what the slot held. Reads and writes are lock-free
+ * and the entries immutable, so any number of threads can share it; a lost store only
+ * costs a recomputation. The full key is checked on probe, which leaves a 2^-64 chance
+ * of taking the moves of another position (the moves are still validated by the caller).
+ *
+ * Hits, misses, stores and evictions are counted to size the table: many evictions
+ * with a low hit rate call for a larger one.
+ */
+public final class TranspositionTable {
+
+    /** Default capacity of the shared table (entries) */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Larger tie sets are not worth caching: they only occur on wide open boards */
+    public static final int MAX_MOVES = 128;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** An analysed position: its key and the row-major indices of its best cells */
+    private record Entry(long key, int[] moves) {}
+
+    /**
+     * @param capacity Maximum number of entries, rounded up to a power of two.
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return The table shared by the whole JVM, created on first use with
+     *         {@link #DEFAULT_CAPACITY} entries.
+     */
+    public static TranspositionTable shared() {
+        return Shared.TABLE;
+    }
+
+    private static final class Shared {
+        static final TranspositionTable TABLE = new TranspositionTable(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * The salt to xor into the Zobrist keys of a reasoner, so that the positions of
+     * different strategies or board sizes never share an entry.
+     * @param strategy Name of the strategy (and of its version, if its scores change).
+     */
+    public static long salt(String strategy, int width, int height) {
+        long h = mix(strategy.hashCode() ^ 0x7AB1EL);
+        return mix(h ^ ((long) width << 32 | height));
+    }
+
+    // --- LOOKUP ---
+
+    /**
+     * @return The best cells stored for the position, or null if it is not in the table.
+     *         The array is shared and must not be modified.
+     */
+    public int[] probe(long key) {
+        Entry entry = slots.get(slot(key));
+        if (entry != null && entry.key == key) {
+            hits.increment();
+            return entry.moves;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the best cells of a position, replacing the previous content of its slot.
+     * @param moves Row-major indices of the cells, the first {@code count} are copied.
+     */
+    public void store(long key, int[] moves, int count) {
+        if (count <= 0 || count > MAX_MOVES) return;
+        Entry previous = slots.getAndSet(slot(key), new Entry(key, Arrays.copyOf(moves, count)));
+        stores.increment();
+        if (previous != null && previous.key != key) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Empties the table; the counters are kept.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- METRICS ---
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return Probes that found their position.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Probes that did not (never stored, or evicted).
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return Stores that overwrote another position.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The fraction of probes that found their position (0 before the first probe).
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long probes = hit + getMisses();
+        return probes == 0 ? 0.0 : (double) hit / probes;
+    }
+
+    /**
+     * @return Occupied slots, counted by a scan of the table.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) size++;
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Transposition table: %d/%d entries, %d hits, %d misses (%.0f%%), %d evictions",
+                size(), getCapacity(), getHits(), getMisses(), 100 * getHitRate(), getEvictions());
+    }
+}
@@ -0,0 +1,125 @@
+package ai;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of the {@link ArrayKernels}: clear and the masked argmax (max, count,
+ * find) run on the platform's preferred int vectors, capped at 8 lanes. The loops
+ * handle whole vectors and finish with scalar code.
+ *
+ * The cell mask never becomes a VectorMask: those are boxed whenever C2 cannot prove
+ * they stay in registers. Instead, the bits of a vector's cells select a row of
+ * {@link #SELECT}, an int vector of all ones in the lanes whose bit is set, and the
+ * kernels combine it with plain lanewise and/or/shift operations; a match is a lane
+ * of 1, so the counts are sums. Once compiled, a kernel then allocates nothing.
+ *
+ * Fill and accumulate keep the scalar loops, which C2 already compiles to SIMD
+ * instructions: an explicit accumulate was measured slower (see bench.KernelBenchmark).
+ * Only loaded by {@link ArrayKernels#vector()} when the incubator module is present.
+ */
+final class VectorKernels extends ScalarKernels {
+
+    /** The preferred int species, capped at 8 lanes to keep {@link #SELECT} small */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED.length() > 8
+            ? IntVector.SPECIES_256 : IntVector.SPECIES_PREFERRED;
+    private static final int LANES = INTS.length();
+    private static final long LANE_BITS = (1L << LANES) - 1;
+
+    /** SELECT[bits * LANES + j]: -1 if bit j of bits is set, else 0 */
+    private static final int[] SELECT = new int[(1 << LANES) * LANES];
+    static {
+        for (int bits = 0; bits < 1 << LANES; bits++) {
+            for (int j = 0; j < LANES; j++) {
+                SELECT[bits * LANES + j] = ((bits >>> j) & 1) != 0 ? -1 : 0;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vector (" + INTS.vectorBitSize() + " bits)";
+    }
+
+    /** All ones in the lanes of cells i.. whose bit is set */
+    private static IntVector select(long[] mask, int i) {
+        return IntVector.fromArray(INTS, SELECT, (int) ((mask[i >>> 6] >>> (i & 63)) & LANE_BITS) * LANES);
+    }
+
+    /** 1 in the lanes of cells i.. equal to value with their bit set, 0 elsewhere */
+    private static IntVector matches(int[] values, long[] mask, int i, int value) {
+        IntVector diff = IntVector.fromArray(INTS, values, i).lanewise(VectorOperators.XOR, value);
+        // The sign of diff | -diff is set unless diff is 0
+        IntVector different = diff.or(diff.neg()).lanewise(VectorOperators.LSHR, 31);
+        return different.lanewise(VectorOperators.XOR, 1).and(select(mask, i));
+    }
+
+    @Override
+    public void clear(int[] values, long[] mask, int length) {
+        int bound = INTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            IntVector.fromArray(INTS, values, i)
+                    .lanewise(VectorOperators.AND_NOT, select(mask, i))
+                    .intoArray(values, i);
+        }
+        for (; i < length; i++) {
+            if (isSet(mask, i)) values[i] = 0;
+        }
+    }
+
+    @Override
+    public int max(int[] values, long[] mask, int length) {
+        IntVector lowest = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        IntVector acc = lowest;
+        int bound = INTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            // The lanes not in the mask compete with the lowest value
+            IntVector selected = select(mask, i);
+            acc = acc.max(IntVector.fromArray(INTS, values, i).and(selected)
+                    .or(lowest.lanewise(VectorOperators.AND_NOT, selected)));
+        }
+        int max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            if (isSet(mask, i) && values[i] > max) max = values[i];
+        }
+        return max;
+    }
+
+    @Override
+    public int count(int[] values, long[] mask, int length, int value) {
+        IntVector acc = IntVector.zero(INTS);
+        int bound = INTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            acc = acc.add(matches(values, mask, i, value));
+        }
+        int count = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            if (isSet(mask, i) && values[i] == value) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int find(int[] values, long[] mask, int length, int value, int k) {
+        int bound = INTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            // Skip whole vectors until the one holding the k-th match, then scan its lanes
+            int found = matches(values, mask, i, value).reduceLanes(VectorOperators.ADD);
+            if (k < found) {
+                for (int j = i; ; j++) {
+                    if (isSet(mask, j) && values[j] == value && k-- == 0) return j;
+                }
+            }
+            k -= found;
+        }
+        for (; i < length; i++) {
+            if (isSet(mask, i) && values[i] == value && k-- == 0) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import ai.OpeningBook;
+import ai.SamplingReasoner;
+import model.GameConfig;
+
+/**
+ * Offline tool that writes the opening book loaded by {@link Main}. The moves come
+ * from the Monte Carlo reasoner with a large budget, which is too slow to play in
+ * real time but close to the exact posterior.
+ * Usage: {@code java battleship.BookBuilder [depth] [games] [samples per move] [config file]}
+ * (defaults: 6, 5000, 1000000, classic game). The book goes to {@code resources/}.
+ */
+public class BookBuilder {
+
+    public static void main(String[] args) throws IOException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        GameConfig config = args.length > 3 ? GameConfig.load(Path.of(args[3])) : new GameConfig();
+
+        Path file = Main.bookPath(config);
+        long start = System.nanoTime();
+        int positions = OpeningBook.generate(config, depth, games, ai -> {
+            SamplingReasoner reasoner = new SamplingReasoner(ai, config);
+            reasoner.setSampleBudget(samples);
+            reasoner.setTimeBudget(Duration.ofMinutes(1));
+            return reasoner;
+        }, file);
+        System.out.printf("%d positions up to depth %d written to %s in %.1f s%n",
+                positions, depth, file, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -5,6 +5,13 @@ import view.*;
 import controller.BattleController;
 import player.*;
 import ai.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import javax.swing.SwingUtilities;
 
 /**
@@ -14,11 +21,101 @@ import javax.swing.SwingUtilities;
  */
 public class Main {
 
+    /** Board and fleet used by every game launched from the menu */
+    private static GameConfig config = new GameConfig();
+
+    /** Opening moves for the current configuration, or null if no book is available */
+    private static OpeningBook book;
+
     public static void main(String[] args) {
+        // Optional argument: a configuration file with custom board size and fleet
+        if (args.length > 0) {
+            config = loadConfig(args[0]);
+        }
+        // Map the opening book once: its lookups then read the file in place
+        book = loadBook(config);
     	// Launch the application by displaying the difficulty selection menu
         showDifficultyMenu();
     }
 
+    /**
+     * Reads the game configuration, falling back to the classic game if the file
+     * is missing or invalid.
+     * @param path Location of the properties file (see GameConfig.load).
+     */
+    private static GameConfig loadConfig(String path) {
+        try {
+            return GameConfig.load(Path.of(path));
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Configurazione non valida (" + e.getMessage() + "), uso quella standard.");
+            return new GameConfig();
+        }
+    }
+
+    /**
+     * @return Location of the opening book for a board size, relative to the project
+     *         folder (where BookBuilder writes it).
+     */
+    static Path bookPath(GameConfig config) {
+        return Path.of("resources", bookName(config));
+    }
+
+    private static String bookName(GameConfig config) {
+        return "opening-" + config.getWidth() + "x" + config.getHeight() + ".book";
+    }
+
+    /**
+     * Finds the opening book of a configuration: on the classpath, like the images of
+     * the view (resources/ is a source folder), else in the working directory. A book
+     * packed in a jar is copied to a temporary file, since books are mapped in place.
+     * @return Its location, or null if there is none.
+     */
+    static Path findBook(GameConfig config) throws IOException {
+        URL url = Main.class.getResource("/" + bookName(config));
+        if (url == null) url = Main.class.getResource("/resources/" + bookName(config));
+        if (url != null) {
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    return Path.of(url.toURI());
+                } catch (URISyntaxException e) {
+                    throw new IOException("Invalid book location: " + url, e);
+                }
+            }
+            Path copy = Files.createTempFile("opening-", ".book");
+            copy.toFile().deleteOnExit();
+            try (InputStream in = url.openStream()) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return copy;
+        }
+        Path path = bookPath(config);
+        return Files.exists(path) ? path : null;
+    }
+
+    /**
+     * Maps the opening book of the configuration, if one was built for it. A missing
+     * or unusable book is reported: the Expert AI then plays without it.
+     * @return The book, or null if it is missing, invalid or made for another fleet.
+     */
+    private static OpeningBook loadBook(GameConfig config) {
+        try {
+            Path path = findBook(config);
+            if (path == null) {
+                System.err.println("Libro delle aperture " + bookName(config) + " non trovato: l'IA Esperta giocherà senza.");
+                return null;
+            }
+            OpeningBook opening = OpeningBook.open(path);
+            if (!opening.supports(config)) {
+                System.err.println("Libro delle aperture " + path + " creato per un'altra flotta, ignorato.");
+                return null;
+            }
+            return opening;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Libro delle aperture non valido (" + e.getMessage() + "), ignorato.");
+            return null;
+        }
+    }
+
     /**
      * Initializes and displays the Start Menu.
      * This method is wrapped in SwingUtilities.invokeLater to ensure 
@@ -52,9 +149,8 @@ public class Main {
     	if (startScreen != null) startScreen.setVisible(false);
         
     	// 2. Domain Initialization: Set up game rules and grid environments
-        GameConfig config = new GameConfig(); 
-        Grid humanGrid = new Grid(10, 10);
-        Grid aiGrid = new Grid(10, 10);
+        Grid humanGrid = new Grid(config);
+        Grid aiGrid = new Grid(config);
 
         // 3. Player Setup: Instantiate the human commander and the CPU opponent
         Player human = new HumanPlayer("Comandante", humanGrid);
@@ -62,12 +158,13 @@ public class Main {
 
         // 4. Strategy Injection: Use a Factory method to create the AI 'brain' 
         // based on the chosen difficulty and inject it into the AIPlayer instance.
+        // The brain ponders its next move while the human is deciding
         Reasoner brain = createReasoner(difficulty, ai, config);
-        ai.setReasoner(brain);
+        ai.setReasoner(new PonderingReasoner(brain));
 
         // 5. MVC Assembly: Instantiate the GameState (Model) and the BattleView (View)
         GameState state = new GameState(human, ai, config);
-        BattleView view = new BattleView(10, 10);
+        BattleView view = new BattleView(config.getWidth(), config.getHeight());
 
         // 6. Callback Definition: Define the action to be performed when exiting the game 
         // (returning to the main menu).
@@ -93,7 +190,8 @@ public class Main {
      */
     private static Reasoner createReasoner(String level, AIPlayer ai, GameConfig config) {
         return switch (level.toUpperCase()) {
-            case "EXPERT" -> new ExpertReasoner(ai, config);
+            case "EXPERT" -> book != null ? new BookReasoner(new ExpertReasoner(ai, config), book)
+                                          : new ExpertReasoner(ai, config);
             case "HARD"   -> new HardReasoner(ai, config);
             case "MEDIUM" -> new MediumReasoner(ai, config);
             default       -> new EasyReasoner(ai, config);
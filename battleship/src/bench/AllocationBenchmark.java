@@ -0,0 +1,91 @@
+package bench;
+
+import java.awt.Point;
+import java.lang.management.ManagementFactory;
+import java.util.function.BiFunction;
+
+import ai.*;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Heap allocated by each reasoner per move, once warmed up: the thread's allocation
+ * counter is read around every chooseMove and averaged over whole games. The first
+ * move of a game is reported apart, since the grid's indexes and a fresh reasoner's
+ * buffers are sized then. The move itself is a new {@link Point} (24 bytes with
+ * compressed references), so that is the floor of an allocation-free hot path.
+ * The warmup plays several rounds of games: the SIMD kernels (see {@link ArrayKernels})
+ * box their vectors until C2 has compiled them, which takes longer than for plain code.
+ * Usage: {@code java bench.AllocationBenchmark [size ...]} (default: 10 30).
+ */
+public class AllocationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {10, 30} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            GameConfig config = ScaleBenchmark.scaledConfig(size);
+            int games = Integer.getInteger("bench.games", Math.max(5, 20_000 / (size * size)));
+            System.out.println("--- " + size + "x" + size + ", " + config.getShips() + " ships, " + games + " games ---");
+            report("EASY", config, games, EasyReasoner::new);
+            report("MEDIUM", config, games, MediumReasoner::new);
+            report("HARD", config, games, HardReasoner::new);
+            report("EXPERT", config, games, ExpertReasoner::new);
+        }
+    }
+
+    private static void report(String name, GameConfig config, int games,
+            BiFunction<Player, GameConfig, Reasoner> factory) {
+        int warmups = Integer.getInteger("bench.warmups", 10);
+        for (int w = 0; w < warmups; w++) {
+            play(config, games, factory);			// Warmup: let the JIT settle
+        }
+        long[] result = play(config, games, factory);
+        System.out.printf("%-8s steady %10.1f bytes/move   first move %10.0f bytes   (%d moves)%n",
+                name, (double) result[0] / result[1], (double) result[2] / games, result[1] + games);
+    }
+
+    /**
+     * @return The bytes allocated inside chooseMove after the first move of each game,
+     *         the number of those moves, and the bytes allocated by the first moves.
+     */
+    private static long[] play(GameConfig config, int games, BiFunction<Player, GameConfig, Reasoner> factory) {
+        // What reading the counter costs by itself, subtracted from every measure
+        long t0 = THREADS.getCurrentThreadAllocatedBytes();
+        long overhead = THREADS.getCurrentThreadAllocatedBytes() - t0;
+
+        long bytes = 0;
+        long moves = 0;
+        long first = 0;
+        for (int g = 0; g < games; g++) {
+            Grid grid = new Grid(config);
+            Player target = new HumanPlayer("Target", grid);
+            new RandomShipPlacer(config).placeAllShips(null, target);
+            AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+            Reasoner reasoner = factory.apply(ai, config);
+            GameState state = new GameState(target, ai, config);
+
+            boolean opening = true;
+            while (!grid.allShipsSunk()) {
+                long before = THREADS.getCurrentThreadAllocatedBytes();
+                Point move = reasoner.chooseMove(state.getObservation(ai));
+                long allocated = THREADS.getCurrentThreadAllocatedBytes() - before - overhead;
+                if (opening) {
+                    first += allocated;
+                    opening = false;
+                } else {
+                    bytes += allocated;
+                    moves++;
+                }
+                state.gameMove(ai, move);
+            }
+        }
+        return new long[] {bytes, moves, first};
+    }
+}
@@ -0,0 +1,124 @@
+package bench;
+
+import java.awt.Point;
+
+import ai.*;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Tournament throughput: plays N games in lockstep, either with one reasoner per
+ * game (N independent chooseMove calls per round) or with a single
+ * {@link BatchReasoner} call per round, and reports the moves per second of each.
+ * Usage: {@code java bench.BatchBenchmark [games [size]]} (default: 1000 10).
+ */
+public class BatchBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        GameConfig config = ScaleBenchmark.scaledConfig(size);
+        System.out.println("--- " + games + " games of " + size + "x" + size + ", " + config.getShips() + " ships ---");
+
+        compare("HARD", config, games, HardReasoner::new);
+    }
+
+    private interface Factory {
+        Reasoner create(Player player, GameConfig config);
+    }
+
+    private static void compare(String name, GameConfig config, int games, Factory factory) {
+        int rounds = Integer.getInteger("bench.rounds", 3);
+        double single = 0;
+        double batched = 0;
+        for (int r = 0; r <= rounds; r++) {				// Round 0 is the warmup
+            double s = independent(config, games, factory);
+            double b = batch(config, games);
+            if (r > 0) {
+                single = Math.max(single, s);
+                batched = Math.max(batched, b);
+            }
+        }
+        System.out.printf("%-8s independent %10.0f moves/s   batch %10.0f moves/s   (x%.2f)%n",
+                name, single, batched, batched / single);
+    }
+
+    private static Grid[] boards(GameConfig config, int games) {
+        Grid[] boards = new Grid[games];
+        for (int g = 0; g < games; g++) {
+            boards[g] = new Grid(config);
+            new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", boards[g]));
+        }
+        return boards;
+    }
+
+    /**
+     * @return Moves per second with one reasoner per game.
+     */
+    private static double independent(GameConfig config, int games, Factory factory) {
+        Grid[] boards = boards(config, games);
+        Reasoner[] reasoners = new Reasoner[games];
+        for (int g = 0; g < games; g++) {
+            reasoners[g] = factory.create(new AIPlayer("CPU", new Grid(1, 1)), config);
+        }
+
+        long moves = 0;
+        long time = 0;
+        int playing = games;
+        while (playing > 0) {
+            long start = System.nanoTime();
+            Point[] shots = new Point[playing];
+            for (int g = 0; g < playing; g++) {
+                shots[g] = reasoners[g].chooseMove(boards[g].getObservation());
+            }
+            time += System.nanoTime() - start;
+
+            for (int g = 0; g < playing; g++) {
+                boards[g].fireAt(shots[g].x, shots[g].y);
+            }
+            moves += playing;
+            // Finished games leave the round
+            int kept = 0;
+            for (int g = 0; g < playing; g++) {
+                if (boards[g].allShipsSunk()) continue;
+                boards[kept] = boards[g];
+                reasoners[kept++] = reasoners[g];
+            }
+            playing = kept;
+        }
+        return moves / (time / 1e9);
+    }
+
+    /**
+     * @return Moves per second with one batch call per round.
+     */
+    private static double batch(GameConfig config, int games) {
+        Grid[] boards = boards(config, games);
+        BatchReasoner batch = new BatchReasoner(config);
+
+        long moves = 0;
+        long time = 0;
+        int playing = games;
+        while (playing > 0) {
+            Observation[] round = new Observation[playing];
+            for (int g = 0; g < playing; g++) {
+                round[g] = boards[g].getObservation();
+            }
+            long start = System.nanoTime();
+            Point[] shots = batch.chooseMoves(round);
+            time += System.nanoTime() - start;
+
+            for (int g = 0; g < playing; g++) {
+                boards[g].fireAt(shots[g].x, shots[g].y);
+            }
+            moves += playing;
+            int kept = 0;
+            for (int g = 0; g < playing; g++) {
+                if (!boards[g].allShipsSunk()) boards[kept++] = boards[g];
+            }
+            playing = kept;
+        }
+        return moves / (time / 1e9);
+    }
+}
@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal micro-benchmark harness in the spirit of JMH, for a project that has no
+ * build tool to pull JMH in: runs warmup rounds to let the JIT settle, then reports
+ * the best and average time per operation over the measured rounds.
+ * Each operation returns a value that is accumulated into a sink so the JIT
+ * cannot eliminate the work.
+ */
+public final class Bench {
+
+    private static volatile long sink;
+
+    private Bench() {}
+
+    /**
+     * Measures an operation and prints one result line.
+     * @param name Label of the benchmark.
+     * @param opsPerRound Number of invocations per timed round.
+     * @param op The operation under test.
+     * @return The best observed time per operation, in nanoseconds.
+     */
+    public static double run(String name, int opsPerRound, LongSupplier op) {
+        int warmupRounds = Integer.getInteger("bench.warmup", 5);
+        int rounds = Integer.getInteger("bench.rounds", 10);
+
+        for (int r = 0; r < warmupRounds; r++) {
+            round(opsPerRound, op);
+        }
+
+        double best = Double.MAX_VALUE;
+        double total = 0;
+        for (int r = 0; r < rounds; r++) {
+            double perOp = (double) round(opsPerRound, op) / opsPerRound;
+            best = Math.min(best, perOp);
+            total += perOp;
+        }
+        System.out.printf("%-48s best %12.1f ns/op   avg %12.1f ns/op%n", name, best, total / rounds);
+        return best;
+    }
+
+    private static long round(int ops, LongSupplier op) {
+        long acc = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            acc += op.getAsLong();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return elapsed;
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.Random;
+
+import ai.ExactReasoner;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Cost of exact arrangement counting on the classic 10x10 fleet, as the board fills
+ * up: time per move and whether the counts were exact or the move fell back to the
+ * density map (open boards have too many frontier states to count within a turn).
+ * Usage: {@code java bench.ExactBenchmark [positions per shot count]} (default: 5).
+ */
+public class ExactBenchmark {
+
+    public static void main(String[] args) {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        GameConfig config = new GameConfig();
+        System.out.println("--- 10x10 classic fleet, " + positions + " positions per row ---");
+        System.out.printf("%6s %12s %8s %18s%n", "shots", "ms/move", "exact", "arrangements");
+
+        Random random = new Random(42);
+        for (int shots = 0; shots <= 40; shots += 5) {
+            long nanos = 0;
+            int exact = 0;
+            long arrangements = 0;
+            for (int p = 0; p < positions; p++) {
+                Grid grid = new Grid(config);
+                Player target = new HumanPlayer("Target", grid);
+                new RandomShipPlacer(config).placeAllShips(null, target);
+                for (int fired = 0; fired < shots && !grid.allShipsSunk(); ) {
+                    int x = random.nextInt(10);
+                    int y = random.nextInt(10);
+                    if (grid.isPotentialTarget(x, y)) {
+                        grid.fireAt(x, y);
+                        fired++;
+                    }
+                }
+                if (grid.allShipsSunk()) continue;
+
+                AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+                ExactReasoner reasoner = new ExactReasoner(ai, config);
+                GameState state = new GameState(target, ai, config);
+                reasoner.chooseMove(state.getObservation(ai));		// Warmup
+                long start = System.nanoTime();
+                reasoner.chooseMove(state.getObservation(ai));
+                nanos += System.nanoTime() - start;
+                if (reasoner.isLastMoveExact()) {
+                    exact++;
+                    arrangements += reasoner.getArrangementCount();
+                }
+            }
+            System.out.printf("%6d %12.1f %5d/%-2d %18d%n", shots, nanos / 1e6 / positions, exact, positions,
+                    exact > 0 ? arrangements / exact : 0);
+        }
+    }
+}
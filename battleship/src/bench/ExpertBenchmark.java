@@ -0,0 +1,68 @@
+package bench;
+
+import java.awt.Point;
+
+import ai.ExpertReasoner;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Per-move cost of the Expert AI over whole games, comparing the incrementally
+ * maintained density map with a full recomputation at every move (a fresh
+ * reasoner per move, which is what the map used to cost).
+ * Usage: {@code java bench.ExpertBenchmark [size ...]} (default: 10 30 100).
+ */
+public class ExpertBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {10, 30, 100} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            GameConfig config = ScaleBenchmark.scaledConfig(size);
+            System.out.println("--- " + size + "x" + size + ", " + config.getShips() + " ships ---");
+            int games = Integer.getInteger("bench.games", Math.max(2, 400_000 / (size * size)));
+            double incremental = perMove(config, games, false);
+            double full = perMove(config, Math.max(1, games / 10), true);
+            System.out.printf("incremental %12.2f us/move%n", incremental / 1e3);
+            System.out.printf("full        %12.2f us/move   (x%.1f)%n", full / 1e3, full / incremental);
+        }
+    }
+
+    /**
+     * Plays whole games (after the same number of warmup games) and returns the
+     * average time of chooseMove, in nanoseconds.
+     */
+    private static double perMove(GameConfig config, int games, boolean fresh) {
+        play(config, games, fresh);
+        long[] result = play(config, games, fresh);
+        return (double) result[0] / result[1];
+    }
+
+    private static long[] play(GameConfig config, int games, boolean fresh) {
+        long time = 0;
+        long moves = 0;
+        for (int g = 0; g < games; g++) {
+            Grid grid = new Grid(config);
+            Player target = new HumanPlayer("Target", grid);
+            new RandomShipPlacer(config).placeAllShips(null, target);
+            AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+            ai.setReasoner(new ExpertReasoner(ai, config));
+            GameState state = new GameState(target, ai, config);
+
+            while (!grid.allShipsSunk()) {
+                long t0 = System.nanoTime();
+                if (fresh) {
+                    ai.setReasoner(new ExpertReasoner(ai, config));
+                }
+                Point move = ai.chooseMove(state);
+                time += System.nanoTime() - t0;
+                state.gameMove(ai, move);
+                moves++;
+            }
+        }
+        return new long[] {time, moves};
+    }
+}
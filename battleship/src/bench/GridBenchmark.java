@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.List;
+import java.util.Random;
+
+import model.*;
+import placer.RandomShipPlacer;
+import player.HumanPlayer;
+
+/**
+ * Compares the bit-mask Grid with the original {@code Cell[][]} layout on the
+ * operations the reasoners and placers hammer: target scans, smart-cell listing,
+ * game-over detection and placement validation.
+ * Usage: {@code java bench.GridBenchmark [size ...]} (default: 10 30 100).
+ */
+public class GridBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {10, 30, 100} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            runFor(size);
+        }
+    }
+
+    private static void runFor(int size) {
+        GameConfig config = new GameConfig();
+        Grid grid = new Grid(size, size);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Bench", grid));
+
+        // Mirror the same fleet into the legacy layout
+        LegacyGrid legacy = new LegacyGrid(size, size);
+        for (Ship ship : grid.getShips()) {
+            List<java.awt.Point> pos = ship.getPositions();
+            boolean horizontal = pos.size() > 1 && pos.get(0).y == pos.get(1).y;
+            legacy.placeShip(ship.getSize(), pos.get(0).x, pos.get(0).y, horizontal);
+        }
+
+        // Fire at 40% of the board (the same cells on both layouts), sinking some ships
+        Random random = new Random(42);
+        for (int i = 0; i < size * size * 2 / 5; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            grid.fireAt(x, y);
+            legacy.fireAt(x, y);
+        }
+
+        int ops = Math.max(10, 200_000 / (size * size));
+        System.out.println("--- " + size + "x" + size + " ---");
+
+        Bench.run("legacy  isPotentialTarget scan", ops, () -> {
+            long n = 0;
+            for (int y = 0; y < size; y++)
+                for (int x = 0; x < size; x++)
+                    if (legacy.isPotentialTarget(x, y)) n++;
+            return n;
+        });
+        Bench.run("bitmask isPotentialTarget scan", ops, () -> {
+            long n = 0;
+            for (int y = 0; y < size; y++)
+                for (int x = 0; x < size; x++)
+                    if (grid.isPotentialTarget(x, y)) n++;
+            return n;
+        });
+
+        Bench.run("legacy  getSmartUntouchedCells", ops, () -> legacy.getSmartUntouchedCells().size());
+        Bench.run("bitmask getSmartUntouchedCells", ops, () -> grid.getSmartUntouchedCells().size());
+
+        Bench.run("legacy  allShipsSunk", ops * 100, () -> legacy.allShipsSunk() ? 1 : 0);
+        Bench.run("bitmask allShipsSunk", ops * 100, () -> grid.allShipsSunk() ? 1 : 0);
+
+        ShipConfig cruiser = new ShipConfig("Cruiser", 3, 1);
+        Bench.run("legacy  placement validation (all slots)", ops, () -> {
+            long n = 0;
+            for (int y = 0; y < size; y++)
+                for (int x = 0; x < size; x++) {
+                    if (legacy.canPlaceShipAt(3, x, y, true)) { legacy.placeShip(3, x, y, true); n++; }
+                    if (legacy.canPlaceShipAt(3, x, y, false)) { legacy.placeShip(3, x, y, false); n++; }
+                }
+            return n;
+        });
+        Bench.run("bitmask placement validation (all slots)", ops, () -> {
+            long n = 0;
+            for (int y = 0; y < size; y++)
+                for (int x = 0; x < size; x++) {
+                    if (grid.placeShip(new Ship(cruiser), x, y, true)) n++;
+                    if (grid.placeShip(new Ship(cruiser), x, y, false)) n++;
+                }
+            return n;
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package bench;
+
+import java.awt.Point;
+import java.util.Optional;
+import java.util.Random;
+
+import ai.*;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Scalar against SIMD {@link ArrayKernels}: each kernel alone on a board-sized
+ * array, then the Hard AI's whole-game cost per move with either set.
+ * Run with {@code --add-modules jdk.incubator.vector}, or only the scalar kernels
+ * are measured.
+ * Usage: {@code java --add-modules jdk.incubator.vector bench.KernelBenchmark [size ...]}
+ * (default: 10 100 300).
+ */
+public class KernelBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {10, 100, 300} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        Optional<ArrayKernels> vector = ArrayKernels.vector();
+        if (vector.isEmpty()) {
+            System.out.println("jdk.incubator.vector not present: scalar kernels only");
+        }
+        for (int size : sizes) {
+            System.out.println("--- " + size + "x" + size + " ---");
+            kernels(size, ArrayKernels.scalar());
+            vector.ifPresent(v -> kernels(size, v));
+            hard(size, ArrayKernels.scalar());
+            vector.ifPresent(v -> hard(size, v));
+        }
+    }
+
+    private static void kernels(int size, ArrayKernels k) {
+        int cells = size * size;
+        Random random = new Random(1);
+        int[] values = new int[cells];
+        long[] mask = new long[BitBoard.wordsFor(cells)];
+        double[] x = new double[cells];
+        double[] y = new double[cells];
+        for (int i = 0; i < cells; i++) {
+            values[i] = random.nextInt(50);
+            x[i] = random.nextInt(1000);
+            if (random.nextBoolean()) mask[i >>> 6] |= 1L << i;
+        }
+        int ops = Math.max(1, 2_000_000 / cells);
+        String name = k.getName();
+        Bench.run(name + " fill", ops, () -> {
+            k.fill(values, 1, cells);
+            return values[cells - 1];
+        });
+        Bench.run(name + " clear", ops, () -> {
+            k.clear(values, mask, cells);
+            return values[0];
+        });
+        Bench.run(name + " accumulate", ops, () -> {
+            k.accumulate(y, 3, x, 0, cells);
+            return (long) y[0];
+        });
+        Bench.run(name + " max + count", ops, () -> {
+            int max = k.max(values, mask, cells);
+            return max + k.count(values, mask, cells, max);
+        });
+    }
+
+    private static void hard(int size, ArrayKernels k) {
+        GameConfig config = ScaleBenchmark.scaledConfig(size);
+        int games = Math.max(1, 2000 / (size * size / 100));
+        play(config, games, k);
+        long[] result = play(config, games, k);
+        System.out.printf("%-48s %12.2f us/move%n", "HardReasoner, " + k.getName(), result[0] / 1e3 / result[1]);
+    }
+
+    private static long[] play(GameConfig config, int games, ArrayKernels k) {
+        long time = 0;
+        long moves = 0;
+        for (int g = 0; g < games; g++) {
+            Grid grid = new Grid(config);
+            Player target = new HumanPlayer("Target", grid);
+            new RandomShipPlacer(config).placeAllShips(null, target);
+            AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+            HardReasoner reasoner = new HardReasoner(ai, config);
+            reasoner.setKernels(k);
+            GameState state = new GameState(target, ai, config);
+            while (!grid.allShipsSunk()) {
+                long t0 = System.nanoTime();
+                Point move = reasoner.chooseMove(state.getObservation(ai));
+                time += System.nanoTime() - t0;
+                state.gameMove(ai, move);
+                moves++;
+            }
+        }
+        return new long[] {time, moves};
+    }
+}
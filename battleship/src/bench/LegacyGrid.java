@@ -0,0 +1,127 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frozen copy of the original {@code Cell[][]} board layout, kept only as the
+ * baseline for {@link GridBenchmark}. Every cell is a heap object holding its
+ * state and a reference to its ship; rule checks scan the 3x3 neighbourhoods.
+ */
+final class LegacyGrid {
+
+    enum State { NOTFIRED, HIT, MISS }
+
+    static final class LegacyShip {
+        final int size;
+        int hits;
+        LegacyShip(int size) { this.size = size; }
+        boolean isSunk() { return hits == size; }
+    }
+
+    static final class LegacyCell {
+        final int x;
+        final int y;
+        State state = State.NOTFIRED;
+        LegacyShip ship;
+        LegacyCell(int x, int y) { this.x = x; this.y = y; }
+    }
+
+    private final int width;
+    private final int height;
+    private final LegacyCell[][] cells;
+    private final List<LegacyShip> ships = new ArrayList<>();
+
+    LegacyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new LegacyCell[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                cells[x][y] = new LegacyCell(x, y);
+            }
+        }
+    }
+
+    boolean isValidCoordinate(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    LegacyCell getCell(int x, int y) {
+        if (!isValidCoordinate(x, y)) {
+            throw new IndexOutOfBoundsException("Invalid coordinates: " + x + "," + y);
+        }
+        return cells[x][y];
+    }
+
+    private boolean isAreaClear(int x, int y) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (isValidCoordinate(x + dx, y + dy) && getCell(x + dx, y + dy).ship != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean isAreaClearOfSunkenShips(int x, int y) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (isValidCoordinate(x + dx, y + dy)) {
+                    LegacyCell cell = getCell(x + dx, y + dy);
+                    if (cell.state == State.HIT && cell.ship != null && cell.ship.isSunk()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean isPotentialTarget(int x, int y) {
+        return getCell(x, y).state == State.NOTFIRED && isAreaClearOfSunkenShips(x, y);
+    }
+
+    boolean canPlaceShipAt(int size, int startX, int startY, boolean horizontal) {
+        for (int i = 0; i < size; i++) {
+            int x = horizontal ? startX + i : startX;
+            int y = horizontal ? startY : startY + i;
+            if (!isValidCoordinate(x, y) || !isAreaClear(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void placeShip(int size, int startX, int startY, boolean horizontal) {
+        LegacyShip ship = new LegacyShip(size);
+        for (int i = 0; i < size; i++) {
+            getCell(horizontal ? startX + i : startX, horizontal ? startY : startY + i).ship = ship;
+        }
+        ships.add(ship);
+    }
+
+    void fireAt(int x, int y) {
+        LegacyCell cell = getCell(x, y);
+        if (cell.state != State.NOTFIRED) return;
+        if (cell.ship == null) {
+            cell.state = State.MISS;
+        } else {
+            cell.state = State.HIT;
+            cell.ship.hits++;
+        }
+    }
+
+    boolean allShipsSunk() {
+        return !ships.isEmpty() && ships.stream().allMatch(LegacyShip::isSunk);
+    }
+
+    List<LegacyCell> getSmartUntouchedCells() {
+        return Arrays.stream(cells)
+                     .flatMap(Arrays::stream)
+                     .filter(c -> isPotentialTarget(c.x, c.y))
+                     .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import ai.ExpertReasoner;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Scaling of the Expert AI's full probability recomputation on a large board,
+ * sequential and then on fork/join pools of 1 to N worker threads.
+ * A shot followed by its undo forces the reasoner to recompute the whole map.
+ * Usage: {@code java bench.ParallelBenchmark [size [maxThreads]]}
+ * (default: 500 and the number of available processors).
+ */
+public class ParallelBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        GameConfig config = ScaleBenchmark.scaledConfig(size);
+        Grid grid = new Grid(config);
+        Player target = new HumanPlayer("Target", grid);
+        new RandomShipPlacer(config).placeAllShips(null, target);
+
+        // Fire at a fifth of the board so that misses, hits and sunk ships are all present
+        Random random = new Random(42);
+        for (int i = 0; i < size * size / 5; i++) {
+            grid.fireAt(random.nextInt(size), random.nextInt(size));
+        }
+
+        AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+        ExpertReasoner expert = new ExpertReasoner(ai, config);
+        int free = grid.getPotentialTarget(0).y * size + grid.getPotentialTarget(0).x;
+
+        System.out.println("--- " + size + "x" + size + ", " + config.getShips() + " ships, "
+            + Runtime.getRuntime().availableProcessors() + " processors ---");
+
+        expert.setForkJoinPool(null);
+        double sequential = Bench.run("sequential", 5, () -> recompute(expert, grid, free));
+
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            expert.setForkJoinPool(pool);
+            double time = Bench.run("fork/join, " + threads + " thread(s)", 5, () -> recompute(expert, grid, free));
+            System.out.printf("%48s speedup x%.2f%n", "", sequential / time);
+            pool.shutdown();
+        }
+    }
+
+    private static long recompute(ExpertReasoner expert, Grid grid, int free) {
+        grid.fireAt(free % grid.getWidth(), free / grid.getWidth());
+        grid.undoLastShot();
+        return expert.chooseMove(grid.getObservation()).x;
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import java.time.Duration;
+import java.util.Random;
+
+import ai.SamplingReasoner;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Throughput of the Monte Carlo reasoner on the classic 10x10 fleet: consistent
+ * layouts generated per second on an empty board, in the mid-game (misses, a few
+ * hits, a sunk ship) and with an unresolved hit cluster.
+ * Usage: {@code java bench.SamplingBenchmark [seconds per position]} (default: 1).
+ */
+public class SamplingBenchmark {
+
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+        GameConfig config = new GameConfig();
+        System.out.println("--- 10x10 classic fleet, " + Runtime.getRuntime().availableProcessors() + " processors ---");
+
+        measure("empty board", config, seconds, 0);
+        measure("after 15 shots", config, seconds, 15);
+        measure("after 35 shots", config, seconds, 35);
+    }
+
+    private static void measure(String name, GameConfig config, double seconds, int shots) {
+        Grid grid = new Grid(config);
+        Player target = new HumanPlayer("Target", grid);
+        new RandomShipPlacer(config).placeAllShips(null, target);
+        Random random = new Random(42);
+        for (int fired = 0; fired < shots; ) {
+            int x = random.nextInt(10);
+            int y = random.nextInt(10);
+            if (grid.isPotentialTarget(x, y)) {
+                grid.fireAt(x, y);
+                fired++;
+            }
+        }
+
+        AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+        SamplingReasoner reasoner = new SamplingReasoner(ai, config);
+        GameState state = new GameState(target, ai, config);
+        reasoner.setSampleBudget(Integer.MAX_VALUE);
+        reasoner.setTimeBudget(Duration.ofMillis(200));
+        reasoner.chooseMove(state.getObservation(ai));		// Warmup
+
+        reasoner.setTimeBudget(Duration.ofMillis((long) (seconds * 1000)));
+        long start = System.nanoTime();
+        reasoner.chooseMove(state.getObservation(ai));
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-16s %,14.0f layouts/s%n", name, reasoner.getLastSampleCount() / elapsed);
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import java.awt.Point;
+
+import ai.*;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+/**
+ * Stress test of the model and the AIs on growing custom boards.
+ * For each board size it builds a fleet proportional to the area, places it,
+ * reports the memory retained per cell by a populated Grid, and times the
+ * first moves of every reasoner.
+ * Usage: {@code java bench.ScaleBenchmark [size ...]} (default: 10 100 300 1000).
+ */
+public class ScaleBenchmark {
+
+    private static final int MOVES = 10;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {10, 100, 300, 1000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            runFor(size);
+        }
+    }
+
+    /**
+     * One copy of the classic fleet every 400 cells (a single copy on 10x10).
+     */
+    static GameConfig scaledConfig(int size) {
+        int copies = Math.max(1, size * size / 400);
+        return GameConfig.builder()
+            .size(size)
+            .ship("Carrier", 5, copies)
+            .ship("Battleship", 4, copies)
+            .ship("Cruiser", 3, copies)
+            .ship("Submarine", 3, copies)
+            .ship("Destroyer", 2, copies)
+            .build();
+    }
+
+    private static void runFor(int size) {
+        GameConfig config = scaledConfig(size);
+        System.out.println("--- " + size + "x" + size + ", " + config.getShips() + " ships ---");
+
+        long before = usedMemory();
+        Grid target = new Grid(config);
+        long start = System.nanoTime();
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", target));
+        long placement = System.nanoTime() - start;
+        long retained = usedMemory() - before;
+        System.out.printf("placement %.1f ms, grid memory ~%.1f bytes/cell%n",
+            placement / 1e6, (double) retained / (size * size));
+
+        for (String level : new String[] {"EASY", "MEDIUM", "HARD", "EXPERT"}) {
+            Grid grid = new Grid(config);
+            new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", grid));
+            Player human = new HumanPlayer("Target", grid);
+            AIPlayer ai = new AIPlayer("CPU", new Grid(1, 1));
+            ai.setReasoner(create(level, ai, config));
+            GameState state = new GameState(human, ai, config);
+
+            long total = 0;
+            for (int m = 0; m < MOVES; m++) {
+                long t0 = System.nanoTime();
+                Point move = ai.chooseMove(state);
+                total += System.nanoTime() - t0;
+                state.gameMove(ai, move);
+            }
+            System.out.printf("%-8s %12.1f us/move%n", level, total / 1e3 / MOVES);
+        }
+    }
+
+    private static Reasoner create(String level, AIPlayer ai, GameConfig config) {
+        return switch (level) {
+            case "EXPERT" -> new ExpertReasoner(ai, config);
+            case "HARD"   -> new HardReasoner(ai, config);
+            case "MEDIUM" -> new MediumReasoner(ai, config);
+            default       -> new EasyReasoner(ai, config);
+        };
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
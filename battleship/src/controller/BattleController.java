@@ -1,5 +1,6 @@
 package controller;
 
+import ai.PonderingReasoner;
 import model.*;
 import view.BattleView;
 import placer.*;
@@ -7,10 +8,14 @@ import player.*;
 
 import java.awt.Color;
 import java.awt.Point;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import javax.swing.Timer;
+import javax.swing.SwingUtilities;
 
 /**
  * The BattleController class acts as the Mediator between the Game Model and the BattleView.
@@ -18,6 +23,11 @@ import javax.swing.Timer;
  * tactical battle phase, while coordinating Human and AI turns.
  */
 public class BattleController {
+
+    /** Time the CPU takes for each shot: it thinks for most of it, so that it never fires instantly */
+    private static final Duration AI_TURN = Duration.ofMillis(1000);
+    private static final Duration AI_THINKING = Duration.ofMillis(900);
+
     private final GameState model;
     private final BattleView view;
     private final Runnable exitAction;				// Callback to return to the main menu
@@ -27,7 +37,16 @@ public class BattleController {
     
     private int currentShipIndex = 0;
     private boolean isBattlePhase = false;
-    private Timer aiTimer;							// Timer to simulate CPU "thinking" time and prevent UI freezing
+
+    // CPU turns run on a background thread, so that the UI stays responsive while the AI thinks
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "battleship-ai");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> aiTask;
+    private int aiTurn = 0;							// Incremented on every turn: older results are stale
+    private boolean closed = false;					// Set when leaving the game: no result may be applied
 
     /**
      * Constructor initializes the controller, sets up listeners, and prepares 
@@ -122,6 +141,7 @@ public class BattleController {
         aiPlacer.placeAllShips(model, model.getAiPlayer());
         
         view.setStatus("BATTAGLIA! Fuoco al nemico.");
+        startPondering();
     }
 
     // --- BATTLE LOGIC ---
@@ -148,28 +168,72 @@ public class BattleController {
     }
 
     /**
-     * Manages the AI turn logic using a Swing Timer.
-     * The timer ensures the CPU doesn't fire instantly, providing a better user experience.
+     * Starts the AI turn. The move is computed on the AI thread within the thinking
+     * budget, then applied on the Event Dispatch Thread once the turn time is over.
+     * The human cannot act meanwhile, so the AI reads the model undisturbed.
      */
     private void startAiTurn() {
-        aiTimer = new Timer(1000, e -> {
-            Point aiMove = model.getAiPlayer().chooseMove(model);
-            MoveResult aiRes = model.gameMove(model.getAiPlayer(), aiMove);
-            
-            processMoveResult(false, aiMove.x, aiMove.y, aiRes);
-
-            if (model.isGameOver()) {
-                finishGame();
-            } else if (aiRes != MoveResult.MISS) {
-                view.setStatus("La CPU ha colpito! Mira ancora...");
-                aiTimer.restart(); // CPU gets another turn if it hits
-            } else {
-                view.setStatus("La CPU ha mancato. Tocca a te!");
-                view.enableInteraction();
+        final int turn = ++aiTurn;
+        final Player ai = model.getAiPlayer();
+        aiTask = aiExecutor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                Point aiMove = ai.chooseMove(model, AI_THINKING);
+                long remaining = AI_TURN.toNanos() - (System.nanoTime() - start);
+                if (remaining > 0) {
+                    Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+                SwingUtilities.invokeLater(() -> applyAiMove(turn, aiMove));
+            } catch (InterruptedException e) {
+                // The game was abandoned: drop the move
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (isCurrentTurn(turn)) view.setStatus("Errore della CPU: " + e.getMessage());
+                });
             }
         });
-        aiTimer.setRepeats(false);
-        aiTimer.start();
+    }
+
+    /**
+     * Plays the move computed for an AI turn, unless the turn is stale (the game was
+     * left or another turn started since).
+     */
+    private void applyAiMove(int turn, Point aiMove) {
+        if (!isCurrentTurn(turn)) return;
+        aiTask = null;
+        MoveResult aiRes = model.gameMove(model.getAiPlayer(), aiMove);
+
+        processMoveResult(false, aiMove.x, aiMove.y, aiRes);
+
+        if (model.isGameOver()) {
+            finishGame();
+        } else if (aiRes != MoveResult.MISS) {
+            view.setStatus("La CPU ha colpito! Mira ancora...");
+            startAiTurn(); // CPU gets another turn if it hits
+        } else {
+            view.setStatus("La CPU ha mancato. Tocca a te!");
+            view.enableInteraction();
+            startPondering();
+        }
+    }
+
+    /**
+     * While the human decides, lets a pondering AI compute its next move on the AI
+     * thread: the human's shot cannot change the grid the AI fires at. The next AI
+     * turn is queued behind it and picks the move up.
+     */
+    private void startPondering() {
+        pondering().ifPresent(p -> aiExecutor.submit(() -> p.ponder(model.getObservation(model.getAiPlayer()), AI_THINKING)));
+    }
+
+    private Optional<PonderingReasoner> pondering() {
+        return model.getAiPlayer().getReasoner()
+                .filter(PonderingReasoner.class::isInstance)
+                .map(PonderingReasoner.class::cast);
+    }
+
+    private boolean isCurrentTurn(int turn) {
+        return !closed && turn == aiTurn;
     }
 
     /**
@@ -204,26 +268,30 @@ public class BattleController {
             // Highlight the sunken ship visually
             Optional<Ship> sunkShip = targetGrid.getShipAt(x, y);
             if (sunkShip != null) {
-                view.renderSunkenShip(isEnemyGrid, sunkShip.get().getPositions());
-            }
-
-            // SMART SCAN: Automatically disable "Buffer cells" around the sunken ship.
-            // Since ships cannot be adjacent, these cells are guaranteed to be empty.
-            int w = model.getConfig().getWidth();
-            int h = model.getConfig().getHeight();
-
-            for (int i = 0; i < w; i++) {
-                for (int j = 0; j < h; j++) {
-                    // If the cell is NO longer a potential target (because it is close to a sunken ship) 
-                	// and has NOT yet been hit (it is still in the NOTFIRED state)
-                    if (!targetGrid.isPotentialTarget(i, j) && targetGrid.getCellState(i, j) == CellState.NOTFIRED) {
-                        view.disableSmartCell(isEnemyGrid, i, j);
+                List<Point> positions = sunkShip.get().getPositions();
+                view.renderSunkenShip(isEnemyGrid, positions);
+
+                // SMART SCAN: Automatically disable "Buffer cells" around the sunken ship.
+                // Since ships cannot be adjacent, these cells are guaranteed to be empty.
+                // Only the 3x3 surroundings of the ship just sunk can have changed.
+                for (Point p : positions) {
+                    for (int i = p.x - 1; i <= p.x + 1; i++) {
+                        for (int j = p.y - 1; j <= p.y + 1; j++) {
+                            // If the cell is NO longer a potential target (because it is close to a sunken ship) 
+                        	// and has NOT yet been hit (it is still in the NOTFIRED state)
+                            if (targetGrid.isValidCoordinate(i, j)
+                                    && !targetGrid.isPotentialTarget(i, j)
+                                    && targetGrid.getCellState(i, j) == CellState.NOTFIRED) {
+                                view.disableSmartCell(isEnemyGrid, i, j);
+                            }
+                        }
                     }
                 }
             }
         }
 
-        // 4. Force graphical window update
+        // 4. Publish the new state for background readers, then force graphical window update
+        model.snapshot();
         view.refreshView();
 
         // 5. End-of-match control
@@ -243,9 +311,7 @@ public class BattleController {
     }
 
     private void returnToMenu() {
-        if (aiTimer != null) {
-        	aiTimer.stop();
-        }
+        stopAi();
         view.dispose();
         if (exitAction != null) {
         	exitAction.run();
@@ -258,9 +324,21 @@ public class BattleController {
     }
 
     private void finishGame() {
-        if (aiTimer != null) {
-        	aiTimer.stop();
-        }
+        if (closed) return;			// Already shown
+        stopAi();
         view.showResults(model.getWinner().getName());
     }
+
+    /**
+     * Cancels the AI turn in progress and shuts the AI thread down; results still in
+     * flight are discarded.
+     */
+    private void stopAi() {
+        closed = true;
+        if (aiTask != null) {
+            aiTask.cancel(true);
+            aiTask = null;
+        }
+        aiExecutor.shutdownNow();
+    }
 }
\ No newline at end of file
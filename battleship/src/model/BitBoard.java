@@ -0,0 +1,263 @@
+package model;
+
+/**
+ * Fixed-size bitset covering a width x height board, one bit per cell.
+ * Bits are laid out row-major (index = y * width + x) and packed 64 per long,
+ * so whole rows of the board can be tested and combined one word at a time.
+ * The read API is public; mutators are package-private so that boards handed
+ * out by the Grid cannot be modified from outside the model.
+ */
+public final class BitBoard {
+
+    private final int width;
+    private final int height;
+    private final long[] words;
+
+    /**
+     * Creates an empty board of the given dimensions.
+     */
+    public BitBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.words = new long[wordsFor(width * height)];
+    }
+
+    /**
+     * @return The number of longs needed to hold the given number of bits.
+     */
+    public static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    // --- READ API ---
+
+    public int getWidth() { return this.width; }
+    public int getHeight() { return this.height; }
+    public int size() { return this.width * this.height; }
+    public int wordCount() { return this.words.length; }
+
+    public long word(int i) {
+        return this.words[i];
+    }
+
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean get(int x, int y) {
+        return get(y * width + x);
+    }
+
+    public boolean isEmpty() {
+        for (long w : words) {
+            if (w != 0) return false;
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long w : words) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    /**
+     * @return The index of the first set bit at or after {@code from}, or -1 if none.
+     */
+    public int nextSetBit(int from) {
+        if (from >= size()) return -1;
+        int i = from >>> 6;
+        long w = words[i] & (-1L << from);
+        while (true) {
+            if (w != 0) {
+                int bit = (i << 6) + Long.numberOfTrailingZeros(w);
+                return bit < size() ? bit : -1;
+            }
+            if (++i == words.length) return -1;
+            w = words[i];
+        }
+    }
+
+    /**
+     * Tests whether any bit in the half-open range [from, to) is set.
+     * Runs one word at a time, so a horizontal ship costs one or two word tests.
+     */
+    public boolean anyInRange(int from, int to) {
+        if (from >= to) return false;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            return (words[first] & firstMask & lastMask) != 0;
+        }
+        if ((words[first] & firstMask) != 0) return true;
+        for (int i = first + 1; i < last; i++) {
+            if (words[i] != 0) return true;
+        }
+        return (words[last] & lastMask) != 0;
+    }
+
+    /**
+     * Tests whether any of the {@code count} bits starting at {@code from} and
+     * spaced {@code stride} apart is set (e.g. a vertical ship when stride = width).
+     */
+    public boolean anyStrided(int from, int count, int stride) {
+        for (int i = 0, bit = from; i < count; i++, bit += stride) {
+            if (get(bit)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if this board and the other share at least one set bit.
+     */
+    public boolean intersects(BitBoard other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Two boards are equal when they have the same dimensions and the same cells set.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BitBoard)) return false;
+        BitBoard that = (BitBoard) o;
+        return width == that.width && height == that.height
+            && java.util.Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + java.util.Arrays.hashCode(words);
+    }
+
+    // --- MUTATORS (model package only) ---
+
+    void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    void set(int x, int y) {
+        set(y * width + x);
+    }
+
+    void clear(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    void clear() {
+        java.util.Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Makes this board a copy of another one of the same size.
+     */
+    void copyFrom(BitBoard other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Sets every in-bounds cell of the 3x3 block centred on (x, y).
+     */
+    void setNeighbourhood(int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                set(ny * width + nx);
+            }
+        }
+    }
+
+    /**
+     * Writes into {@code out} the 3x3 dilation of this board: every cell that is set
+     * or has a set neighbour (diagonals included). Works a word at a time by shifting
+     * the whole bitset by one column and one row, masking out row wrap-around.
+     * @param out Destination board of the same size (must not be this board).
+     * @param scratch A temporary word array of length {@link #wordCount()}.
+     */
+    void dilateInto(BitBoard out, long[] scratch) {
+        long[] src = this.words;
+        long[] dst = out.words;
+        int n = src.length;
+
+        // Horizontal pass: cell | left neighbour | right neighbour, without crossing rows
+        for (int i = 0; i < n; i++) {
+            long carryIn = i > 0 ? src[i - 1] >>> 63 : 0L;
+            long carryOut = i + 1 < n ? src[i + 1] << 63 : 0L;
+            scratch[i] = src[i] | (src[i] << 1 | carryIn) | (src[i] >>> 1 | carryOut);
+        }
+        clearWrappedColumns(scratch, src);
+        maskTail(scratch);
+
+        // Vertical pass: row | row above | row below
+        System.arraycopy(scratch, 0, dst, 0, n);
+        orShifted(dst, scratch, width);
+        orShifted(dst, scratch, -width);
+        maskTail(dst);
+    }
+
+    /**
+     * Removes the bits that a one-cell horizontal shift carried across a row boundary:
+     * column 0 must only be set by its own row, and likewise the last column.
+     */
+    private void clearWrappedColumns(long[] shifted, long[] src) {
+        for (int y = 0; y < height; y++) {
+            int first = y * width;
+            int last = first + width - 1;
+            // Column 0 receives a spurious bit from the previous row's last column
+            if (!bit(src, first) && !(width > 1 && bit(src, first + 1))) {
+                shifted[first >>> 6] &= ~(1L << first);
+            }
+            // The last column receives a spurious bit from the next row's first column
+            if (!bit(src, last) && !(width > 1 && bit(src, last - 1))) {
+                shifted[last >>> 6] &= ~(1L << last);
+            }
+        }
+    }
+
+    private static boolean bit(long[] w, int index) {
+        return (w[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * dst |= src shifted by {@code shift} bit positions (positive = towards higher indices).
+     */
+    private static void orShifted(long[] dst, long[] src, int shift) {
+        int n = src.length;
+        int wordShift = Math.abs(shift) >>> 6;
+        int bitShift = Math.abs(shift) & 63;
+        if (shift > 0) {
+            for (int i = n - 1; i >= wordShift; i--) {
+                long lo = src[i - wordShift] << bitShift;
+                long carry = (bitShift != 0 && i - wordShift - 1 >= 0) ? src[i - wordShift - 1] >>> (64 - bitShift) : 0L;
+                dst[i] |= lo | carry;
+            }
+        } else {
+            for (int i = 0; i + wordShift < n; i++) {
+                long hi = src[i + wordShift] >>> bitShift;
+                long carry = (bitShift != 0 && i + wordShift + 1 < n) ? src[i + wordShift + 1] << (64 - bitShift) : 0L;
+                dst[i] |= hi | carry;
+            }
+        }
+    }
+
+    /**
+     * Clears the unused bits past the last cell in the final word.
+     */
+    private void maskTail(long[] w) {
+        int tail = size() & 63;
+        if (tail != 0) {
+            w[w.length - 1] &= (1L << tail) - 1;
+        }
+    }
+}
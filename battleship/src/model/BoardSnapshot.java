@@ -0,0 +1,190 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable view of what an observer can see on one grid: which cells were
+ * missed, hit, or belong to a sunk ship, and how many ships of each size are
+ * still afloat. Ship positions that have not been revealed are not included.
+ *
+ * Cells are stored as 2-bit codes in a persistent 32-way trie of small leaves.
+ * A new snapshot copies only the leaves and branches on the path of the cells
+ * that changed and shares everything else with its predecessor, so producing
+ * one costs O(changed cells) and snapshots can be read from any thread without
+ * locks (all fields are final and nodes are never modified once published).
+ */
+public final class BoardSnapshot {
+
+    static final int CODE_UNKNOWN = 0;
+    static final int CODE_MISS = 1;
+    static final int CODE_HIT = 2;
+    static final int CODE_SUNK = 3;
+
+    private static final int LEAF_WORDS = 8;				// 8 longs x 32 cells = 256 cells per leaf
+    private static final int LEAF_SHIFT = 8;
+    private static final int BRANCH_BITS = 5;				// 32 children per branch
+    private static final int BRANCH_MASK = (1 << BRANCH_BITS) - 1;
+    private static final long[] EMPTY_LEAF = new long[LEAF_WORDS];
+
+    private final int width;
+    private final int height;
+    private final int depth;								// Branch levels above the leaves
+    private final Object root;								// long[] leaf or Object[] branch
+    private final int[] afloatBySize;						// Shared between snapshots until the fleet changes
+    private final int totalShips;
+    private final int shotCount;
+
+    private BoardSnapshot(int width, int height, int depth, Object root,
+                          int[] afloatBySize, int totalShips, int shotCount) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.root = root;
+        this.afloatBySize = afloatBySize;
+        this.totalShips = totalShips;
+        this.shotCount = shotCount;
+    }
+
+    /**
+     * Creates the snapshot of an untouched board. All leaves and all branches of a
+     * level are the same shared empty node, so this is O(depth) whatever the size.
+     */
+    static BoardSnapshot empty(int width, int height) {
+        int leaves = Math.max(1, (width * height + (1 << LEAF_SHIFT) - 1) >>> LEAF_SHIFT);
+        int depth = 0;
+        while ((1 << (BRANCH_BITS * depth)) < leaves) {
+            depth++;
+        }
+        Object node = EMPTY_LEAF;
+        for (int level = 0; level < depth; level++) {
+            Object[] branch = new Object[1 << BRANCH_BITS];
+            Arrays.fill(branch, node);
+            node = branch;
+        }
+        return new BoardSnapshot(width, height, depth, node, new int[1], 0, 0);
+    }
+
+    // --- READ API ---
+
+    public int getWidth() { return this.width; }
+    public int getHeight() { return this.height; }
+
+    /**
+     * @return The number of shots fired at the board when the snapshot was taken.
+     */
+    public int getShotCount() {
+        return this.shotCount;
+    }
+
+    public CellState getCellState(int x, int y) {
+        return switch (code(checkedIndex(x, y))) {
+            case CODE_MISS -> CellState.MISS;
+            case CODE_HIT, CODE_SUNK -> CellState.HIT;
+            default -> CellState.NOTFIRED;
+        };
+    }
+
+    /**
+     * @return true if the cell belongs to a ship already sunk.
+     */
+    public boolean isSunkCell(int x, int y) {
+        return code(checkedIndex(x, y)) == CODE_SUNK;
+    }
+
+    /**
+     * Same rule as {@link Grid#isPotentialTarget}: not fired and not next to a sunk ship.
+     */
+    public boolean isPotentialTarget(int x, int y) {
+        if (code(checkedIndex(x, y)) != CODE_UNKNOWN) {
+            return false;
+        }
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                if (code(ny * width + nx) == CODE_SUNK) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public int getAfloatShipCount(int size) {
+        return size > 0 && size < afloatBySize.length ? afloatBySize[size] : 0;
+    }
+
+    public int getAfloatShipCount() {
+        int total = 0;
+        for (int count : afloatBySize) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return true if a fleet was placed and all of it has been sunk.
+     */
+    public boolean allShipsSunk() {
+        return totalShips > 0 && getAfloatShipCount() == 0;
+    }
+
+    private int checkedIndex(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Invalid coordinates: " + x + "," + y);
+        }
+        return y * width + x;
+    }
+
+    int code(int index) {
+        return code(root, index);
+    }
+
+    // --- PERSISTENT UPDATES (Grid only) ---
+
+    /**
+     * Returns a snapshot with the given cells changed, sharing every untouched node.
+     * @param indices Cells to update (duplicates are harmless).
+     * @param codes The new 2-bit code of each cell.
+     * @param count How many entries of the arrays to apply.
+     */
+    BoardSnapshot with(int[] indices, int[] codes, int count, int[] afloatBySize, int totalShips, int shotCount) {
+        Object newRoot = root;
+        for (int i = 0; i < count; i++) {
+            if (code(newRoot, indices[i]) != codes[i]) {
+                newRoot = set(newRoot, depth, indices[i], codes[i]);
+            }
+        }
+        boolean sameFleet = Arrays.equals(this.afloatBySize, afloatBySize);
+        if (newRoot == root && sameFleet && totalShips == this.totalShips && shotCount == this.shotCount) {
+            return this;
+        }
+        int[] fleet = sameFleet ? this.afloatBySize : afloatBySize.clone();
+        return new BoardSnapshot(width, height, depth, newRoot, fleet, totalShips, shotCount);
+    }
+
+    private int code(Object rootNode, int index) {
+        int leafIndex = index >>> LEAF_SHIFT;
+        Object node = rootNode;
+        for (int level = depth; level > 0; level--) {
+            node = ((Object[]) node)[(leafIndex >>> (BRANCH_BITS * (level - 1))) & BRANCH_MASK];
+        }
+        long word = ((long[]) node)[(index >>> 5) & (LEAF_WORDS - 1)];
+        return (int) (word >>> ((index & 31) << 1)) & 3;
+    }
+
+    /**
+     * Path copy: clones the nodes from the root down to the cell's leaf.
+     */
+    private static Object set(Object node, int level, int index, int code) {
+        if (level == 0) {
+            long[] leaf = ((long[]) node).clone();
+            int word = (index >>> 5) & (LEAF_WORDS - 1);
+            int shift = (index & 31) << 1;
+            leaf[word] = (leaf[word] & ~(3L << shift)) | ((long) code << shift);
+            return leaf;
+        }
+        Object[] branch = ((Object[]) node).clone();
+        int slot = ((index >>> LEAF_SHIFT) >>> (BRANCH_BITS * (level - 1))) & BRANCH_MASK;
+        branch[slot] = set(branch[slot], level - 1, index, code);
+        return branch;
+    }
+}
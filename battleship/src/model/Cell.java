@@ -5,26 +5,31 @@ import java.util.Optional;
 
 /**
  * Represents a single square (cell) on the battlefield.
- * It manages its own state and acts as a link to a Ship object if one is present.
+ * A Cell is a lightweight view onto its Grid: the state and the ship reference
+ * live in the Grid's bit masks, so reading or changing a Cell reads or changes the board.
  */
 public class Cell {
 	
-    private CellState state = CellState.NOTFIRED;
+    private final Grid grid;						// Owning grid holding the actual state
+    private final int index; 						// Row-major position in the grid's masks
     private final Point coordinates; 				// Final: a cell's position is immutable
-    private Optional<Ship> ship; 								// Reference to the ship occupying this cell (null if empty)
 	
     /**
-     * Initializes a cell at the specified coordinates.
+     * Creates the view of the cell at the specified coordinates.
+     * Cells are only created by their Grid.
+     * @param grid The grid the cell belongs to.
      * @param coordinates The (x, y) position on the grid.
      */
-    public Cell(Point coordinates) {
+    Cell(Grid grid, Point coordinates) {
+        this.grid = grid;
         this.coordinates = coordinates;
+        this.index = coordinates.y * grid.getWidth() + coordinates.x;
     }
 
     // --- GETTERS ---
 
     public CellState getState() {
-        return this.state;
+        return grid.getCellState(index);
     }
 	
     public Point getCoordinates() {
@@ -32,14 +37,22 @@ public class Cell {
     }
 	   
     public Optional<Ship> getShip() {
-        return this.ship;
+        Ship ship = grid.shipAt(index);
+        return ship == null ? null : Optional.of(ship);
     }
 	
     /**
      * @return true if there is a ship assigned to this cell.
      */
     public boolean hasShip() {
-        return this.ship != null;
+        return grid.shipAt(index) != null;
+    }
+
+    /**
+     * @return The row-major index of this cell inside its grid.
+     */
+    int index() {
+        return this.index;
     }
     
     // --- SHIP PLACEMENT ---
@@ -53,7 +66,7 @@ public class Cell {
         if (this.hasShip()) {
             throw new IllegalStateException("Cell already has a ship at " + coordinates);
         }
-        this.ship = Optional.ofNullable(ship);
+        grid.assignShip(index, ship);
     }
     
     // --- COMBAT LOGIC ---
@@ -64,55 +77,33 @@ public class Cell {
      * @return A MoveResult indicating the outcome (MISS, HIT, SUNK, or ALREADY_FIRED).
      */
     public MoveResult fire() {
-
-        // 1. Invalid move: Cell was already targeted
-        if (this.state != CellState.NOTFIRED) {
-            return MoveResult.ALREADY_FIRED;
-        }
-
-        // 2. Shot missed: No ship at these coordinates
-        if (ship == null) {
-            state = CellState.MISS;
-            return MoveResult.MISS;
-        }
-
-        // 3. Shot hit: Update cell state and notify the ship
-        state = CellState.HIT;
-        ship.get().hit();
-
-        // Check if this hit was the one that destroyed the ship
-        if (ship.get().isSunk()) {
-            return MoveResult.SUNK;
-        }
-
-        return MoveResult.HIT;
+        return grid.fireAt(index);
     }
     
     /**
      * @return true if the cell has been shot at (HIT or MISS).
      */
     public boolean isFired() {
-        return state != CellState.NOTFIRED;
+        return getState() != CellState.NOTFIRED;
     }
     
     /**
      * @return true if the cell has not been targeted yet.
      */
     public boolean isNotFired() {
-    	return this.state == CellState.NOTFIRED;
+    	return getState() == CellState.NOTFIRED;
     }
 
     /**
      * Resets the cell to its initial state (empty and not fired).
      */
     public void reset() {
-        this.state = CellState.NOTFIRED;
-        this.ship = null;
+        grid.resetCell(index);
     }
     
     @Override
     public String toString() {
-        return "Cell(" + coordinates.x + "," + coordinates.y + ") - " + state;
+        return "Cell(" + coordinates.x + "," + coordinates.y + ") - " + getState();
     }
     
     /**
@@ -122,7 +113,7 @@ public class Cell {
      * "X" = Hit
      */
     public String toSymbol() {
-        switch (state) {
+        switch (getState()) {
             case NOTFIRED: return ".";
             case MISS: return "o";
             case HIT: return "X";
@@ -150,6 +141,6 @@ public class Cell {
 
     // method needed for testing
 	public void setState(CellState state) {
-		this.state = state;
+		grid.setCellState(index, state);
 	}
 }
@@ -0,0 +1,56 @@
+package model;
+
+/**
+ * Set of cell indices with constant-time add, remove, membership and access by
+ * position: the members are kept densely in an array, and each cell remembers its
+ * position in it. The order of the members is unspecified.
+ */
+final class CellIndex {
+
+    private final int[] members;
+    private final int[] position;					// Position + 1 in members, 0 if absent
+    private int size;
+
+    CellIndex(int cells) {
+        this.members = new int[cells];
+        this.position = new int[cells];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int n) {
+        if (n < 0 || n >= size) {
+            throw new IndexOutOfBoundsException("No member number " + n);
+        }
+        return members[n];
+    }
+
+    boolean contains(int cell) {
+        return position[cell] != 0;
+    }
+
+    void add(int cell) {
+        if (position[cell] != 0) return;
+        members[size] = cell;
+        position[cell] = ++size;
+    }
+
+    void remove(int cell) {
+        int pos = position[cell] - 1;
+        if (pos < 0) return;
+        // Move the last member into the hole
+        int last = members[--size];
+        members[pos] = last;
+        position[last] = pos + 1;
+        position[cell] = 0;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[members[i]] = 0;
+        }
+        size = 0;
+    }
+}
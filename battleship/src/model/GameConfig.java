@@ -1,57 +1,288 @@
 package model;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * Global game configuration settings, including grid dimensions and ship fleet composition.
+ * Instances are immutable: the default constructor gives the classic 10x10 game,
+ * custom boards and fleets are created with {@link #builder()} or loaded from a file
+ * with {@link #load(Path)}.
  */
 public class GameConfig {
 
-    // Default grid and gameplay constants
-    private static final int WIDTH = 10;
-    private static final int HEIGHT = 10;
-    private static final int NUMBER_OF_SHIPS = 5;
+    // Default grid constants
+    private static final int DEFAULT_WIDTH = 10;
+    private static final int DEFAULT_HEIGHT = 10;
 
+    /**
+     * Longest ship supported: the AI tests placements as runs of bits spanning at most
+     * two 64-bit words (see ai.PlacementTable).
+     */
+    public static final int MAX_SHIP_SIZE = 64;
+
+    /**
+     * Largest board supported, in cells (2048x2048): cell indexes, the per-cell arrays
+     * of the grids and of the AI, and the placement codes of ai.ShipConstraints
+     * (below 2^24 cells) must all stay within an int.
+     */
+    public static final int MAX_CELLS = 1 << 22;
+
+    private final int width;
+    private final int height;
     private final List<ShipConfig> shipTypes;
 
     /**
      * Initializes the standard configuration with a classic battleship fleet.
      */
     public GameConfig() {
-        this.shipTypes = new ArrayList<>();
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT, classicFleet());
+    }
 
-        // Standard fleet composition: Name, Size, and Quantity
-        shipTypes.add(new ShipConfig("Carrier", 5, 1));
-        shipTypes.add(new ShipConfig("Battleship", 4, 1));
-        shipTypes.add(new ShipConfig("Cruiser", 3, 1));
-        shipTypes.add(new ShipConfig("Submarine", 3, 1));
-        shipTypes.add(new ShipConfig("Destroyer", 2, 1));
+    private GameConfig(int width, int height, List<ShipConfig> shipTypes) {
+        this.width = width;
+        this.height = height;
+        this.shipTypes = List.copyOf(shipTypes);
+    }
+
+    /**
+     * Standard fleet composition: Name, Size, and Quantity
+     */
+    private static List<ShipConfig> classicFleet() {
+        List<ShipConfig> fleet = new ArrayList<>();
+        fleet.add(new ShipConfig("Carrier", 5, 1));
+        fleet.add(new ShipConfig("Battleship", 4, 1));
+        fleet.add(new ShipConfig("Cruiser", 3, 1));
+        fleet.add(new ShipConfig("Submarine", 3, 1));
+        fleet.add(new ShipConfig("Destroyer", 2, 1));
+        return fleet;
     }
 
     // --- GETTERS ---
     public int getWidth() {
-        return WIDTH;
+        return width;
     }
 
     public int getHeight() {
-        return HEIGHT;
+        return height;
     }
-    
+
     public int getGridSize() {
-        return WIDTH;
+        return width;
     }
-    
+
+    /**
+     * @return The total number of ships in the fleet (all types, all copies).
+     */
     public int getShips() {
-        return NUMBER_OF_SHIPS;
+        int total = 0;
+        for (ShipConfig sc : shipTypes) {
+            total += sc.getCount();
+        }
+        return total;
     }
 
     /**
-     * Returns a copy of the ship configurations to ensure the internal list 
+     * @return The length of the longest ship in the fleet.
+     */
+    public int getMaxShipSize() {
+        int max = 0;
+        for (ShipConfig sc : shipTypes) {
+            max = Math.max(max, sc.getSize());
+        }
+        return max;
+    }
+
+    /**
+     * Returns a copy of the ship configurations to ensure the internal list
      * remains immutable from outside the class.
      * @return A list of ship types and their properties.
      */
     public List<ShipConfig> getShipTypes() {
-        return new ArrayList<>(shipTypes); 
+        return new ArrayList<>(shipTypes);
+    }
+
+    // --- FACTORIES ---
+
+    /**
+     * @return A builder starting from a 10x10 board and an empty fleet.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Loads a configuration from a properties file. Recognised keys:
+     * <pre>
+     * width=20
+     * height=20
+     * ships=Carrier:5:2, Battleship:4:3, Destroyer:2:10
+     * </pre>
+     * Each fleet entry is {@code name:size:count}. When {@code ships} is missing
+     * the classic fleet is used.
+     * @param file Path of the configuration file.
+     * @return The validated configuration.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if a value is malformed or the fleet does not fit.
+     */
+    public static GameConfig load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        return fromProperties(props);
+    }
+
+    /**
+     * Builds a configuration from already parsed properties (see {@link #load(Path)}).
+     */
+    public static GameConfig fromProperties(Properties props) {
+        Builder builder = builder()
+            .width(parseInt(props, "width", DEFAULT_WIDTH))
+            .height(parseInt(props, "height", DEFAULT_HEIGHT));
+
+        String ships = props.getProperty("ships");
+        if (ships == null || ships.isBlank()) {
+            return builder.classicFleet().build();
+        }
+        for (String entry : ships.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid ship entry (expected name:size:count): " + entry.trim());
+            }
+            try {
+                builder.ship(parts[0].trim(), Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in ship entry: " + entry.trim(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    private static int parseInt(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for '" + key + "': " + value, e);
+        }
+    }
+
+    // --- VALUE SEMANTICS ---
+
+    /**
+     * Two configurations are equal when they describe the same board and fleet,
+     * so that per-configuration data can be cached and shared.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameConfig)) return false;
+        GameConfig that = (GameConfig) o;
+        return width == that.width &&
+               height == that.height &&
+               shipTypes.equals(that.shipTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + shipTypes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "GameConfig(" + width + "x" + height + ", " + shipTypes + ")";
+    }
+
+    /**
+     * Step-by-step construction of a custom configuration.
+     */
+    public static class Builder {
+
+        private int width = DEFAULT_WIDTH;
+        private int height = DEFAULT_HEIGHT;
+        private final List<ShipConfig> ships = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder width(int width) {
+            this.width = width;
+            return this;
+        }
+
+        public Builder height(int height) {
+            this.height = height;
+            return this;
+        }
+
+        /**
+         * Sets a square board.
+         */
+        public Builder size(int size) {
+            return width(size).height(size);
+        }
+
+        /**
+         * Adds a ship type to the fleet.
+         * @throws IllegalArgumentException if the ship parameters are invalid.
+         */
+        public Builder ship(String name, int size, int count) {
+            ships.add(new ShipConfig(name, size, count));
+            return this;
+        }
+
+        /**
+         * Adds the classic five-ship fleet.
+         */
+        public Builder classicFleet() {
+            ships.addAll(GameConfig.classicFleet());
+            return this;
+        }
+
+        /**
+         * Validates and creates the configuration.
+         * @throws IllegalArgumentException if the board is empty or has more than
+         *         {@link #MAX_CELLS} cells, a ship is longer than
+         *         the board or than {@link #MAX_SHIP_SIZE}, or the fleet cannot possibly
+         *         fit with the no-touch rule.
+         * @throws IllegalStateException if no ship was added.
+         */
+        public GameConfig build() {
+            if (width <= 0 || height <= 0) {
+                throw new IllegalArgumentException("Board dimensions must be positive: " + width + "x" + height);
+            }
+            if ((long) width * height > MAX_CELLS) {
+                throw new IllegalArgumentException("Board too large: " + width + "x" + height + " (at most " + MAX_CELLS + " cells)");
+            }
+            if (ships.isEmpty()) {
+                throw new IllegalStateException("The fleet must contain at least one ship");
+            }
+
+            // Each ship plus the water on its right and below covers (size + 1) * 2 cells
+            // of a board one row and one column larger: those areas cannot overlap.
+            long paddedArea = 0;
+            for (ShipConfig sc : ships) {
+                if (sc.getSize() > MAX_SHIP_SIZE) {
+                    throw new IllegalArgumentException(sc.getName() + " is longer than " + MAX_SHIP_SIZE + " cells");
+                }
+                if (sc.getSize() > Math.max(width, height)) {
+                    throw new IllegalArgumentException(sc.getName() + " does not fit on a " + width + "x" + height + " board");
+                }
+                paddedArea += (long) (sc.getSize() + 1) * 2 * sc.getCount();
+            }
+            if (paddedArea > (long) (width + 1) * (height + 1)) {
+                throw new IllegalArgumentException("Fleet too large for a " + width + "x" + height + " board");
+            }
+            return new GameConfig(width, height, ships);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Reproducible random streams for long runs of games.
+ * Every game gets its own generator, derived from a master seed and the game number
+ * alone: a run replays bit for bit whatever the order in which the games are played
+ * and however they are spread over threads, and no generator is ever shared.
+ *
+ * Within a game, the components (placers, reasoners) take their generators from the
+ * game's one with {@code split()}, always in the same order:
+ * <pre>
+ * SplittableRandom game = seeds.forGame(g);
+ * new RandomShipPlacer(config, game.split()).placeAllShips(null, target);
+ * Reasoner ai = new HardReasoner(player, config, game.split());
+ * </pre>
+ */
+public final class GameSeeds {
+
+    /** Odd increment between the seeds of consecutive games (as in SplitMix64) */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long masterSeed;
+
+    /**
+     * @param masterSeed The seed the whole run is derived from.
+     */
+    public GameSeeds(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * @param game Number of the game in the run.
+     * @return The root generator of that game, a new instance at every call.
+     */
+    public SplittableRandom forGame(long game) {
+        return new SplittableRandom(seedOf(game));
+    }
+
+    /**
+     * Same as {@link #forGame(long)} with another algorithm of the JDK, for example
+     * {@code "L64X128MixRandom"}.
+     * @throws IllegalArgumentException if the algorithm is unknown.
+     */
+    public RandomGenerator forGame(long game, String algorithm) {
+        return RandomGeneratorFactory.of(algorithm).create(seedOf(game));
+    }
+
+    /**
+     * The seed of a game: the master seed moved {@code game} steps along the
+     * SplitMix64 sequence and scrambled, so that nearby games get unrelated streams.
+     */
+    private long seedOf(long game) {
+        long z = masterSeed + (game + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+/**
+ * Immutable, thread-safe picture of a game at one point in time: the observable
+ * state of both boards. Successive snapshots share all unchanged data, so they
+ * are cheap to take after every move and can be handed to analysis threads
+ * while the game goes on.
+ */
+public final class GameSnapshot {
+
+    private final BoardSnapshot humanBoard;
+    private final BoardSnapshot aiBoard;
+
+    public GameSnapshot(BoardSnapshot humanBoard, BoardSnapshot aiBoard) {
+        this.humanBoard = humanBoard;
+        this.aiBoard = aiBoard;
+    }
+
+    /**
+     * @return The human player's board, as seen by the AI.
+     */
+    public BoardSnapshot getHumanBoard() {
+        return humanBoard;
+    }
+
+    /**
+     * @return The AI player's board, as seen by the human.
+     */
+    public BoardSnapshot getAiBoard() {
+        return aiBoard;
+    }
+
+    /**
+     * @return The total number of shots fired by both players.
+     */
+    public int getMoveCount() {
+        return humanBoard.getShotCount() + aiBoard.getShotCount();
+    }
+
+    public boolean isGameOver() {
+        return humanBoard.allShipsSunk() || aiBoard.allShipsSunk();
+    }
+}
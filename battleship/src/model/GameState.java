@@ -14,7 +14,8 @@ public class GameState {
     private final Player humanPlayer;
     private final Player aiPlayer;
     private final GameConfig config;
-    
+    private volatile GameSnapshot latestSnapshot;	// Published for readers on other threads
+
     /**
      * Initializes the game state with the participants and settings.
      * @param humanPlayer The user player.
@@ -45,6 +46,16 @@ public class GameState {
         return this.getOpponent(player).getGrid();
     }
     
+    /**
+     * What a player knows of the opponent's board: the input of the reasoners.
+     * It is the opponent grid's own observation, updated at every shot.
+     * @param player The player whose knowledge is wanted.
+     * @return The live observation of the opponent's grid.
+     */
+    public Observation getObservation(Player player) {
+        return this.getEnemyGrid(player).getObservation();
+    }
+    
     /**
      * Executes a move on the battlefield.
      * Delegates the shot logic to the cell within the opponent's grid.
@@ -60,8 +71,20 @@ public class GameState {
         return cell.fire();
     }
     
+    /**
+     * Takes back the last shot the player fired at the opponent's grid.
+     * Together with {@link #gameMove} this gives make/unmake semantics, so a
+     * reasoner can try a hypothetical shot and restore the exact previous state.
+     * @param player The player whose last shot is undone.
+     * @return false if that player has not fired any shot yet.
+     */
+    public boolean undoMove(Player player) {
+        return getEnemyGrid(player).undoLastShot();
+    }
+    
     /**
      * Checks if the game has concluded.
+     * Both checks read the grids' live fleet counters, so this is O(1).
      * @return true if all ships of either the human or the AI have been sunk.
      */
     public boolean isGameOver() {
@@ -75,9 +98,6 @@ public class GameState {
      * @return The winning Player object, or null if the game is still in progress.
      */
     public Player getWinner() {
-        if (!isGameOver()) {
-        	return null;
-        }
         if (humanPlayer.getGrid().allShipsSunk()) {
         	return aiPlayer;
         }
@@ -96,7 +116,41 @@ public class GameState {
     public List<Ship> enemyShipsRemaining(Player player){
         return this.getEnemyGrid(player).shipsRemaining();
     }
+
+    /**
+     * Counts the opponent ships of a given length that are still afloat,
+     * without building any list.
+     * @param player The current player.
+     * @param size The ship length.
+     * @return Number of enemy ships of that length not yet sunk.
+     */
+    public int enemyShipsRemaining(Player player, int size) {
+        return this.getEnemyGrid(player).getAfloatShipCount(size);
+    }
     
+    // --- SNAPSHOTS ---
+
+    /**
+     * Takes an immutable snapshot of both boards and publishes it as the latest one.
+     * Call it from the game thread after each move; it only copies what changed.
+     * @return The new snapshot.
+     */
+    public GameSnapshot snapshot() {
+        GameSnapshot current = new GameSnapshot(
+            humanPlayer.getGrid().snapshot(),
+            aiPlayer.getGrid().snapshot());
+        this.latestSnapshot = current;
+        return current;
+    }
+
+    /**
+     * Returns the most recently published snapshot, or null if none was taken yet.
+     * Safe to call from any thread: the field is volatile and snapshots are immutable.
+     */
+    public GameSnapshot getLatestSnapshot() {
+        return this.latestSnapshot;
+    }
+
     /**
      * Clears both players' grids to prepare for a new match.
      */
@@ -8,31 +8,67 @@ import java.util.Optional;
 
 /**
  * Represents the game board.
- * Responsible for managing the cell matrix, validating ship placement rules 
+ * Responsible for managing the cell matrix, validating ship placement rules
  * (including the 3x3 proximity rule), and processing shots.
+ * The board is stored as row-major bit masks (see {@link BitBoard}) for occupied,
+ * hit, miss and sunk cells, so scans and rule checks work a word at a time;
+ * Cell objects are created lazily as views onto these masks.
+ * What an opponent can know of the board (shots, outcomes, sunk ships, fleet
+ * counters) is kept apart, in the grid's {@link Observation}.
  */
 public class Grid {
-    
+
     private final int width;
     private final int height;
-    private final Cell[][] cells;
+    private final Cell[] cells;						// Lazily created views, indexed row-major
+    private final Ship[] shipAt;					// Ship occupying each cell (null if water)
     private final List<Ship> ships = new ArrayList<>();
-    
+
+    private int remainingSegments;					// Ship cells not yet hit
+
+    private final BitBoard occupied;				// Cells holding a ship segment
+    private final BitBoard blocked;					// Occupied cells plus their 3x3 surroundings
+    private final long[] scratch;
+    private int[] shipCells = new int[8];			// Cells of the ship being sunk or refloated
+
+    // What the opponent observes, kept up to date at every shot; the masks are its own
+    private final Observation observation;
+    private final BitBoard hits;					// Cells in HIT state
+    private final BitBoard misses;					// Cells in MISS state
+    private final BitBoard sunk;					// Cells belonging to a sunk ship
+    private final BitBoard forbidden;				// Sunk cells plus their 3x3 buffer zone
+
+    private BoardSnapshot snapshot;					// Last snapshot handed out (null: rebuild from the masks)
+    private int[] dirty = new int[16];				// Cells changed since that snapshot
+    private int dirtySize;
+
     /**
-     * Initializes the grid with the specified dimensions and populates it with Cell objects.
+     * Initializes the grid with the specified dimensions.
      */
     public Grid(int width, int height) {
         this.width = width;
         this.height = height;
-        this.cells = new Cell[width][height];
+        this.cells = new Cell[width * height];
+        this.shipAt = new Ship[width * height];
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                cells[x][y] = new Cell(new Point(x, y));
-            }
-        }
+        this.occupied = new BitBoard(width, height);
+        this.blocked = new BitBoard(width, height);
+        this.scratch = new long[occupied.wordCount()];
+
+        this.observation = new Observation(width, height);
+        this.hits = observation.hits;
+        this.misses = observation.misses;
+        this.sunk = observation.sunk;
+        this.forbidden = observation.forbidden;
     }
-    
+
+    /**
+     * Initializes a grid sized according to the game configuration.
+     */
+    public Grid(GameConfig config) {
+        this(config.getWidth(), config.getHeight());
+    }
+
     // --- GETTERS ---
 
     public int getWidth() { return this.width; }
@@ -41,58 +77,99 @@ public class Grid {
     public List<Ship> getShips() {
         return List.copyOf(this.ships);
     }
-    
+
     public Cell getCell(int x, int y) {
         if (!isValidCoordinate(x, y)) {
             throw new IndexOutOfBoundsException("Invalid coordinates: " + x + "," + y);
         }
-        return cells[x][y];
-    }
-    
-    // --- VALIDATION & PROXIMITY LOGIC ---
-
-    public boolean isValidCoordinate(int x, int y) {
-        return x >= 0 && x < width && y >= 0 && y < height;
+        int index = y * width + x;
+        Cell cell = cells[index];
+        if (cell == null) {
+            cell = new Cell(this, new Point(x, y));
+            cells[index] = cell;
+        }
+        return cell;
     }
 
     /**
-     * Verifies if a cell and its immediate neighbors are free of ships.
-     * Used primarily during the placement phase.
+     * @return What an opponent knows of this grid. The object is live: it follows
+     *         the grid as shots are fired (see {@link Observation#copy()}).
      */
-    private boolean isAreaClear(int x, int y) {
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                int nx = x + dx;
-                int ny = y + dy;
-                if (isValidCoordinate(nx, ny) && getCell(nx, ny).hasShip()) {
-                    return false;
-                }
-            }
+    public Observation getObservation() {
+        return this.observation;
+    }
+
+    // --- CELL STORAGE (used by Cell views) ---
+
+    CellState getCellState(int index) {
+        return observation.getCellState(index);
+    }
+
+    Ship shipAt(int index) {
+        return shipAt[index];
+    }
+
+    void assignShip(int index, Ship ship) {
+        observation.invalidate();
+        shipAt[index] = ship;
+        occupied.set(index);
+        blocked.setNeighbourhood(index % width, index / width);
+    }
+
+    void setCellState(int index, CellState state) {
+        markDirty(index);
+        observation.invalidate();
+        hits.clear(index);
+        misses.clear(index);
+        if (state == CellState.HIT) hits.set(index);
+        else if (state == CellState.MISS) misses.set(index);
+
+        // A sunk ship cell that is no longer a HIT stops forbidding its neighbours
+        if (state != CellState.HIT && sunk.get(index)) {
+            sunk.clear(index);
+            sunk.dilateInto(forbidden, scratch);
         }
-        return true;
+    }
+
+    void resetCell(int index) {
+        markDirty(index);
+        observation.invalidate();
+        hits.clear(index);
+        misses.clear(index);
+        if (sunk.get(index)) {
+            sunk.clear(index);
+            sunk.dilateInto(forbidden, scratch);
+        }
+        if (shipAt[index] != null) {
+            shipAt[index] = null;
+            occupied.clear(index);
+            // The exclusion zone may be shared with other ships: rebuild it
+            occupied.dilateInto(blocked, scratch);
+        }
+    }
+
+    // --- VALIDATION & PROXIMITY LOGIC ---
+
+    public boolean isValidCoordinate(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
     }
 
     /**
      * NEW: Checks if the 3x3 area around a coordinate contains a sunken ship.
-     * If a sunken ship is found, the current cell cannot contain another ship 
+     * If a sunken ship is found, the current cell cannot contain another ship
      * according to the proximity rules.
+     * The buffer zone is recorded once when a ship sinks, so this is a single bit test.
      * * @return true if NO sunken ships are in the immediate vicinity.
      */
     public boolean isAreaClearOfSunkenShips(int x, int y) {
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                int nx = x + dx;
-                int ny = y + dy;
-                if (isValidCoordinate(nx, ny)) {
-                    Cell cell = getCell(nx, ny);
-                    // If a neighbor is a HIT and the ship it belongs to is SUNK
-                    if (cell.getState() == CellState.HIT && cell.hasShip() && cell.getShip().get().isSunk()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return observation.isAreaClearOfSunkenShips(x, y);
+    }
+
+    /**
+     * @return true if the cell belongs to a ship that has already been sunk.
+     */
+    public boolean isSunkCell(int x, int y) {
+        return observation.isSunkCell(x, y);
     }
 
     /**
@@ -101,9 +178,9 @@ public class Grid {
      * it is not adjacent to a ship that has already been sunk.
      */
     public boolean isPotentialTarget(int x, int y) {
-        return getCellState(x, y) == CellState.NOTFIRED && isAreaClearOfSunkenShips(x, y);
+        return observation.isPotentialTarget(x, y);
     }
-    
+
     // --- SHIP PLACEMENT LOGIC ---
 
     public boolean placeShip(Ship ship, int startX, int startY, boolean horizontal) {
@@ -123,77 +200,414 @@ public class Grid {
 
         ship.setCells(shipCells);
         ships.add(ship);
+
+        int size = ship.getSize();
+        observation.recordShip(size);
+        remainingSegments += size;
         return true;
     }
 
+    /**
+     * A placement is legal when it lies inside the board and none of its cells
+     * falls in the exclusion zone (occupied cells plus their neighbours).
+     * Horizontal ships are a contiguous bit range; vertical ones a strided one.
+     */
     private boolean canPlaceShipAt(Ship ship, int startX, int startY, boolean horizontal) {
-        for (int i = 0; i < ship.getSize(); i++) {
-            int x = horizontal ? startX + i : startX;
-            int y = horizontal ? startY : startY + i;
-
-            if (!isValidCoordinate(x, y) || !isAreaClear(x, y)) {
-                return false;
-            }
+        int size = ship.getSize();
+        int endX = horizontal ? startX + size - 1 : startX;
+        int endY = horizontal ? startY : startY + size - 1;
+        if (!isValidCoordinate(startX, startY) || !isValidCoordinate(endX, endY)) {
+            return false;
         }
-        return true;
+
+        int start = startY * width + startX;
+        return horizontal
+            ? !blocked.anyInRange(start, start + size)
+            : !blocked.anyStrided(start, size, width);
     }
-    
+
     // --- GAMEPLAY ACTIONS ---
 
     public MoveResult fireAt(int x, int y) {
         return getCell(x, y).fire();
     }
 
-    public boolean allShipsSunk() {
-        if (ships.isEmpty()) {
-        	return false;
+    /**
+     * Processes a shot at the given cell index, updating the masks and the ship.
+     */
+    MoveResult fireAt(int index) {
+        // 1. Invalid move: Cell was already targeted
+        if (hits.get(index) || misses.get(index)) {
+            return MoveResult.ALREADY_FIRED;
+        }
+
+        markDirty(index);
+
+        // 2. Shot missed: No ship at these coordinates
+        Ship ship = shipAt[index];
+        observation.recordShot(index, ship != null);
+        if (ship == null) {
+            return MoveResult.MISS;
+        }
+
+        // 3. Shot hit: notify the ship
+        ship.hit();
+        remainingSegments--;
+
+        // Check if this hit was the one that destroyed the ship
+        if (ship.isSunk()) {
+            markSunk(ship);
+            return MoveResult.SUNK;
+        }
+
+        return MoveResult.HIT;
+    }
+
+    /**
+     * Records a freshly sunk ship in the observation (see {@link Observation#recordSunk}).
+     */
+    private void markSunk(Ship ship) {
+        int size = collectShipCells(ship);
+        for (int i = 0; i < size; i++) {
+            markDirty(shipCells[i]);
+        }
+        observation.recordSunk(shipCells, size);
+    }
+
+    /**
+     * Copies the cell indices of a ship into {@link #shipCells}.
+     * @return The number of cells.
+     */
+    private int collectShipCells(Ship ship) {
+        List<Cell> cells = ship.occupiedCells();
+        if (cells.size() > shipCells.length) {
+            shipCells = new int[cells.size()];
+        }
+        for (int i = 0; i < cells.size(); i++) {
+            shipCells[i] = cells.get(i).index();
+        }
+        return cells.size();
+    }
+
+    /**
+     * Takes back the most recent shot, restoring the cell state, the ship's hit
+     * count, its sunk status and the fleet counters. Constant time, except when the
+     * shot had sunk a ship: then the ship's buffer zone is recomputed (O(ship size)).
+     * Lets search-based AIs explore hypothetical shots without copying the board.
+     * @return false if no shot is left to undo.
+     */
+    public boolean undoLastShot() {
+        if (observation.getShotCount() == 0) {
+            return false;
+        }
+        boolean wasHit = hits.get(observation.getShotIndex(observation.getShotCount() - 1));
+        int index = observation.undoShot();
+        markDirty(index);
+
+        Ship ship = shipAt[index];
+        if (!wasHit || ship == null) {
+            return true;
+        }
+        if (ship.isSunk()) {
+            unmarkSunk(ship);
+        }
+        ship.unhit();
+        remainingSegments++;
+        return true;
+    }
+
+    /**
+     * @return The number of shots fired at this grid (the length of the journal).
+     */
+    public int getShotCount() {
+        return observation.getShotCount();
+    }
+
+    /**
+     * @param n Zero-based position in the journal.
+     * @return The coordinates of the n-th shot fired at this grid.
+     */
+    public Point getShot(int n) {
+        return observation.getShot(n);
+    }
+
+    /**
+     * Same as {@link #getShot(int)}, as a row-major cell index (y * width + x).
+     */
+    public int getShotIndex(int n) {
+        return observation.getShotIndex(n);
+    }
+
+    /**
+     * Counts the changes that are not a new shot appended to the journal: undone
+     * shots, resets, ship placements and direct cell edits. While the revision
+     * stays the same, the shots after a known journal position are the only thing
+     * that changed, which lets observers update their analysis incrementally.
+     */
+    public int getRevision() {
+        return observation.getRevision();
+    }
+
+    /**
+     * Inverse of {@link #markSunk} (see {@link Observation#unrecordSunk}).
+     */
+    private void unmarkSunk(Ship ship) {
+        int size = collectShipCells(ship);
+        for (int i = 0; i < size; i++) {
+            markDirty(shipCells[i]);
         }
-        return ships.stream().allMatch(Ship::isSunk);
+        observation.unrecordSunk(shipCells, size);
+    }
+
+    /**
+     * Answered from the live fleet counters, which the SUNK path keeps up to date.
+     */
+    public boolean allShipsSunk() {
+        return !ships.isEmpty() && observation.getAfloatShipCount() == 0;
+    }
+
+    // --- FLEET COUNTERS ---
+
+    /**
+     * @return The number of ships still afloat.
+     */
+    public int getAfloatShipCount() {
+        return observation.getAfloatShipCount();
+    }
+
+    /**
+     * @param size A ship length.
+     * @return The number of ships of that length still afloat.
+     */
+    public int getAfloatShipCount(int size) {
+        return observation.getAfloatShipCount(size);
+    }
+
+    /**
+     * @return The largest ship length tracked by the counters (0 if no ship was ever placed).
+     */
+    public int getMaxShipSize() {
+        return observation.getMaxShipSize();
+    }
+
+    /**
+     * @return The number of ship cells that have not been hit yet.
+     */
+    public int getRemainingSegments() {
+        return this.remainingSegments;
     }
 
     public void reset() {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                cells[x][y].reset();
+        occupied.clear();
+        blocked.clear();
+        Arrays.fill(shipAt, null);
+        ships.clear();
+        remainingSegments = 0;
+        observation.reset();
+        snapshot = null;
+        dirtySize = 0;
+    }
+
+    // --- OBSERVATION MASKS ---
+
+    /**
+     * Read-only views of what an opponent observes (see {@link #getObservation()}).
+     * They are live: they follow the grid as shots are fired.
+     * @return The cells in HIT state (sunk ships included).
+     */
+    public BitBoard getHitMask() {
+        return hits;
+    }
+
+    /**
+     * @return The cells in MISS state.
+     */
+    public BitBoard getMissMask() {
+        return misses;
+    }
+
+    /**
+     * @return The cells of the sunk ships.
+     */
+    public BitBoard getSunkMask() {
+        return sunk;
+    }
+
+    /**
+     * @return The sunk cells plus their buffer zone (see {@link #isAreaClearOfSunkenShips}).
+     */
+    public BitBoard getForbiddenMask() {
+        return forbidden;
+    }
+
+    // --- SNAPSHOTS ---
+
+    /**
+     * Returns an immutable snapshot of what an opponent can observe on this grid.
+     * Only the cells changed since the previous call are copied (plus the trie
+     * nodes on their path), so calling this after every move costs O(changed cells);
+     * if nothing changed the previous snapshot is returned as is.
+     * Must be called from the thread that plays on the grid; the result can then be
+     * shared with and read by any number of threads.
+     */
+    public BoardSnapshot snapshot() {
+        if (snapshot == null) {
+            // First snapshot, after a reset or after too many changes: rebuild from the masks
+            snapshot = BoardSnapshot.empty(width, height);
+            dirtySize = 0;
+            for (int i = 0; i < hits.wordCount(); i++) {
+                long bits = hits.word(i) | misses.word(i);
+                while (bits != 0) {
+                    addDirty((i << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
             }
         }
-        ships.clear();
+        int[] codes = new int[dirtySize];
+        for (int i = 0; i < dirtySize; i++) {
+            codes[i] = observableCode(dirty[i]);
+        }
+        snapshot = snapshot.with(dirty, codes, dirtySize, observation.afloatCounters(), ships.size(),
+                                 observation.getShotCount());
+        dirtySize = 0;
+        return snapshot;
+    }
+
+    private int observableCode(int index) {
+        if (sunk.get(index)) return BoardSnapshot.CODE_SUNK;
+        if (hits.get(index)) return BoardSnapshot.CODE_HIT;
+        if (misses.get(index)) return BoardSnapshot.CODE_MISS;
+        return BoardSnapshot.CODE_UNKNOWN;
+    }
+
+    /**
+     * Remembers a cell whose observable state may have changed. When nobody takes
+     * snapshots (e.g. during a search) the list is capped at the board size and the
+     * next snapshot is rebuilt from scratch instead.
+     */
+    private void markDirty(int index) {
+        if (snapshot == null) {
+            return;
+        }
+        if (dirtySize == width * height) {
+            snapshot = null;
+            dirtySize = 0;
+            return;
+        }
+        addDirty(index);
+    }
+
+    private void addDirty(int index) {
+        if (dirtySize == dirty.length) {
+            dirty = Arrays.copyOf(dirty, dirtySize * 2);
+        }
+        dirty[dirtySize++] = index;
     }
 
     // --- UTILITY METHODS ---
-    
+
     public CellState getCellState(int x, int y) {
-        return this.getCell(x, y).getState();
+        if (!isValidCoordinate(x, y)) {
+            throw new IndexOutOfBoundsException("Invalid coordinates: " + x + "," + y);
+        }
+        return getCellState(y * width + x);
     }
-    
+
     /**
      * Returns all cells that are NOTFIRED.
      */
     public List<Cell> getUntouchedCells(){
-        return Arrays.stream(cells)
-                     .flatMap(Arrays::stream)
-                     .filter(s -> s.getState() == CellState.NOTFIRED)
-                     .toList();
+        List<Cell> result = new ArrayList<>();
+        for (int i = 0; i < hits.wordCount(); i++) {
+            collect(result, i, ~(hits.word(i) | misses.word(i)));
+        }
+        return result;
     }
 
     /**
-     * NEW: Returns only the cells that are actually worth firing at 
+     * NEW: Returns only the cells that are actually worth firing at
      * (ignoring zones around sunken ships).
      */
     public List<Cell> getSmartUntouchedCells() {
-        return Arrays.stream(cells)
-                     .flatMap(Arrays::stream)
-                     .filter(s -> isPotentialTarget(s.getCoordinates().x, s.getCoordinates().y))
-                     .toList();
+        List<Cell> result = new ArrayList<>();
+        for (int i = 0; i < hits.wordCount(); i++) {
+            collect(result, i, potentialTargetWord(i));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the cells worth firing at (see {@link Observation#getPotentialTargetCount()}).
+     */
+    public int getPotentialTargetCount() {
+        return observation.getPotentialTargetCount();
+    }
+
+    /**
+     * Returns the n-th potential target of the live index, in no particular order
+     * (see {@link Observation#getAnyPotentialTarget(int)}).
+     */
+    public Point getAnyPotentialTarget(int n) {
+        return observation.getAnyPotentialTarget(n);
+    }
+
+    public int getAnyPotentialTargetIndex(int n) {
+        return observation.getAnyPotentialTargetIndex(n);
+    }
+
+    /**
+     * @return The number of HIT cells belonging to ships still afloat.
+     */
+    public int getActiveHitCount() {
+        return observation.getActiveHitCount();
+    }
+
+    /**
+     * Finds a hit on a ship still afloat, in constant time.
+     * @return One of those cells (no particular one), or null if there is none.
+     */
+    public Point getAnyActiveHit() {
+        return observation.getAnyActiveHit();
+    }
+
+    public int getAnyActiveHitIndex() {
+        return observation.getAnyActiveHitIndex();
     }
-    
+
+    /**
+     * Returns the n-th potential target in row-major order. Combined with
+     * {@link #getPotentialTargetCount()} this picks a uniformly random target
+     * without building a list of candidates.
+     * @param n Zero-based rank, lower than the potential target count.
+     * @throws IndexOutOfBoundsException if there are not enough potential targets.
+     */
+    public Point getPotentialTarget(int n) {
+        return observation.getPotentialTarget(n);
+    }
+
+    private long potentialTargetWord(int i) {
+        return observation.potentialTargetWord(i);
+    }
+
+    /**
+     * Adds to the list the cells of the set bits of a word, ignoring tail bits.
+     */
+    private void collect(List<Cell> result, int wordIndex, long bits) {
+        int size = width * height;
+        while (bits != 0) {
+            int index = (wordIndex << 6) + Long.numberOfTrailingZeros(bits);
+            if (index >= size) break;
+            result.add(getCell(index % width, index / width));
+            bits &= bits - 1;
+        }
+    }
+
     public List<Ship> shipsRemaining(){
         return this.ships.stream().filter(s -> !s.isSunk()).toList();
     }
-    
+
     public Optional<Ship> getShipAt(int x, int y) {
         // Supponendo che le celle abbiano un riferimento alla nave
-        Optional<Ship> ship = cells[x][y].getShip(); 
-        return ship;
+        return getCell(x, y).getShip();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,591 @@
+package model;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * What a player knows of the enemy board, and nothing more: the cells fired at and
+ * their outcome, the footprints of the sunk ships with their no-touch buffer zone, the
+ * order of the shots and how many ships of each size are still afloat. Where the
+ * unhit ship segments are is not part of it.
+ *
+ * Everything is packed in primitive form: one row-major {@link BitBoard} per kind of
+ * cell, the shot journal as cell indices (y * width + x) and the afloat counters. Each
+ * {@link Grid} owns the observation of itself and updates it at every shot, in the
+ * same constant time as the shot; {@link GameState#getObservation} hands it to the
+ * reasoners, which read nothing else.
+ *
+ * The live observation belongs to the thread playing on the grid. {@link #copy()}
+ * detaches a private copy, which can be kept, hashed or handed to another thread;
+ * two observations are equal when they show the same board and fleet counters,
+ * whatever the order of the shots.
+ *
+ * The observation also carries a Zobrist hash of its content ({@link #getZobristKey}):
+ * the xor of one 64-bit key per observed cell and per afloat counter, updated with a
+ * couple of xors at every shot, so that the same position gets the same key in every
+ * game of the JVM and can be looked up in a shared transposition table.
+ */
+public final class Observation {
+
+    private final int width;
+    private final int height;
+
+    // Masks of the observed cells, written by the grid (see Grid's field comments)
+    final BitBoard hits;
+    final BitBoard misses;
+    final BitBoard sunk;
+    final BitBoard forbidden;
+
+    private final int[] journal;					// Indices of the cells fired at, in order
+    private int journalSize;
+    private int revision;							// Bumped by every change other than a new shot
+
+    private int[] afloatBySize = new int[1];		// Afloat ships indexed by size
+    private int afloatShips;
+
+    // Live indexes for the AIs, built on first use and then kept up to date shot by shot
+    private CellIndex targets;						// Potential targets (see isPotentialTarget)
+    private CellIndex activeHits;					// HIT cells of ships still afloat
+    private boolean indexed;						// false: the indexes must be rebuilt from the masks
+
+    // Zobrist hash of the masks and counters (see cellKey and fleetKey)
+    private static final int KEY_MISS = 1, KEY_HIT = 2, KEY_SUNK = 3;
+    private long zobrist;
+    private boolean hashed = true;					// false: the hash must be recomputed from the masks
+
+    /**
+     * Creates the observation of an untouched board.
+     */
+    Observation(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.hits = new BitBoard(width, height);
+        this.misses = new BitBoard(width, height);
+        this.sunk = new BitBoard(width, height);
+        this.forbidden = new BitBoard(width, height);
+        // Every cell can be fired at only once, so the journal never outgrows the board
+        this.journal = new int[width * height];
+    }
+
+    /**
+     * @return A detached copy, which no longer follows the grid.
+     */
+    public Observation copy() {
+        Observation copy = new Observation(width, height);
+        copy.hits.copyFrom(hits);
+        copy.misses.copyFrom(misses);
+        copy.sunk.copyFrom(sunk);
+        copy.forbidden.copyFrom(forbidden);
+        System.arraycopy(journal, 0, copy.journal, 0, journalSize);
+        copy.journalSize = journalSize;
+        copy.revision = revision;
+        copy.afloatBySize = afloatBySize.clone();
+        copy.afloatShips = afloatShips;
+        copy.zobrist = zobrist;
+        copy.hashed = hashed;
+        return copy;
+    }
+
+    // --- BOARD ---
+
+    public int getWidth() { return this.width; }
+    public int getHeight() { return this.height; }
+
+    public boolean isValidCoordinate(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * @return HIT (sunk ships included), MISS or NOTFIRED.
+     */
+    public CellState getCellState(int x, int y) {
+        return getCellState(checkedIndex(x, y));
+    }
+
+    CellState getCellState(int index) {
+        if (hits.get(index)) return CellState.HIT;
+        if (misses.get(index)) return CellState.MISS;
+        return CellState.NOTFIRED;
+    }
+
+    /**
+     * @return true if the cell belongs to a ship that has already been sunk.
+     */
+    public boolean isSunkCell(int x, int y) {
+        return sunk.get(checkedIndex(x, y));
+    }
+
+    /**
+     * @return true if no sunk ship lies in the 3x3 area around the cell, so that
+     *         it could still hold a ship.
+     */
+    public boolean isAreaClearOfSunkenShips(int x, int y) {
+        return !forbidden.get(checkedIndex(x, y));
+    }
+
+    /**
+     * A cell is a potential target if it has not been fired at and it is not next
+     * to a ship that has already been sunk.
+     */
+    public boolean isPotentialTarget(int x, int y) {
+        int index = checkedIndex(x, y);
+        return !hits.get(index) && !misses.get(index) && !forbidden.get(index);
+    }
+
+    private int checkedIndex(int x, int y) {
+        if (!isValidCoordinate(x, y)) {
+            throw new IndexOutOfBoundsException("Invalid coordinates: " + x + "," + y);
+        }
+        return y * width + x;
+    }
+
+    // --- MASKS ---
+
+    /**
+     * Read-only views for reasoners that process the board a word at a time.
+     * @return The cells in HIT state (sunk ships included).
+     */
+    public BitBoard getHitMask() {
+        return hits;
+    }
+
+    /**
+     * @return The cells in MISS state.
+     */
+    public BitBoard getMissMask() {
+        return misses;
+    }
+
+    /**
+     * @return The cells of the sunk ships.
+     */
+    public BitBoard getSunkMask() {
+        return sunk;
+    }
+
+    /**
+     * @return The sunk cells plus their buffer zone (see {@link #isAreaClearOfSunkenShips}).
+     */
+    public BitBoard getForbiddenMask() {
+        return forbidden;
+    }
+
+    // --- SHOTS ---
+
+    /**
+     * @return The number of shots fired at the board (the length of the journal).
+     */
+    public int getShotCount() {
+        return this.journalSize;
+    }
+
+    /**
+     * @param n Zero-based position in the journal.
+     * @return The coordinates of the n-th shot.
+     */
+    public Point getShot(int n) {
+        int index = getShotIndex(n);
+        return new Point(index % width, index / width);
+    }
+
+    /**
+     * Same as {@link #getShot(int)}, as a row-major cell index.
+     */
+    public int getShotIndex(int n) {
+        if (n < 0 || n >= journalSize) {
+            throw new IndexOutOfBoundsException("No shot number " + n);
+        }
+        return journal[n];
+    }
+
+    /**
+     * Counts the changes that are not a new shot appended to the journal: undone
+     * shots, resets, ship placements and direct cell edits. While the revision
+     * stays the same, the shots after a known journal position are the only thing
+     * that changed, which lets observers update their analysis incrementally.
+     */
+    public int getRevision() {
+        return this.revision;
+    }
+
+    // --- FLEET COUNTERS ---
+
+    /**
+     * @return The number of ships still afloat.
+     */
+    public int getAfloatShipCount() {
+        return this.afloatShips;
+    }
+
+    /**
+     * @param size A ship length.
+     * @return The number of ships of that length still afloat.
+     */
+    public int getAfloatShipCount(int size) {
+        return size > 0 && size < afloatBySize.length ? afloatBySize[size] : 0;
+    }
+
+    /**
+     * @return The largest ship length tracked by the counters (0 if no ship was ever placed).
+     */
+    public int getMaxShipSize() {
+        return afloatBySize.length - 1;
+    }
+
+    /** The afloat counters themselves, indexed by size (not to be modified) */
+    int[] afloatCounters() {
+        return afloatBySize;
+    }
+
+    // --- TARGET INDEXES ---
+
+    /**
+     * Counts the cells worth firing at (see {@link #isPotentialTarget}), in constant
+     * time from the live target index.
+     */
+    public int getPotentialTargetCount() {
+        ensureIndexed();
+        return targets.size();
+    }
+
+    /**
+     * Returns the n-th potential target of the live index, in no particular order.
+     * Combined with {@link #getPotentialTargetCount()} this picks a uniformly random
+     * target in constant time; use {@link #getPotentialTarget(int)} when the order matters.
+     * @param n Zero-based rank, lower than the potential target count.
+     * @throws IndexOutOfBoundsException if there are not enough potential targets.
+     */
+    public Point getAnyPotentialTarget(int n) {
+        int index = getAnyPotentialTargetIndex(n);
+        return new Point(index % width, index / width);
+    }
+
+    /**
+     * Same as {@link #getAnyPotentialTarget(int)}, as a row-major cell index.
+     */
+    public int getAnyPotentialTargetIndex(int n) {
+        ensureIndexed();
+        return targets.get(n);
+    }
+
+    /**
+     * Returns the n-th potential target in row-major order.
+     * @param n Zero-based rank, lower than the potential target count.
+     * @throws IndexOutOfBoundsException if there are not enough potential targets.
+     */
+    public Point getPotentialTarget(int n) {
+        for (int i = 0; i < hits.wordCount(); i++) {
+            long bits = potentialTargetWord(i);
+            int count = Long.bitCount(bits);
+            if (n < count) {
+                for (int k = 0; k < n; k++) {
+                    bits &= bits - 1;
+                }
+                int index = (i << 6) + Long.numberOfTrailingZeros(bits);
+                return new Point(index % width, index / width);
+            }
+            n -= count;
+        }
+        throw new IndexOutOfBoundsException("Not enough potential targets");
+    }
+
+    /**
+     * @return The number of HIT cells belonging to ships still afloat.
+     */
+    public int getActiveHitCount() {
+        ensureIndexed();
+        return activeHits.size();
+    }
+
+    /**
+     * Finds a hit on a ship still afloat, in constant time.
+     * @return One of those cells (no particular one), or null if there is none.
+     */
+    public Point getAnyActiveHit() {
+        int index = getAnyActiveHitIndex();
+        return index < 0 ? null : new Point(index % width, index / width);
+    }
+
+    /**
+     * Same as {@link #getAnyActiveHit()}, as a row-major cell index.
+     * @return The cell index, or -1 if there is no active hit.
+     */
+    public int getAnyActiveHitIndex() {
+        ensureIndexed();
+        return activeHits.size() == 0 ? -1 : activeHits.get(0);
+    }
+
+    /**
+     * The cells of a mask word that are worth firing at, without the unused bits
+     * past the last cell.
+     */
+    long potentialTargetWord(int i) {
+        long bits = ~(hits.word(i) | misses.word(i) | forbidden.word(i));
+        if (i == hits.wordCount() - 1 && ((width * height) & 63) != 0) {
+            bits &= (1L << (width * height)) - 1;
+        }
+        return bits;
+    }
+
+    /**
+     * Builds the live indexes from the masks, the first time they are needed or
+     * after a change that is not a shot (direct cell edits, resets).
+     */
+    private void ensureIndexed() {
+        if (indexed) return;
+        if (targets == null) {
+            targets = new CellIndex(width * height);
+            activeHits = new CellIndex(width * height);
+        }
+        targets.clear();
+        activeHits.clear();
+        for (int i = 0; i < hits.wordCount(); i++) {
+            long bits = potentialTargetWord(i);
+            while (bits != 0) {
+                targets.add((i << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+            bits = hits.word(i) & ~sunk.word(i);
+            while (bits != 0) {
+                activeHits.add((i << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        indexed = true;
+    }
+
+    // --- UPDATES (by the grid) ---
+
+    /**
+     * Records a new shot: a miss, or a hit on a ship that is not sunk yet.
+     */
+    void recordShot(int index, boolean hit) {
+        journal[journalSize++] = index;
+        zobrist ^= cellKey(index, hit ? KEY_HIT : KEY_MISS);
+        if (indexed) targets.remove(index);
+        if (hit) {
+            hits.set(index);
+            if (indexed) activeHits.add(index);
+        } else {
+            misses.set(index);
+        }
+    }
+
+    /**
+     * Records a freshly sunk ship: its cells join the sunk mask and their 3x3
+     * surroundings join the forbidden buffer zone, where no other ship can be.
+     */
+    void recordSunk(int[] cells, int size) {
+        afloatShips--;
+        setAfloat(size, afloatBySize[size] - 1);
+        for (int i = 0; i < size; i++) {
+            int index = cells[i];
+            sunk.set(index);
+            zobrist ^= cellKey(index, KEY_HIT) ^ cellKey(index, KEY_SUNK);
+            forbidden.setNeighbourhood(index % width, index / width);
+            if (indexed) {
+                activeHits.remove(index);
+                removeNeighbourhood(index);
+            }
+        }
+    }
+
+    /**
+     * Takes back the last shot of the journal, a miss or a hit on a ship that is
+     * afloat again (see {@link #unrecordSunk}).
+     * @return The cell of that shot.
+     */
+    int undoShot() {
+        int index = journal[--journalSize];
+        revision++;
+        // A sunk cell leaves the sunk mask right after, in unrecordSunk
+        zobrist ^= cellKey(index, sunk.get(index) ? KEY_SUNK : hits.get(index) ? KEY_HIT : KEY_MISS);
+        misses.clear(index);
+        hits.clear(index);
+        if (indexed) activeHits.remove(index);
+        restoreTarget(index);
+        return index;
+    }
+
+    /**
+     * Inverse of {@link #recordSunk}: the ship is afloat again and its buffer zone
+     * is cleared, except where another sunk ship still forbids it.
+     */
+    void unrecordSunk(int[] cells, int size) {
+        afloatShips++;
+        setAfloat(size, afloatBySize[size] + 1);
+        for (int i = 0; i < size; i++) {
+            sunk.clear(cells[i]);
+            if (hits.get(cells[i])) zobrist ^= cellKey(cells[i], KEY_SUNK) ^ cellKey(cells[i], KEY_HIT);
+            if (indexed && hits.get(cells[i])) activeHits.add(cells[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            int x = cells[i] % width;
+            int y = cells[i] / width;
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    if (!touchesSunk(nx, ny)) {
+                        forbidden.clear(ny * width + nx);
+                        restoreTarget(ny * width + nx);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts a newly placed ship in the fleet counters.
+     */
+    void recordShip(int size) {
+        if (size >= afloatBySize.length) {
+            afloatBySize = Arrays.copyOf(afloatBySize, size + 1);
+        }
+        setAfloat(size, afloatBySize[size] + 1);
+        afloatShips++;
+        revision++;
+    }
+
+    /**
+     * Notes a change that is not a shot (direct cell edit, reset...): the indexes are
+     * rebuilt on next use and incremental observers start over.
+     */
+    void invalidate() {
+        revision++;
+        indexed = false;
+        hashed = false;
+    }
+
+    void reset() {
+        hits.clear();
+        misses.clear();
+        sunk.clear();
+        forbidden.clear();
+        Arrays.fill(afloatBySize, 0);
+        afloatShips = 0;
+        journalSize = 0;
+        invalidate();
+    }
+
+    private void setAfloat(int size, int count) {
+        zobrist ^= fleetKey(size, afloatBySize[size]) ^ fleetKey(size, count);
+        afloatBySize[size] = count;
+    }
+
+    /**
+     * @return true if a sunk cell lies in the 3x3 block centred on (x, y).
+     */
+    private boolean touchesSunk(int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                if (sunk.get(ny * width + nx)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** A cell that joined the forbidden zone is no longer a target */
+    private void removeNeighbourhood(int index) {
+        int x = index % width;
+        int y = index / width;
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                targets.remove(ny * width + nx);
+            }
+        }
+    }
+
+    /** Puts a cell back in the target index if it became a potential target again */
+    private void restoreTarget(int index) {
+        if (indexed && !hits.get(index) && !misses.get(index) && !forbidden.get(index)) {
+            targets.add(index);
+        }
+    }
+
+    // --- ZOBRIST HASH ---
+
+    /**
+     * @return A 64-bit hash of the masks and afloat counters: equal observations have
+     *         equal keys, in every grid and every game of the JVM, and different ones
+     *         collide with probability 2^-64. Updated incrementally at every shot.
+     */
+    public long getZobristKey() {
+        if (!hashed) {
+            zobrist = computeZobristKey();
+            hashed = true;
+        }
+        return zobrist;
+    }
+
+    /** The hash from scratch, after a change that was not a shot */
+    private long computeZobristKey() {
+        long key = 0;
+        for (int i = misses.nextSetBit(0); i >= 0; i = misses.nextSetBit(i + 1)) {
+            key ^= cellKey(i, KEY_MISS);
+        }
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            key ^= cellKey(i, sunk.get(i) ? KEY_SUNK : KEY_HIT);
+        }
+        for (int size = 1; size < afloatBySize.length; size++) {
+            key ^= fleetKey(size, afloatBySize[size]);
+        }
+        return key;
+    }
+
+    /**
+     * The key of a cell in a given state. Instead of a table of random keys, which
+     * would bound the board size, the keys are the SplitMix64 scrambling of the
+     * (cell, state) pair: as well spread, and the same everywhere.
+     */
+    private static long cellKey(int index, int kind) {
+        return mix64(((long) index << 2) | kind);
+    }
+
+    /** The key of an afloat counter; a zero counter adds nothing, as a missing one */
+    private static long fleetKey(int size, int count) {
+        return count == 0 ? 0 : mix64(~(((long) size << 32) | count));
+    }
+
+    private static long mix64(long z) {
+        z *= 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- VALUE SEMANTICS ---
+
+    /**
+     * Two observations are equal when they show the same cells and the same afloat
+     * counters, whatever the order of the shots that led there.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Observation)) return false;
+        Observation that = (Observation) o;
+        return hits.equals(that.hits) && misses.equals(that.misses) && sunk.equals(that.sunk)
+            && afloatShips == that.afloatShips && sameCounters(that);
+    }
+
+    private boolean sameCounters(Observation that) {
+        int sizes = Math.max(afloatBySize.length, that.afloatBySize.length);
+        for (int size = 1; size < sizes; size++) {
+            if (getAfloatShipCount(size) != that.getAfloatShipCount(size)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long key = getZobristKey();
+        return (int) (key ^ (key >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "Observation(" + width + "x" + height + ", " + journalSize + " shots, "
+            + afloatShips + " ships afloat)";
+    }
+}
@@ -59,6 +59,13 @@ public class Ship {
                              .toList();
     }
     
+    /**
+     * Internal, non-copying access to the occupied cells for the owning Grid.
+     */
+    List<Cell> occupiedCells() {
+        return this.positions;
+    }
+    
     // --- PLACEMENT ---
 
     /**
@@ -91,6 +98,15 @@ public class Ship {
         hits++;
     }
 
+    /**
+     * Reverts the last registered hit (used when a shot is taken back).
+     */
+    void unhit() {
+        if (hits > 0) {
+            hits--;
+        }
+    }
+
     /**
      * Determines if the ship has been destroyed.
      * @return true if the number of hits equals the ship's size.
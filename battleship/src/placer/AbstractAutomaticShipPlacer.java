@@ -42,7 +42,7 @@ public abstract class AbstractAutomaticShipPlacer implements AutomaticShipPlacer
      * * @param gameState The current state of the game.
      * @param player The player whose grid will be populated.
      * @return A list of successfully placed Ship objects.
-     * @throws IllegalStateException if a ship cannot be placed after 100 attempts.
+     * @throws IllegalStateException if a ship cannot be placed anywhere on the grid.
      */
     @Override
     public List<Ship> placeAllShips(GameState gameState, Player player) {
@@ -56,19 +56,28 @@ public abstract class AbstractAutomaticShipPlacer implements AutomaticShipPlacer
                 // Create the ship instance based on the current configuration
                 Ship ship = new Ship(sc); 
 
+                int x = 0;
+                int y = 0;
+
                 // Retry loop to handle collisions or out-of-bounds placements
                 while (!placed && attempts < 100) {
-                    int x = getX(gameState, player, ship);
-                    int y = getY(gameState, player, ship);
+                    x = getX(gameState, player, ship);
+                    y = getY(gameState, player, ship);
                     boolean horizontal = isHorizontal(gameState, player, ship);
 
                     placed = placeShip(gameState, player, ship, x, y, horizontal);
                     attempts++;
                 }
 
-                // If placement fails consistently, the grid might be too small or congested
+                // On crowded boards random guesses may keep colliding:
+                // sweep the board from the last guess for the first free slot
                 if (!placed) {
-                    throw new IllegalStateException("Failed to place ship: " + sc.getName() + " after 100 attempts.");
+                    placed = placeBySweep(gameState, player, ship, x, y);
+                }
+
+                // If even the sweep fails, the grid is too small or congested
+                if (!placed) {
+                    throw new IllegalStateException("Failed to place ship: " + sc.getName() + " after 100 attempts and a full board scan.");
                 }
 
                 placedShips.add(ship); 
@@ -78,6 +87,28 @@ public abstract class AbstractAutomaticShipPlacer implements AutomaticShipPlacer
         return placedShips;
     }
 
+    /**
+     * Tries every cell in row-major order, starting from (startX, startY) and wrapping
+     * around, in both orientations. Guarantees a placement whenever one exists.
+     * @return true if the ship was placed.
+     */
+    private boolean placeBySweep(GameState gameState, Player player, Ship ship, int startX, int startY) {
+        int width = player.getGrid().getWidth();
+        int height = player.getGrid().getHeight();
+        int cells = width * height;
+        int start = Math.floorMod(startY * width + startX, cells);
+
+        for (int k = 0; k < cells; k++) {
+            int index = (start + k) % cells;
+            int x = index % width;
+            int y = index / width;
+            if (placeShip(gameState, player, ship, x, y, true) || placeShip(gameState, player, ship, x, y, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // --- Abstract methods to be implemented by concrete strategies (e.g., Random, Clustered) ---
 
     /** @return The chosen X coordinate for the ship. */
@@ -1,6 +1,7 @@
 package placer;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 import model.GameConfig;
 import model.GameState;
 import model.Grid;
@@ -15,14 +16,28 @@ import player.Player;
  */
 public class HardShipPlacer extends AbstractAutomaticShipPlacer {
 
-    private final Random rand = new Random();
+    private final RandomGenerator rand;
 
     /**
      * Initializes the strategic placer.
      * @param config The game configuration.
      */
     public HardShipPlacer(GameConfig config) {
+        this(config, new SplittableRandom());
+    }
+
+    /**
+     * Places the ships with the given generator, for reproducible layouts (see {@link model.GameSeeds}).
+     * @param config The game configuration.
+     * @param rand The generator of every random choice.
+     * @throws IllegalArgumentException if the generator is null.
+     */
+    public HardShipPlacer(GameConfig config, RandomGenerator rand) {
         super(config);
+        if (rand == null) {
+            throw new IllegalArgumentException("The random generator is required");
+        }
+        this.rand = rand;
     }
 
     /**
@@ -1,6 +1,7 @@
 package player;
 
 import java.awt.Point;
+import java.time.Duration;
 import ai.Reasoner;
 import model.GameState;
 import model.Grid;
@@ -22,12 +23,24 @@ public class AIPlayer extends AbstractPlayer {
     }
 
     /**
-     * Delegates the move selection to the assigned Reasoner.
+     * Delegates the move selection to the assigned Reasoner, which only receives
+     * this player's observation of the enemy grid.
      * @param state The current state of the game.
      * @return The next target Point calculated by the AI.
      */
     @Override
     public Point chooseMove(GameState state) {
-        return this.reasoner.get().chooseMove(state); 
+        return this.reasoner.get().chooseMove(state.getObservation(this)); 
+    }
+
+    /**
+     * Delegates the move selection to the assigned Reasoner, within a time budget.
+     * @param state  The current state of the game.
+     * @param budget Time available for this move.
+     * @return The next target Point calculated by the AI.
+     */
+    @Override
+    public Point chooseMove(GameState state, Duration budget) {
+        return this.reasoner.get().chooseMove(state.getObservation(this), budget);
     }
 }
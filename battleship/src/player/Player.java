@@ -1,6 +1,7 @@
 package player;
 
 import java.awt.Point;
+import java.time.Duration;
 import java.util.Optional;
 
 import ai.Reasoner;
@@ -30,6 +31,17 @@ public interface Player {
      * @return The target Point on the opponent's grid, or null if waiting for UI input.
      */
     Point chooseMove(GameState state);
+
+    /**
+     * Determines the next target within a time budget (see Reasoner).
+     * By default the budget is ignored.
+     * @param state  The current state of the game for context.
+     * @param budget Time available for this move.
+     * @return The target Point on the opponent's grid, or null if waiting for UI input.
+     */
+    default Point chooseMove(GameState state, Duration budget) {
+        return chooseMove(state);
+    }
     
     /**
      * Retrieves the reasoning strategy currently assigned to the player.
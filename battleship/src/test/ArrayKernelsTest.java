@@ -0,0 +1,129 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+import java.awt.Point;
+import java.util.Optional;
+import java.util.Random;
+
+class ArrayKernelsTest {
+
+    private final Random random = new Random(7);
+    private final ArrayKernels scalar = ArrayKernels.scalar();
+    // Only there when the tests run with --add-modules jdk.incubator.vector
+    private final Optional<ArrayKernels> vector = ArrayKernels.vector();
+
+    private long[] randomMask(int length, double density) {
+        long[] mask = new long[BitBoard.wordsFor(length)];
+        for (int i = 0; i < length; i++) {
+            if (random.nextDouble() < density) mask[i >>> 6] |= 1L << i;
+        }
+        return mask;
+    }
+
+    private int[] randomValues(int length) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextInt(8) - 2;
+        }
+        return values;
+    }
+
+    @Test
+    void testScalarKernels() {
+        int[] values = {3, 7, 7, 1, 7};
+        long[] mask = {0b10110};				// Cells 1, 2 and 4
+        assertEquals(7, scalar.max(values, mask, 5));
+        assertEquals(3, scalar.count(values, mask, 5, 7));
+        assertEquals(4, scalar.find(values, mask, 5, 7, 2));
+        assertEquals(-1, scalar.find(values, mask, 5, 7, 3));
+        assertEquals(Integer.MIN_VALUE, scalar.max(values, new long[1], 5));
+
+        scalar.clear(values, mask, 5);
+        assertArrayEquals(new int[] {3, 0, 0, 1, 0}, values);
+        scalar.fill(values, 1, 3);
+        assertArrayEquals(new int[] {1, 1, 1, 1, 0}, values);
+
+        double[] y = {1, 2, 3};
+        scalar.accumulate(y, 3, new double[] {1, 1, 1}, 1, 3);
+        assertArrayEquals(new double[] {1, 5, 6}, y);
+    }
+
+    @Test
+    void testVectorKernelsMatchScalarOnes() {
+        if (vector.isEmpty()) return;
+        ArrayKernels simd = vector.get();
+        for (int length : new int[] {1, 15, 64, 100, 129, 1000, 4099}) {
+            for (double density : new double[] {0.0, 0.1, 0.5, 1.0}) {
+                int[] values = randomValues(length);
+                long[] mask = randomMask(length, density);
+                String where = length + " cells, density " + density;
+
+                int max = scalar.max(values, mask, length);
+                assertEquals(max, simd.max(values, mask, length), where);
+                int count = scalar.count(values, mask, length, max);
+                assertEquals(count, simd.count(values, mask, length, max), where);
+                for (int k = 0; k <= count; k++) {
+                    assertEquals(scalar.find(values, mask, length, max, k), simd.find(values, mask, length, max, k), where);
+                }
+
+                int[] a = values.clone();
+                int[] b = values.clone();
+                scalar.clear(a, mask, length);
+                simd.clear(b, mask, length);
+                assertArrayEquals(a, b, where);
+                scalar.fill(a, 5, length - 1);
+                simd.fill(b, 5, length - 1);
+                assertArrayEquals(a, b, where);
+
+                double[] x = new double[length];
+                double[] y1 = new double[length];
+                for (int i = 0; i < length; i++) {
+                    x[i] = random.nextDouble() * 1e6;
+                    y1[i] = random.nextDouble();
+                }
+                double[] y2 = y1.clone();
+                scalar.accumulate(y1, 3.7, x, length / 3, length);
+                simd.accumulate(y2, 3.7, x, length / 3, length);
+                assertArrayEquals(y1, y2, where);		// Bit for bit
+            }
+        }
+    }
+
+    @Test
+    void testReasonersComputeTheSameMapsWithEitherKernels() {
+        if (vector.isEmpty()) return;
+        GameConfig config = new GameConfig();
+        Grid grid = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", grid));
+        AIPlayer ai = new AIPlayer("AI", new Grid(config));
+        Observation board = new GameState(new HumanPlayer("Target", grid), ai, config).getObservation(ai);
+
+        HardReasoner hard = new HardReasoner(ai, config);
+        HardReasoner hardScalar = new HardReasoner(ai, config);
+        hardScalar.setKernels(scalar);
+        ExpertReasoner expert = new ExpertReasoner(ai, config);
+        ExpertReasoner expertScalar = new ExpertReasoner(ai, config);
+        expertScalar.setKernels(scalar);
+
+        while (!grid.allShipsSunk()) {
+            hard.chooseMove(board);
+            hardScalar.chooseMove(board);
+            Point move = expert.chooseMove(board);
+            expertScalar.chooseMove(board);
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(hardScalar.getHeat(x, y), hard.getHeat(x, y));
+                    assertEquals(expertScalar.getProbability(x, y), expert.getProbability(x, y));
+                }
+            }
+            grid.fireAt(move.x, move.y);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Random;
+
+class BatchReasonerTest {
+
+    private final GameConfig config = new GameConfig();
+    private final Random random = new Random(42);
+
+    /**
+     * A placed fleet with some random shots already fired at it.
+     */
+    private Grid board(int shots) {
+        Grid grid = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", grid));
+        for (int i = 0; i < shots && !grid.allShipsSunk(); i++) {
+            Point p = grid.getAnyPotentialTarget(random.nextInt(grid.getPotentialTargetCount()));
+            grid.fireAt(p.x, p.y);
+        }
+        return grid;
+    }
+
+    private Grid[] boards() {
+        int[] shots = {0, 3, 10, 20, 30, 45, 60, 75};
+        Grid[] boards = new Grid[shots.length];
+        for (int i = 0; i < shots.length; i++) {
+            boards[i] = board(shots[i]);
+        }
+        return boards;
+    }
+
+    private Observation[] observations(Grid[] boards) {
+        return Arrays.stream(boards).map(Grid::getObservation).toArray(Observation[]::new);
+    }
+
+    @Test
+    void testHeatMatchesHardReasoner() {
+        Grid[] boards = boards();
+        BatchReasoner batch = new BatchReasoner(config);
+        Point[] moves = batch.chooseMoves(observations(boards));
+
+        for (int b = 0; b < boards.length; b++) {
+            AIPlayer ai = new AIPlayer("AI", new Grid(config));
+            HardReasoner hard = new HardReasoner(ai, config);
+            hard.chooseMove(boards[b].getObservation());
+
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(hard.getHeat(x, y), batch.getScore(b, x, y), "Board " + b + ", cell " + x + "," + y);
+                }
+            }
+            Point move = moves[b];
+            assertTrue(boards[b].isPotentialTarget(move.x, move.y));
+            ShipConstraints known = new ShipConstraints();
+            known.update(boards[b].getObservation());
+            assertFalse(known.isCertainlyWater(move.x, move.y), "Board " + b + ": fired at certain water");
+            if (batch.getScore(b, move.x, move.y) <= 1) {
+                assertEquals(0, (move.x + move.y) % 2, "Hunt moves follow the checkerboard while it lasts");
+            }
+        }
+    }
+
+    @Test
+    void testBatchPlaysWholeGames() {
+        BatchReasoner batch = new BatchReasoner(config);
+        Grid[] boards = {board(0), board(0), board(0)};
+        for (int moves = 1; ; moves++) {
+            // Finished games leave the batch, as in a tournament
+            Grid[] playing = Arrays.stream(boards).filter(g -> !g.allShipsSunk()).toArray(Grid[]::new);
+            if (playing.length == 0) break;
+            assertTrue(moves <= 100, "Games should finish within the board");
+            Point[] shots = batch.chooseMoves(observations(playing));
+            for (int b = 0; b < playing.length; b++) {
+                assertTrue(playing[b].isPotentialTarget(shots[b].x, shots[b].y), "Fired at a useless cell");
+                // The engine the batch keeps for the board agrees with a fresh one
+                ShipConstraints known = new ShipConstraints();
+                known.update(playing[b].getObservation());
+                assertFalse(known.isCertainlyWater(shots[b].x, shots[b].y), "Fired at certain water");
+                playing[b].fireAt(shots[b].x, shots[b].y);
+            }
+        }
+    }
+
+    @Test
+    void testBoardsMustMatchTheConfiguration() {
+        BatchReasoner batch = new BatchReasoner(config);
+        assertThrows(IllegalArgumentException.class, () -> batch.chooseMoves());
+        assertThrows(IllegalArgumentException.class, () -> batch.chooseMoves(board(0).getObservation(), new Grid(8, 8).getObservation()));
+    }
+}
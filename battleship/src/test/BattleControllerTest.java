@@ -77,6 +77,31 @@ class BattleControllerTest {
         
     }
     
+    @Test
+    void testAbandonedAiTurnIsNotApplied() throws Exception {
+        model.getAiPlayer().setReasoner(state -> new Point(0, 0));
+
+        // Start a CPU turn, then leave the game while the CPU is still "thinking"
+        invoke("startAiTurn");
+        invoke("returnToMenu");
+        Thread.sleep(1500);
+        javax.swing.SwingUtilities.invokeAndWait(() -> {});
+
+        assertEquals(0, model.getHumanPlayer().getGrid().getShotCount(), "La mossa della CPU non deve essere applicata.");
+    }
+
+    private void invoke(String name) throws Exception {
+        java.lang.reflect.Method method = controller.getClass().getDeclaredMethod(name);
+        method.setAccessible(true);
+        javax.swing.SwingUtilities.invokeAndWait(() -> {
+            try {
+                method.invoke(controller);
+            } catch (ReflectiveOperationException e) {
+                fail("Errore nell'invocazione di " + name + ": " + e.getMessage());
+            }
+        });
+    }
+
     private void simulatePlacement(int x, int y) {
         try {
             // Look for the "handlePlacementClick" method in BattleController
@@ -93,4 +93,276 @@ class BattleshipModelTest {
         assertTrue(grid.allShipsSunk(), "Grid should report all ships sunk");
         assertTrue(state.isGameOver(), "Grid Shoul report gameOver");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSmartUntouchedCellsMatchPotentialTargets() {
+        // Odd width so that rows straddle word boundaries in the bit masks
+        Grid wide = new Grid(13, 11);
+        Ship ship1 = new Ship(smallShipConfig);
+        Ship ship2 = new Ship(largeShipConfig);
+        wide.placeShip(ship1, 12, 4, false);   // Last column, vertical
+        wide.placeShip(ship2, 0, 5, true);     // First column, horizontal
+
+        wide.fireAt(12, 4);
+        wide.fireAt(12, 5);
+        for (int x = 0; x < 5; x++) {
+            wide.fireAt(x, 5);
+        }
+        wide.fireAt(7, 7);
+
+        java.util.Set<Point> smart = new java.util.HashSet<>();
+        for (Cell c : wide.getSmartUntouchedCells()) {
+            smart.add(c.getCoordinates());
+        }
+        for (int y = 0; y < 11; y++) {
+            for (int x = 0; x < 13; x++) {
+                assertEquals(wide.isPotentialTarget(x, y), smart.contains(new Point(x, y)),
+                    "Smart cell mismatch at " + x + "," + y);
+            }
+        }
+        // Buffer cells of the sunken ships must not wrap to the opposite edge
+        assertFalse(smart.contains(new Point(0, 4)), "(0,4) touches the sunken carrier");
+        assertTrue(smart.contains(new Point(0, 3)), "(0,3) is two rows away from any sunken ship");
+        assertTrue(smart.contains(new Point(0, 7)), "(0,7) is two rows away from any sunken ship");
+    }
+
+    @Test
+    void testSunkShipForbidsItsBufferZone() {
+        Ship ship = new Ship(smallShipConfig);
+        grid.placeShip(ship, 4, 4, true); // Occupies (4,4) and (5,4)
+
+        grid.fireAt(4, 4);
+        assertTrue(grid.isAreaClearOfSunkenShips(3, 3), "A damaged ship does not forbid its neighbours yet");
+
+        grid.fireAt(5, 4);
+        for (int x = 3; x <= 6; x++) {
+            for (int y = 3; y <= 5; y++) {
+                assertFalse(grid.isAreaClearOfSunkenShips(x, y), "Buffer cell " + x + "," + y + " should be forbidden");
+            }
+        }
+        assertTrue(grid.isPotentialTarget(7, 4), "Cells two steps away remain valid targets");
+        assertTrue(grid.isPotentialTarget(4, 2), "Cells two steps away remain valid targets");
+    }
+
+    @Test
+    void testFleetCountersFollowSinking() {
+        grid.placeShip(new Ship(smallShipConfig), 0, 0, true);
+        grid.placeShip(new Ship(smallShipConfig), 0, 2, true);
+        grid.placeShip(new Ship(largeShipConfig), 0, 4, true);
+
+        assertEquals(3, grid.getAfloatShipCount());
+        assertEquals(2, grid.getAfloatShipCount(2));
+        assertEquals(9, grid.getRemainingSegments());
+
+        grid.fireAt(0, 0);
+        assertEquals(8, grid.getRemainingSegments());
+        assertEquals(2, grid.getAfloatShipCount(2), "A damaged ship is still afloat");
+
+        grid.fireAt(1, 0);
+        assertEquals(1, grid.getAfloatShipCount(2));
+        assertEquals(2, grid.getAfloatShipCount());
+        assertFalse(grid.allShipsSunk());
+
+        grid.reset();
+        assertEquals(0, grid.getAfloatShipCount());
+        assertEquals(0, grid.getRemainingSegments());
+    }
+
+    @Test
+    void testObservationOnlyShowsWhatWasFired() {
+        grid.placeShip(new Ship(smallShipConfig), 0, 0, true);  // (0,0) and (1,0)
+        grid.placeShip(new Ship(largeShipConfig), 0, 5, true);
+        Observation live = grid.getObservation();
+        Observation before = live.copy();
+
+        grid.fireAt(0, 0);
+        grid.fireAt(1, 0);                   // Patrol boat sunk
+        grid.fireAt(3, 5);                   // Hit on the carrier
+        grid.fireAt(9, 9);                   // Miss
+        assertEquals(4, live.getShotCount());
+        assertTrue(live.isSunkCell(1, 0));
+        assertEquals(CellState.HIT, live.getCellState(3, 5));
+        assertEquals(CellState.NOTFIRED, live.getCellState(4, 5), "Unhit ship cells are not observed");
+        assertEquals(1, live.getAfloatShipCount(5));
+        assertEquals(0, live.getAfloatShipCount(2));
+        assertEquals(0, before.getShotCount(), "A copy does not follow the grid");
+
+        // The same shots in another order give an equal observation
+        Grid other = new Grid(10, 10);
+        other.placeShip(new Ship(largeShipConfig), 0, 5, true);
+        other.placeShip(new Ship(smallShipConfig), 0, 0, true);
+        other.fireAt(9, 9);
+        other.fireAt(3, 5);
+        other.fireAt(1, 0);
+        other.fireAt(0, 0);
+        assertEquals(live.copy(), other.getObservation());
+        assertEquals(live.hashCode(), other.getObservation().hashCode());
+        assertEquals(live.getZobristKey(), other.getObservation().getZobristKey());
+        assertNotEquals(before.getZobristKey(), live.getZobristKey());
+
+        // Undone shots take the observation back
+        while (grid.undoLastShot()) { }
+        assertEquals(before, live);
+        assertEquals(before.getZobristKey(), live.getZobristKey());
+        assertEquals(1, live.getAfloatShipCount(2));
+    }
+
+    @Test
+    void testZobristKeyMatchesDirectEdits() {
+        // The key updated shot by shot equals the one recomputed after direct cell edits
+        grid.placeShip(new Ship(largeShipConfig), 0, 5, true);
+        Grid edited = new Grid(10, 10);
+        edited.placeShip(new Ship(largeShipConfig), 0, 5, true);
+
+        grid.fireAt(2, 2);
+        grid.fireAt(1, 5);
+        edited.getCell(2, 2).setState(CellState.MISS);
+        edited.getCell(1, 5).setState(CellState.HIT);
+        assertEquals(edited.getObservation().getZobristKey(), grid.getObservation().getZobristKey());
+
+        grid.fireAt(3, 3);
+        assertNotEquals(edited.getObservation().getZobristKey(), grid.getObservation().getZobristKey());
+    }
+
+    @Test
+    void testUndoRestoresSunkShipAndSharedBuffer() {
+        Ship left = new Ship(smallShipConfig);
+        Ship right = new Ship(smallShipConfig);
+        grid.placeShip(left, 0, 0, false);   // (0,0) and (0,1)
+        grid.placeShip(right, 2, 0, false);  // (2,0) and (2,1): buffers overlap on column 1
+
+        grid.fireAt(0, 0);
+        grid.fireAt(0, 1);                   // Left ship sunk
+        grid.fireAt(5, 5);                   // Miss
+        grid.fireAt(2, 0);
+        assertEquals(MoveResult.SUNK, grid.fireAt(2, 1));
+        assertTrue(grid.allShipsSunk());
+
+        // Undo the sinking shot: the right ship floats again, the shared column stays forbidden
+        assertTrue(grid.undoLastShot());
+        assertFalse(right.isSunk());
+        assertEquals(1, right.getHits());
+        assertEquals(CellState.NOTFIRED, grid.getCellState(2, 1));
+        assertFalse(grid.allShipsSunk());
+        assertEquals(1, grid.getAfloatShipCount(2));
+        assertFalse(grid.isAreaClearOfSunkenShips(1, 1), "Still next to the sunken left ship");
+        assertTrue(grid.isAreaClearOfSunkenShips(3, 1), "No longer next to a sunken ship");
+
+        // Undo everything: the board is back to its initial state
+        while (grid.undoLastShot()) { }
+        assertEquals(0, grid.getShotCount());
+        assertEquals(0, left.getHits());
+        assertEquals(4, grid.getRemainingSegments());
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                assertTrue(grid.isPotentialTarget(x, y), "Cell " + x + "," + y + " should be untouched again");
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotsAreImmutableAndShareUnchangedState() {
+        Ship ship = new Ship(smallShipConfig);
+        grid.placeShip(ship, 3, 3, true);    // (3,3) and (4,3)
+
+        BoardSnapshot before = grid.snapshot();
+        assertSame(before, grid.snapshot(), "Nothing changed: the same snapshot is reused");
+
+        grid.fireAt(0, 0);
+        grid.fireAt(3, 3);
+        assertEquals(MoveResult.SUNK, grid.fireAt(4, 3));
+        BoardSnapshot after = grid.snapshot();
+
+        // The old snapshot still shows the untouched board
+        assertEquals(CellState.NOTFIRED, before.getCellState(0, 0));
+        assertEquals(1, before.getAfloatShipCount(2));
+        assertEquals(0, before.getShotCount());
+
+        assertEquals(CellState.MISS, after.getCellState(0, 0));
+        assertEquals(CellState.HIT, after.getCellState(3, 3));
+        assertTrue(after.isSunkCell(4, 3));
+        assertFalse(after.isPotentialTarget(5, 4), "Buffer zone of the sunk ship");
+        assertTrue(after.isPotentialTarget(6, 4));
+        assertEquals(0, after.getAfloatShipCount());
+        assertTrue(after.allShipsSunk());
+        assertEquals(3, after.getShotCount());
+
+        // Undo and reset are reflected in the next snapshot only
+        grid.undoLastShot();
+        BoardSnapshot undone = grid.snapshot();
+        assertEquals(CellState.NOTFIRED, undone.getCellState(4, 3));
+        assertFalse(undone.isSunkCell(3, 3));
+        assertTrue(after.isSunkCell(3, 3));
+
+        grid.reset();
+        assertEquals(CellState.NOTFIRED, grid.snapshot().getCellState(0, 0));
+        assertEquals(CellState.MISS, undone.getCellState(0, 0));
+    }
+
+    @Test
+    void testSnapshotOfLargeBoardMatchesGrid() {
+        Grid large = new Grid(300, 200);
+        Ship ship = new Ship(largeShipConfig);
+        large.placeShip(ship, 250, 150, false);
+        large.snapshot();
+
+        java.util.Random rnd = new java.util.Random(7);
+        for (int i = 0; i < 2000; i++) {
+            large.fireAt(rnd.nextInt(300), rnd.nextInt(200));
+        }
+        for (int y = 150; y < 155; y++) {
+            large.fireAt(250, y);
+        }
+        BoardSnapshot snap = large.snapshot();
+        for (int y = 0; y < 200; y++) {
+            for (int x = 0; x < 300; x++) {
+                assertEquals(large.getCellState(x, y), snap.getCellState(x, y));
+                assertEquals(large.isPotentialTarget(x, y), snap.isPotentialTarget(x, y));
+            }
+        }
+    }
+
+    @Test
+    void testLiveIndexesFollowShotsSinksAndUndo() {
+        GameConfig config = new GameConfig();
+        Grid board = new Grid(config);
+        new placer.RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", board));
+        assertEquals(100, board.getPotentialTargetCount());
+        assertNull(board.getAnyActiveHit());
+
+        java.util.Random rnd = new java.util.Random(11);
+        for (int step = 0; step < 400; step++) {
+            if (rnd.nextInt(4) == 0) {
+                board.undoLastShot();
+            } else {
+                board.fireAt(rnd.nextInt(10), rnd.nextInt(10));
+            }
+            assertIndexesMatch(board);
+        }
+        board.reset();
+        assertIndexesMatch(board);
+    }
+
+    /**
+     * Compares the live indexes with a scan of the board.
+     */
+    private void assertIndexesMatch(Grid board) {
+        java.util.Set<Point> targets = new java.util.HashSet<>();
+        java.util.Set<Point> activeHits = new java.util.HashSet<>();
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                if (board.isPotentialTarget(x, y)) targets.add(new Point(x, y));
+                if (board.getCellState(x, y) == CellState.HIT && !board.isSunkCell(x, y)) activeHits.add(new Point(x, y));
+            }
+        }
+        java.util.Set<Point> indexed = new java.util.HashSet<>();
+        for (int n = 0; n < board.getPotentialTargetCount(); n++) {
+            indexed.add(board.getAnyPotentialTarget(n));
+        }
+        assertEquals(targets, indexed);
+        assertEquals(activeHits.size(), board.getActiveHitCount());
+        Point any = board.getAnyActiveHit();
+        assertEquals(activeHits.isEmpty(), any == null);
+        if (any != null) assertTrue(activeHits.contains(any));
+    }
+}
@@ -0,0 +1,219 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.ExactReasoner;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+import java.awt.Point;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+class ExactReasonerTest {
+
+    private GameState gameAgainst(Grid target, AIPlayer ai, GameConfig config) {
+        return new GameState(new HumanPlayer("Target", target), ai, config);
+    }
+
+    @Test
+    void testCountsMatchBruteForceEnumeration() {
+        GameConfig config = GameConfig.builder().width(7).height(6)
+                .ship("Cruiser", 3, 1).ship("Destroyer", 2, 2).ship("Submarine", 1, 1).build();
+        Grid target = new Grid(config);
+        target.placeShip(new Ship(config.getShipTypes().get(0)), 1, 1, true);    // (1..3, 1)
+        target.placeShip(new Ship(config.getShipTypes().get(1)), 5, 0, false);   // (5, 0..1)
+        target.placeShip(new Ship(config.getShipTypes().get(1)), 0, 4, true);    // (0..1, 4)
+        target.placeShip(new Ship(config.getShipTypes().get(2)), 4, 4, true);    // (4, 4)
+        target.fireAt(2, 1);        // Hit on the cruiser
+        target.fireAt(4, 4);        // Submarine sunk
+        target.fireAt(6, 3);        // Miss
+        target.fireAt(0, 0);        // Miss
+
+        AIPlayer ai = new AIPlayer("AI", new Grid(7, 6));
+        ExactReasoner reasoner = new ExactReasoner(ai, config);
+        GameState state = gameAgainst(target, ai, config);
+        Point move = reasoner.chooseMove(state.getObservation(ai));
+
+        long[] expected = new long[7 * 6];
+        long total = enumerate(target, state, ai, expected);
+        assertTrue(reasoner.isLastMoveExact());
+        assertEquals(total, reasoner.getArrangementCount());
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 7; x++) {
+                assertEquals(expected[y * 7 + x], reasoner.getOccupancyCount(x, y), "Cell " + x + "," + y);
+            }
+        }
+        assertTrue(target.isPotentialTarget(move.x, move.y));
+        assertEquals(CellState.NOTFIRED, target.getCellState(move.x, move.y));
+    }
+
+    @Test
+    void testCountsMatchWithAOneCellShipAfloat() {
+        // Scenario: the submarine is still afloat, so a cell can also be a whole ship:
+        // up to four successors per state (water, submarine, horizontal or vertical run)
+        GameConfig config = GameConfig.builder().width(7).height(6)
+                .ship("Cruiser", 3, 1).ship("Destroyer", 2, 1).ship("Submarine", 1, 1).build();
+        Grid target = new Grid(config);
+        target.placeShip(new Ship(config.getShipTypes().get(0)), 1, 1, true);    // (1..3, 1)
+        target.placeShip(new Ship(config.getShipTypes().get(1)), 5, 0, false);   // (5, 0..1)
+        target.placeShip(new Ship(config.getShipTypes().get(2)), 4, 4, true);    // (4, 4)
+        AIPlayer ai = new AIPlayer("AI", new Grid(7, 6));
+        GameState state = gameAgainst(target, ai, config);
+
+        for (int round = 0; round < 2; round++) {
+            ExactReasoner reasoner = new ExactReasoner(ai, config);
+            Point move = round == 0 ? reasoner.chooseMove(state.getObservation(ai))
+                                    : reasoner.chooseMove(state.getObservation(ai), Duration.ofSeconds(30));
+            long[] expected = new long[7 * 6];
+            long total = enumerate(target, state, ai, expected);
+            assertTrue(reasoner.isLastMoveExact());
+            assertEquals(total, reasoner.getArrangementCount(), "Round " + round);
+            for (int y = 0; y < 6; y++) {
+                for (int x = 0; x < 7; x++) {
+                    assertEquals(expected[y * 7 + x], reasoner.getOccupancyCount(x, y), "Cell " + x + "," + y);
+                }
+            }
+            assertTrue(target.isPotentialTarget(move.x, move.y));
+            target.fireAt(2, 1);    // Hit on the cruiser, then counted again
+        }
+    }
+
+    @Test
+    void testUntouchedBoardIsSymmetric() {
+        GameConfig config = GameConfig.builder().size(6).ship("Cruiser", 3, 1).ship("Destroyer", 2, 2).build();
+        Grid target = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", target));
+        AIPlayer ai = new AIPlayer("AI", new Grid(6, 6));
+        ExactReasoner reasoner = new ExactReasoner(ai, config);
+        reasoner.chooseMove(target.getObservation());
+
+        assertTrue(reasoner.isLastMoveExact());
+        assertTrue(reasoner.getArrangementCount() > 0);
+        long cells = 0;
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 6; x++) {
+                long count = reasoner.getOccupancyCount(x, y);
+                assertEquals(count, reasoner.getOccupancyCount(5 - x, y));
+                assertEquals(count, reasoner.getOccupancyCount(x, 5 - y));
+                assertEquals(count, reasoner.getOccupancyCount(y, x));
+                cells += count;
+            }
+        }
+        assertEquals(7 * reasoner.getArrangementCount(), cells, "Every arrangement covers 7 cells");
+    }
+
+    @Test
+    void testShortBudgetFallsBackToTheDensityMap() {
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", target));
+        AIPlayer ai = new AIPlayer("AI", new Grid(10, 10));
+        ai.setReasoner(new ExactReasoner(ai, config));
+        ExactReasoner reasoner = (ExactReasoner) ai.getReasoner().orElseThrow();
+
+        Point move = ai.chooseMove(gameAgainst(target, ai, config), Duration.ofNanos(1));
+        assertFalse(reasoner.isLastMoveExact());
+        assertTrue(target.isPotentialTarget(move.x, move.y));
+    }
+
+    @Test
+    void testPlaysAWholeGame() {
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", target));
+        AIPlayer ai = new AIPlayer("AI", new Grid(10, 10));
+        ai.setReasoner(new ExactReasoner(ai, config));
+        GameState state = gameAgainst(target, ai, config);
+
+        int moves = 0;
+        while (!target.allShipsSunk()) {
+            Point move = ai.chooseMove(state);
+            assertTrue(target.isPotentialTarget(move.x, move.y), "Move on a useless cell: " + move);
+            state.gameMove(ai, move);
+            moves++;
+        }
+        assertTrue(moves <= 100);
+    }
+
+    // --- REFERENCE ---
+
+    /**
+     * Counts the consistent layouts by trying every combination of placements.
+     * @return The number of layouts; {@code occupied} receives the per-cell counts.
+     */
+    private long enumerate(Grid grid, GameState state, Player ai, long[] occupied) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        List<Integer> fleet = new ArrayList<>();
+        for (int size = grid.getMaxShipSize(); size >= 1; size--) {
+            for (int i = state.enemyShipsRemaining(ai, size); i > 0; i--) fleet.add(size);
+        }
+        List<int[]> placements = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                placements.add(new int[] {x, y, 1, 0});
+                placements.add(new int[] {x, y, 0, 1});
+            }
+        }
+        return place(grid, fleet, 0, 0, placements, new int[width * height], occupied);
+    }
+
+    private long place(Grid grid, List<Integer> fleet, int ship, int from, List<int[]> placements,
+                       int[] board, long[] occupied) {
+        int width = grid.getWidth();
+        if (ship == fleet.size()) {
+            for (int c = 0; c < board.length; c++) {
+                int x = c % width;
+                int y = c / width;
+                if (grid.getCellState(x, y) == CellState.HIT && !grid.isSunkCell(x, y) && board[c] == 0) return 0;
+            }
+            for (int c = 0; c < board.length; c++) {
+                if (board[c] != 0) occupied[c]++;
+            }
+            return 1;
+        }
+        int size = fleet.get(ship);
+        long total = 0;
+        // Ships of the same size are interchangeable: take their placements in increasing order
+        int first = ship > 0 && fleet.get(ship - 1) == size ? from : 0;
+        for (int p = first; p < placements.size(); p++) {
+            int[] placement = placements.get(p);
+            if (size == 1 && placement[3] == 1) continue;
+            if (!fits(grid, board, placement, size)) continue;
+            mark(board, width, placement, size, ship + 1);
+            total += place(grid, fleet, ship + 1, p + 1, placements, board, occupied);
+            mark(board, width, placement, size, 0);
+        }
+        return total;
+    }
+
+    private boolean fits(Grid grid, int[] board, int[] placement, int size) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        boolean allHit = true;
+        for (int i = 0; i < size; i++) {
+            int x = placement[0] + i * placement[2];
+            int y = placement[1] + i * placement[3];
+            if (x >= width || y >= height) return false;
+            CellState state = grid.getCellState(x, y);
+            if (state == CellState.MISS || !grid.isAreaClearOfSunkenShips(x, y)) return false;
+            allHit &= state == CellState.HIT;
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    if (board[ny * width + nx] != 0) return false;
+                }
+            }
+        }
+        return !allHit;
+    }
+
+    private void mark(int[] board, int width, int[] placement, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            board[(placement[1] + i * placement[3]) * width + placement[0] + i * placement[2]] = value;
+        }
+    }
+}
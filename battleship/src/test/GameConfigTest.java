@@ -0,0 +1,70 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class GameConfigTest {
+
+    @Test
+    void testDefaultIsClassicGame() {
+        GameConfig config = new GameConfig();
+        assertEquals(10, config.getWidth());
+        assertEquals(10, config.getHeight());
+        assertEquals(5, config.getShips());
+        assertEquals(5, config.getMaxShipSize());
+    }
+
+    @Test
+    void testBuilderCustomBoard() {
+        GameConfig config = GameConfig.builder()
+            .width(40).height(25)
+            .ship("Corazzata", 6, 3)
+            .ship("Motovedetta", 2, 10)
+            .build();
+
+        assertEquals(40, config.getWidth());
+        assertEquals(25, config.getHeight());
+        assertEquals(13, config.getShips());
+        assertEquals(6, config.getMaxShipSize());
+
+        Grid grid = new Grid(config);
+        assertEquals(40, grid.getWidth());
+        assertEquals(25, grid.getHeight());
+    }
+
+    @Test
+    void testBuilderRejectsFleetThatCannotFit() {
+        assertThrows(IllegalArgumentException.class, () ->
+            GameConfig.builder().size(5).ship("Troppo lunga", 6, 1).build());
+        assertThrows(IllegalArgumentException.class, () ->
+            GameConfig.builder().size(10).ship("Destroyer", 2, 30).build());
+        assertThrows(IllegalStateException.class, () -> GameConfig.builder().size(10).build());
+        assertThrows(IllegalArgumentException.class, () ->
+            GameConfig.builder().size(100).ship("Troppo lunga", GameConfig.MAX_SHIP_SIZE + 1, 1).build());
+        // Too many cells, including sizes whose product overflows an int
+        assertThrows(IllegalArgumentException.class, () ->
+            GameConfig.builder().width(2048).height(2049).classicFleet().build());
+        assertThrows(IllegalArgumentException.class, () ->
+            GameConfig.builder().size(70000).classicFleet().build());
+        assertEquals(GameConfig.MAX_CELLS, GameConfig.builder().size(2048).classicFleet().build().getWidth() * 2048);
+    }
+
+    @Test
+    void testLoadFromFile() throws Exception {
+        Path file = Files.createTempFile("battleship", ".properties");
+        try {
+            Files.writeString(file, "width=30\nheight=20\nships=Carrier:5:2, Destroyer:2:4\n");
+            GameConfig config = GameConfig.load(file);
+
+            assertEquals(GameConfig.builder().width(30).height(20)
+                .ship("Carrier", 5, 2).ship("Destroyer", 2, 4).build(), config);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import player.*;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class OpeningBookTest {
+
+    private final GameConfig config = GameConfig.builder().size(6)
+            .ship("Cruiser", 3, 1).ship("Destroyer", 2, 2).build();
+
+    /**
+     * Reasoner that always fires at the first free cell in row-major order.
+     */
+    private Reasoner firstFreeCell(Player ai) {
+        return board -> {
+            for (int y = 0; y < board.getHeight(); y++) {
+                for (int x = 0; x < board.getWidth(); x++) {
+                    if (board.isPotentialTarget(x, y)) return new Point(x, y);
+                }
+            }
+            throw new IllegalStateException("No valid moves available");
+        };
+    }
+
+    private OpeningBook buildBook(int depth) throws IOException {
+        Path file = Files.createTempFile("opening", ".book");
+        file.toFile().deleteOnExit();
+        int positions = OpeningBook.generate(config, depth, 200, this::firstFreeCell, file);
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(positions, book.size());
+        assertEquals(depth, book.getDepth());
+        return book;
+    }
+
+    @Test
+    void testBookMovesFollowTheBoardSymmetries() throws IOException {
+        OpeningBook book = buildBook(3);
+        assertTrue(book.supports(config));
+
+        assertEquals(new Point(0, 0), book.lookup(new Grid(config).getObservation()));
+
+        // The generator saw a miss in (0,0) and answered (1,0): the opposite corner is the same position
+        Grid grid = new Grid(config);
+        grid.fireAt(5, 5);
+        Point move = book.lookup(grid.getObservation());
+        assertTrue(new Point(4, 5).equals(move) || new Point(5, 4).equals(move), "Unexpected move " + move);
+    }
+
+    @Test
+    void testPositionsOutsideTheBookAreDelegated() throws IOException {
+        OpeningBook book = buildBook(2);
+        Grid grid = new Grid(config);
+        grid.fireAt(2, 3);
+        assertNull(book.lookup(grid.getObservation()), "The generator never fires in the middle first");
+
+        grid = new Grid(config);
+        grid.fireAt(0, 0);
+        grid.fireAt(1, 0);
+        assertNull(book.lookup(grid.getObservation()), "Two shots are beyond depth 2");
+
+        AIPlayer ai = new AIPlayer("AI", new Grid(config));
+        Point fallback = new Point(3, 3);
+        BookReasoner reasoner = new BookReasoner(board -> fallback, book);
+        GameState state = new GameState(new HumanPlayer("Target", grid), ai, config);
+        assertEquals(fallback, reasoner.chooseMove(state.getObservation(ai)));
+        assertEquals(new Point(0, 0), reasoner.chooseMove(new Grid(config).getObservation()));
+    }
+
+    @Test
+    void testBookIsBoundToItsFleet() throws IOException {
+        OpeningBook book = buildBook(1);
+        assertFalse(book.supports(new GameConfig()));
+        assertFalse(book.supports(GameConfig.builder().size(6).ship("Cruiser", 3, 2).build()));
+
+        Path broken = Files.createTempFile("broken", ".book");
+        broken.toFile().deleteOnExit();
+        Files.write(broken, new byte[] {1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(broken));
+    }
+}
@@ -0,0 +1,70 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import player.*;
+
+import java.awt.Point;
+import java.time.Duration;
+
+class PonderingReasonerTest {
+
+    private int calls = 0;
+
+    /**
+     * Reasoner that fires along the first row and counts its computations.
+     */
+    private Reasoner countingReasoner() {
+        return board -> {
+            calls++;
+            return new Point(board.getShotCount(), 0);
+        };
+    }
+
+    @Test
+    void testPonderedMoveIsReusedWhileTheGridIsUnchanged() {
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        AIPlayer ai = new AIPlayer("AI", new Grid(config));
+        PonderingReasoner reasoner = new PonderingReasoner(countingReasoner());
+        GameState state = new GameState(new HumanPlayer("Target", target), ai, config);
+
+        reasoner.ponder(state.getObservation(ai), Duration.ofMillis(100));
+        reasoner.ponder(state.getObservation(ai), Duration.ofMillis(100));     // Already pondered: no new computation
+        assertEquals(1, calls);
+
+        // The human fires at the AI's own grid: the pondered move is still the right one
+        ai.getGrid().fireAt(5, 5);
+        assertEquals(new Point(0, 0), reasoner.chooseMove(state.getObservation(ai), Duration.ofMillis(100)));
+        assertEquals(1, calls);
+        assertEquals(1, reasoner.getPonderHits());
+        assertEquals(0, reasoner.getPonderMisses());
+
+        target.fireAt(0, 0);
+        assertEquals(new Point(1, 0), reasoner.chooseMove(state.getObservation(ai)), "Nothing pondered: computed on the spot");
+        assertEquals(2, calls);
+        assertEquals(1, reasoner.getPonderMisses());
+        assertEquals(0.5, reasoner.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testMoveIsRecomputedWhenTheGridChanges() {
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        AIPlayer ai = new AIPlayer("AI", new Grid(config));
+        PonderingReasoner reasoner = new PonderingReasoner(countingReasoner());
+        GameState state = new GameState(new HumanPlayer("Target", target), ai, config);
+
+        reasoner.ponder(state.getObservation(ai), Duration.ofMillis(100));
+        target.fireAt(0, 0);
+        target.undoLastShot();      // Same shot count, new revision: the pondered move may be stale
+
+        reasoner.chooseMove(state.getObservation(ai));
+        assertEquals(2, calls);
+        assertEquals(0, reasoner.getPonderHits());
+        assertEquals(Duration.ZERO, reasoner.getLatencySaved());
+    }
+}
@@ -63,7 +63,7 @@ class ReasonerNoMockTest {
     void testFirstMoveIsRandomAndValid() {
         // Scenario: The grid is completely empty (NOTFIRED).
         
-        Point move = reasoner.chooseMove(simpleState);
+        Point move = reasoner.chooseMove(simpleState.getObservation(aiPlayer));
 
         assertNotNull(move, "The reasoner should return a Point object");
         
@@ -87,7 +87,7 @@ class ReasonerNoMockTest {
 
         // Try multiple times to ensure randomness doesn't accidentally pick one
         for (int i = 0; i < 20; i++) {
-            Point move = reasoner.chooseMove(simpleState);
+            Point move = reasoner.chooseMove(simpleState.getObservation(aiPlayer));
             assertFalse(move.x <= 1 && move.y <= 1, 
                 "AI picked an already visited cell at " + move);
         }
@@ -100,11 +100,223 @@ class ReasonerNoMockTest {
         
         fillGridExcept(9, 9);
         
-        Point move = reasoner.chooseMove(simpleState);
+        Point move = reasoner.chooseMove(simpleState.getObservation(aiPlayer));
         
         assertEquals(new Point(9, 9), move, "AI must find the last remaining cell");
     }
 
+    @Test
+    void testIncrementalDensityMatchesFullRecomputation() {
+        // Scenario: a whole game against a real fleet, undoing a few shots halfway.
+        // After every shot the incrementally updated map must equal a fresh one.
+        new placer.RandomShipPlacer(config).placeAllShips(simpleState, new HumanPlayer("Target", grid));
+        ExpertReasoner expert = new ExpertReasoner(aiPlayer, config);
+
+        int moves = 0;
+        while (!grid.allShipsSunk()) {
+            Point move = expert.chooseMove(simpleState.getObservation(aiPlayer));
+            assertTrue(grid.isPotentialTarget(move.x, move.y), "Move on a useless cell: " + move);
+
+            ExpertReasoner fresh = new ExpertReasoner(aiPlayer, config);
+            fresh.chooseMove(simpleState.getObservation(aiPlayer));
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(fresh.getProbability(x, y), expert.getProbability(x, y),
+                        "Cell " + x + "," + y + " after " + moves + " moves");
+                }
+            }
+
+            grid.fireAt(move.x, move.y);
+            if (++moves == 30) {
+                grid.undoLastShot();
+                grid.undoLastShot();
+            }
+        }
+    }
+
+    @Test
+    void testLongShipsKeepTheIncrementalMapExact() {
+        // Scenario: ships long enough for 20^hits to pass 2^53; the capped weights keep
+        // the incremental sums equal to a fresh map until the end of the game
+        GameConfig longShips = GameConfig.builder().width(30).height(30)
+            .ship("Tanker", 20, 2).ship("Destroyer", 2, 3).build();
+        Grid board = new Grid(longShips);
+        new placer.RandomShipPlacer(longShips, new java.util.SplittableRandom(4)).placeAllShips(null, new HumanPlayer("Target", board));
+        GameState state = new TestGameState(board, aiPlayer, longShips);
+        ExpertReasoner expert = new ExpertReasoner(aiPlayer, longShips, new java.util.SplittableRandom(5));
+
+        while (!board.allShipsSunk()) {
+            Point move = expert.chooseMove(state.getObservation(aiPlayer));
+            ExpertReasoner fresh = new ExpertReasoner(aiPlayer, longShips);
+            fresh.chooseMove(state.getObservation(aiPlayer));
+            for (int y = 0; y < 30; y++) {
+                for (int x = 0; x < 30; x++) {
+                    assertEquals(fresh.getProbability(x, y), expert.getProbability(x, y),
+                        "Cell " + x + "," + y + " after " + board.getShotCount() + " shots");
+                }
+            }
+            board.fireAt(move.x, move.y);
+        }
+    }
+
+    @Test
+    void testDensityMatchesPlacementEnumeration() {
+        // Scenario: a 13x11 board, so that placements straddle the 64-bit words of the
+        // bit masks, checked against a plain cell-by-cell enumeration of the placements
+        GameConfig odd = GameConfig.builder().width(13).height(11).classicFleet().build();
+        Grid board = new Grid(odd);
+        new placer.RandomShipPlacer(odd).placeAllShips(null, new HumanPlayer("Target", board));
+        GameState state = new TestGameState(board, aiPlayer, odd);
+        ExpertReasoner expert = new ExpertReasoner(aiPlayer, odd);
+
+        java.util.Random rnd = new java.util.Random(3);
+        for (int shot = 0; shot < 60; shot++) {
+            expert.chooseMove(state.getObservation(aiPlayer));
+            for (int y = 0; y < 11; y++) {
+                for (int x = 0; x < 13; x++) {
+                    assertEquals(referenceDensity(board, x, y), expert.getProbability(x, y),
+                        "Cell " + x + "," + y + " after " + shot + " shots");
+                }
+            }
+            board.fireAt(rnd.nextInt(13), rnd.nextInt(11));
+        }
+    }
+
+    @Test
+    void testRegionCacheMatchesFreshMapAfterUndos() {
+        // Scenario: lines of misses split a 20x20 board into regions; shots are undone
+        // one at a time, so that each recomputation keeps most regions, then the same
+        // reasoner moves on to another board
+        GameConfig crowded = GameConfig.builder().width(20).height(20)
+            .ship("Battleship", 4, 4).ship("Cruiser", 3, 6).ship("Destroyer", 2, 8).build();
+        ExpertReasoner expert = new ExpertReasoner(aiPlayer, crowded);
+        java.util.Random rnd = new java.util.Random(5);
+        for (int game = 0; game < 2; game++) {
+            Grid board = new Grid(crowded);
+            new placer.RandomShipPlacer(crowded, new java.util.SplittableRandom(game)).placeAllShips(null, new HumanPlayer("Target", board));
+            GameState state = new TestGameState(board, aiPlayer, crowded);
+            for (int i = 0; i < 20; i++) {
+                board.fireAt(i, 7 + game);
+                board.fireAt(12 - game, i);
+            }
+            for (int shot = 0; shot < 120 && !board.allShipsSunk(); shot++) {
+                board.fireAt(rnd.nextInt(20), rnd.nextInt(20));
+                if (shot % 3 == 2) board.undoLastShot();
+                expert.chooseMove(state.getObservation(aiPlayer));
+
+                ExpertReasoner fresh = new ExpertReasoner(aiPlayer, crowded);
+                fresh.chooseMove(state.getObservation(aiPlayer));
+                for (int y = 0; y < 20; y++) {
+                    for (int x = 0; x < 20; x++) {
+                        assertEquals(fresh.getProbability(x, y), expert.getProbability(x, y),
+                            "Cell " + x + "," + y + " of game " + game + " after " + shot + " shots");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelRecomputationMatchesSequential() {
+        // Scenario: a board large enough for the fork/join path, with misses, hits and sunk ships
+        GameConfig large = GameConfig.builder().width(150).height(130)
+            .ship("Carrier", 5, 20).ship("Cruiser", 3, 30).ship("Destroyer", 2, 40).build();
+        Grid board = new Grid(large);
+        new placer.RandomShipPlacer(large).placeAllShips(null, new HumanPlayer("Target", board));
+        java.util.Random rnd = new java.util.Random(11);
+        for (int shot = 0; shot < 6000; shot++) {
+            board.fireAt(rnd.nextInt(150), rnd.nextInt(130));
+        }
+        GameState state = new TestGameState(board, aiPlayer, large);
+
+        ExpertReasoner sequential = new ExpertReasoner(aiPlayer, large);
+        sequential.setForkJoinPool(null);
+        sequential.chooseMove(state.getObservation(aiPlayer));
+
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            ExpertReasoner parallel = new ExpertReasoner(aiPlayer, large);
+            parallel.setForkJoinPool(pool);
+            for (int round = 0; round < 2; round++) {
+                // The second round reuses the partial grids left by the first one
+                board.fireAt(0, 0);
+                board.undoLastShot();
+                parallel.chooseMove(state.getObservation(aiPlayer));
+                for (int y = 0; y < 130; y++) {
+                    for (int x = 0; x < 150; x++) {
+                        assertEquals(sequential.getProbability(x, y), parallel.getProbability(x, y),
+                            "Cell " + x + "," + y);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSeededGamesAreReproducible() {
+        // Scenario: the same game of the same run, played twice, for every level
+        GameSeeds seeds = new GameSeeds(42);
+        for (int level = 0; level < 4; level++) {
+            assertEquals(playSeededGame(seeds, 17, level), playSeededGame(seeds, 17, level), "Level " + level);
+        }
+        assertNotEquals(playSeededGame(seeds, 17, 0), playSeededGame(seeds, 18, 0));
+    }
+
+    /**
+     * Plays a whole game with the generators of game {@code game} of the run.
+     * @return The shots fired, in order.
+     */
+    private java.util.List<Point> playSeededGame(GameSeeds seeds, long game, int level) {
+        java.util.SplittableRandom random = seeds.forGame(game);
+        Grid board = new Grid(config);
+        new placer.HardShipPlacer(config, random.split()).placeAllShips(null, new HumanPlayer("Target", board));
+        Reasoner ai = switch (level) {
+            case 0 -> new EasyReasoner(aiPlayer, config, random.split());
+            case 1 -> new MediumReasoner(aiPlayer, config, random.split());
+            case 2 -> new HardReasoner(aiPlayer, config, random.split());
+            default -> new ExpertReasoner(aiPlayer, config, random.split());
+        };
+        GameState state = new TestGameState(board, aiPlayer, config);
+        java.util.List<Point> shots = new java.util.ArrayList<>();
+        while (!board.allShipsSunk()) {
+            Point move = ai.chooseMove(state.getObservation(aiPlayer));
+            board.fireAt(move.x, move.y);
+            shots.add(move);
+        }
+        return shots;
+    }
+
+    /**
+     * Sum over the afloat ships of the weights of their possible placements covering the cell.
+     */
+    private double referenceDensity(Grid board, int cx, int cy) {
+        double total = 0;
+        for (int size = 1; size <= board.getMaxShipSize(); size++) {
+            int count = board.getAfloatShipCount(size);
+            for (int horizontal = 0; horizontal < 2; horizontal++) {
+                int dx = horizontal, dy = 1 - horizontal;
+                for (int k = 0; k < size; k++) {
+                    int sx = cx - k * dx, sy = cy - k * dy;
+                    int hits = 0;
+                    boolean valid = true;
+                    for (int i = 0; i < size && valid; i++) {
+                        int x = sx + i * dx, y = sy + i * dy;
+                        if (!board.isValidCoordinate(x, y) || !board.isAreaClearOfSunkenShips(x, y)
+                                || board.getCellState(x, y) == CellState.MISS) {
+                            valid = false;
+                        } else if (board.getCellState(x, y) == CellState.HIT) {
+                            hits++;
+                        }
+                    }
+                    if (valid) total += count * (hits == 0 ? 1.0 : Math.pow(20.0, hits));
+                }
+            }
+        }
+        return total;
+    }
+
     // --- Helper Methods to manipulate the Real Grid ---
 
     private void simulateHitAt(int x, int y) {
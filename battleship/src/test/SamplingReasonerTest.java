@@ -0,0 +1,107 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.SamplingReasoner;
+import model.*;
+import placer.RandomShipPlacer;
+import player.*;
+
+import java.awt.Point;
+import java.time.Duration;
+
+class SamplingReasonerTest {
+
+    /**
+     * Builds a game where the AI fires at the given grid.
+     */
+    private GameState gameAgainst(Grid target, AIPlayer ai, GameConfig config) {
+        return new GameState(new HumanPlayer("Target", target), ai, config);
+    }
+
+    @Test
+    void testHitIsExplainedByOneShip() {
+        // A single destroyer, hit in the corner: it lies either on (1,0) or on (0,1)
+        GameConfig config = GameConfig.builder().size(10).ship("Destroyer", 2, 1).build();
+        Grid target = new Grid(config);
+        target.placeShip(new Ship(config.getShipTypes().get(0)), 0, 0, true);
+        target.fireAt(0, 0);
+
+        AIPlayer ai = new AIPlayer("AI", new Grid(10, 10));
+        SamplingReasoner reasoner = new SamplingReasoner(ai, config);
+        reasoner.setSampleBudget(5000);
+        Point move = reasoner.chooseMove(target.getObservation());
+
+        assertTrue(reasoner.getLastSampleCount() > 0);
+        assertEquals(1.0, reasoner.getOccupancy(1, 0) + reasoner.getOccupancy(0, 1), 1e-9);
+        assertEquals(0.0, reasoner.getOccupancy(2, 0));
+        assertEquals(0.0, reasoner.getOccupancy(5, 5), "The only ship must cover the hit");
+        assertTrue(move.equals(new Point(1, 0)) || move.equals(new Point(0, 1)), "Unexpected move " + move);
+    }
+
+    @Test
+    void testSamplesRespectTheNoTouchRule() {
+        // A hit in open water: the diagonal cells can only hold another ship, which would touch it
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        target.placeShip(new Ship(config.getShipTypes().get(0)), 3, 5, true);   // Carrier on row 5
+        target.fireAt(4, 5);
+
+        AIPlayer ai = new AIPlayer("AI", new Grid(10, 10));
+        SamplingReasoner reasoner = new SamplingReasoner(ai, config);
+        reasoner.setSampleBudget(20000);
+        reasoner.chooseMove(target.getObservation());
+
+        assertEquals(0.0, reasoner.getOccupancy(3, 4));
+        assertEquals(0.0, reasoner.getOccupancy(5, 4));
+        assertEquals(0.0, reasoner.getOccupancy(3, 6));
+        assertEquals(0.0, reasoner.getOccupancy(5, 6));
+        assertEquals(1.0, reasoner.getOccupancy(4, 5), 1e-9, "The hit cell is in every layout");
+    }
+
+    @Test
+    void testPlaysAWholeGame() {
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", target));
+        AIPlayer ai = new AIPlayer("AI", new Grid(10, 10));
+        SamplingReasoner reasoner = new SamplingReasoner(ai, config);
+        reasoner.setSampleBudget(2000);
+        ai.setReasoner(reasoner);
+        GameState state = gameAgainst(target, ai, config);
+
+        int moves = 0;
+        while (!target.allShipsSunk()) {
+            Point move = ai.chooseMove(state);
+            assertTrue(target.isPotentialTarget(move.x, move.y), "Move on a useless cell: " + move);
+            state.gameMove(ai, move);
+            moves++;
+        }
+        assertTrue(moves <= 100);
+    }
+
+    @Test
+    void testMoreTimeGivesMoreSamples() {
+        GameConfig config = new GameConfig();
+        Grid target = new Grid(config);
+        new RandomShipPlacer(config).placeAllShips(null, new HumanPlayer("Target", target));
+        AIPlayer ai = new AIPlayer("AI", new Grid(10, 10));
+        SamplingReasoner reasoner = new SamplingReasoner(ai, config);
+        reasoner.setSampleBudget(100);      // Only binds the calls without a deadline
+        reasoner.setForkJoinPool(null);
+        GameState state = gameAgainst(target, ai, config);
+
+        reasoner.chooseMove(state.getObservation(ai), Duration.ofMillis(20));
+        long quick = reasoner.getLastSampleCount();
+        long start = System.nanoTime();
+        Point move = reasoner.chooseMove(state.getObservation(ai), Duration.ofMillis(200));
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(reasoner.getLastSampleCount() > quick, "Expected more than " + quick + " samples");
+        assertTrue(reasoner.getLastSampleCount() > 100);
+        assertTrue(elapsed < Duration.ofMillis(600).toNanos(), "The deadline was not respected: " + elapsed + " ns");
+        assertTrue(target.isPotentialTarget(move.x, move.y));
+        assertThrows(IllegalArgumentException.class, () -> reasoner.chooseMove(state.getObservation(ai), Duration.ZERO));
+    }
+}
@@ -0,0 +1,151 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import player.*;
+
+import java.awt.Point;
+import java.util.SplittableRandom;
+
+class ShipConstraintsTest {
+
+    private Grid grid;
+    private ShipConstraints constraints;
+
+    @BeforeEach
+    void setUp() {
+        grid = new Grid(10, 10);
+        grid.placeShip(new Ship(new ShipConfig("Battleship", 4, 1)), 2, 2, true);   // (2,2) to (5,2)
+        grid.placeShip(new Ship(new ShipConfig("Destroyer", 2, 1)), 8, 8, false);   // (8,8) and (8,9)
+        constraints = new ShipConstraints();
+    }
+
+    @Test
+    void testWaterAroundALineOfHits() {
+        grid.fireAt(3, 2);
+        grid.fireAt(4, 2);
+        constraints.update(grid.getObservation());
+
+        assertEquals(1, constraints.getClusterCount());
+        assertEquals(constraints.getCluster(3, 2), constraints.getCluster(4, 2));
+        assertEquals(-1, constraints.getCluster(0, 0));
+        assertTrue(constraints.canBelongTo(3, 2, 2));
+        assertTrue(constraints.canBelongTo(3, 2, 4));
+        assertFalse(constraints.canBelongTo(3, 2, 5), "No carrier in the fleet");
+
+        // The ship lies along row 2: the cells above and below its hits are water
+        assertTrue(constraints.isCertainlyWater(3, 1));
+        assertTrue(constraints.isCertainlyWater(4, 3));
+        assertTrue(constraints.isCertainlyWater(2, 1), "Diagonal to a hit");
+        assertFalse(constraints.isCertainlyWater(2, 2), "The line can go on");
+        assertFalse(constraints.isCertainlyWater(0, 0));
+    }
+
+    @Test
+    void testPropagationAssignsSizesAndCertainCells() {
+        grid.fireAt(2, 2);
+        grid.fireAt(3, 2);
+        grid.fireAt(4, 2);
+        grid.fireAt(1, 2);                   // Miss: the battleship can only end at (5,2)
+        grid.fireAt(8, 8);
+        constraints.update(grid.getObservation());
+
+        assertEquals(2, constraints.getClusterCount());
+        assertEquals(1, constraints.getPlacementCount(constraints.getCluster(3, 2)));
+        assertTrue(constraints.isCertainlyShip(5, 2));
+        assertFalse(constraints.isCertainlyShip(6, 2));
+        assertTrue(constraints.isCertainlyWater(6, 2), "Just past the end of the ship");
+
+        // The only size-4 ship is the line of three hits: the lone hit is the destroyer
+        assertTrue(constraints.canBelongTo(8, 8, 2));
+        assertFalse(constraints.canBelongTo(8, 8, 4));
+    }
+
+    @Test
+    void testPocketsTooSmallForAnyShipAreWater() {
+        grid.fireAt(1, 9);
+        grid.fireAt(0, 8);
+        constraints.update(grid.getObservation());
+
+        assertTrue(constraints.isCertainlyWater(0, 9), "No ship of size 1 afloat");
+        assertFalse(constraints.isCertainlyWater(1, 8));
+    }
+
+    @Test
+    void testShipsOfTheLongestSupportedSize() {
+        // Scenario: a 64-cell ship, the longest one, with small ones: whole games must
+        // end, and a line of hits must not make the open sea water
+        GameConfig longest = GameConfig.builder().width(70).height(70)
+            .ship("Tanker", GameConfig.MAX_SHIP_SIZE, 1).ship("Destroyer", 2, 3).build();
+        for (int level = 0; level < 2; level++) {
+            Grid board = new Grid(longest);
+            new placer.RandomShipPlacer(longest, new SplittableRandom(level)).placeAllShips(null, new HumanPlayer("Target", board));
+            Reasoner ai = level == 0 ? new MediumReasoner(null, longest, new SplittableRandom(1))
+                                     : new HardReasoner(null, longest, new SplittableRandom(1));
+            while (!board.allShipsSunk()) {
+                Point move = ai.chooseMove(board.getObservation());
+                board.fireAt(move.x, move.y);
+                assertTrue(board.getShotCount() <= 70 * 70, "Level " + level + " never ends");
+            }
+        }
+
+        Grid board = new Grid(longest);
+        board.placeShip(new Ship(new ShipConfig("Tanker", GameConfig.MAX_SHIP_SIZE, 1)), 3, 10, true);
+        board.placeShip(new Ship(new ShipConfig("Destroyer", 2, 1)), 0, 0, true);
+        board.fireAt(0, 0);
+        board.fireAt(1, 0);                  // Sunk: the tanker is the smallest ship afloat
+        for (int x = 10; x < 20; x++) board.fireAt(x, 10);
+        constraints.update(board.getObservation());
+        assertEquals(1, constraints.getClusterCount());
+        assertTrue(constraints.canBelongTo(10, 10, GameConfig.MAX_SHIP_SIZE));
+        assertTrue(constraints.isCertainlyShip(20, 10), "Every placement reaches past the hits");
+        assertTrue(constraints.isCertainlyWater(15, 11));
+        assertFalse(constraints.isCertainlyWater(5, 40), "A whole row is long enough for the tanker");
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchFreshOnes() {
+        // Scenario: whole games on a crowded board, with undone shots halfway
+        GameConfig crowded = GameConfig.builder().width(14).height(14)
+            .ship("Battleship", 4, 3).ship("Cruiser", 3, 5).ship("Destroyer", 2, 6).build();
+        for (int game = 0; game < 10; game++) {
+            Grid board = new Grid(crowded);
+            new placer.RandomShipPlacer(crowded, new SplittableRandom(game)).placeAllShips(null, new HumanPlayer("Target", board));
+            Reasoner ai = new EasyReasoner(null, crowded, new SplittableRandom(game));
+            ShipConstraints tracked = new ShipConstraints();
+
+            int shots = 0;
+            while (!board.allShipsSunk()) {
+                tracked.update(board.getObservation());
+                ShipConstraints fresh = new ShipConstraints();
+                fresh.update(board.getObservation().copy());
+                assertEquals(fresh.getClusterCount(), tracked.getClusterCount());
+                for (int y = 0; y < 14; y++) {
+                    for (int x = 0; x < 14; x++) {
+                        assertEquals(fresh.isCertainlyWater(x, y), tracked.isCertainlyWater(x, y), "Water " + x + "," + y);
+                        assertEquals(fresh.isCertainlyShip(x, y), tracked.isCertainlyShip(x, y), "Ship " + x + "," + y);
+                        if (fresh.isCertainlyWater(x, y) || fresh.isCertainlyShip(x, y)) {
+                            assertEquals(CellState.NOTFIRED, board.getCellState(x, y));
+                        }
+                    }
+                }
+                Point move = ai.chooseMove(board.getObservation());
+                MoveResult result = board.fireAt(move.x, move.y);
+                if (fresh.isCertainlyWater(move.x, move.y)) {
+                    assertEquals(MoveResult.MISS, result, "Fired at certain water: " + move);
+                }
+                if (fresh.isCertainlyShip(move.x, move.y)) {
+                    assertNotEquals(MoveResult.MISS, result, "Fired at a certain ship: " + move);
+                }
+                if (++shots == 60) {
+                    board.undoLastShot();
+                    board.undoLastShot();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import player.*;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class StrategyTest {
+
+    private static final int GAMES = 24;
+
+    private final GameConfig config = new GameConfig();
+    private final GameSeeds seeds = new GameSeeds(7);
+
+    @Test
+    void testSharedStrategiesPlayConcurrentGamesAsSequentialOnes() throws Exception {
+        // Scenario: one instance per strategy serves every game, first one game after the
+        // other, then from four threads at once: each game must be played identically
+        List<ContextPool<?>> pools = List.of(
+            new ContextPool<>(new EasyStrategy(), 8),
+            new ContextPool<>(new MediumStrategy(), 8),
+            new ContextPool<>(new HardStrategy(), 8),
+            new ContextPool<>(new ExpertStrategy(config), 8));
+
+        List<List<Point>> sequential = new ArrayList<>();
+        for (ContextPool<?> pool : pools) {
+            for (int game = 0; game < GAMES; game++) {
+                sequential.add(play(pool, game));
+            }
+            assertEquals(1, pool.getCreated(), "Sequential games reuse one context: " + pool);
+        }
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Point>>> concurrent = new ArrayList<>();
+            for (ContextPool<?> pool : pools) {
+                for (int game = 0; game < GAMES; game++) {
+                    int g = game;
+                    concurrent.add(threads.submit(() -> play(pool, g)));
+                }
+            }
+            for (int i = 0; i < concurrent.size(); i++) {
+                assertEquals(sequential.get(i), concurrent.get(i).get(), "Game " + i % GAMES + " of pool " + i / GAMES);
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void testContextsAreCheckedAndBoundToTheirConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new MediumStrategy().newContext(null));
+        assertThrows(IllegalArgumentException.class, () -> new ContextPool<>(new EasyStrategy(), -1));
+
+        ExpertStrategy expert = new ExpertStrategy(config);
+        ExpertStrategy.Context context = expert.newContext(seeds.forGame(0));
+        Grid other = new Grid(GameConfig.builder().width(12).height(12).classicFleet().build());
+        assertThrows(IllegalArgumentException.class, () -> expert.chooseMove(context, other.getObservation()));
+    }
+
+    /**
+     * Plays a whole game with a context of the pool, given back at the end.
+     * @return The shots fired, in order.
+     */
+    private <C extends Strategy.Context> List<Point> play(ContextPool<C> pool, int game) {
+        java.util.SplittableRandom random = seeds.forGame(game);
+        Grid board = new Grid(config);
+        new placer.RandomShipPlacer(config, random.split()).placeAllShips(null, new HumanPlayer("Target", board));
+        C context = pool.acquire(random.split());
+        Reasoner ai = pool.getStrategy().reasoner(context);
+        List<Point> shots = new ArrayList<>();
+        while (!board.allShipsSunk()) {
+            Point move = ai.chooseMove(board.getObservation());
+            board.fireAt(move.x, move.y);
+            shots.add(move);
+        }
+        pool.release(context);
+        return shots;
+    }
+}
@@ -0,0 +1,69 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import ai.*;
+import model.*;
+import player.*;
+
+import java.awt.Point;
+import java.util.SplittableRandom;
+
+class TranspositionTableTest {
+
+    @Test
+    void testCountsHitsMissesAndEvictions() {
+        TranspositionTable table = new TranspositionTable(3);
+        assertEquals(4, table.getCapacity(), "The capacity is rounded to a power of two");
+
+        assertNull(table.probe(1));
+        table.store(1, new int[] {7, 8, 9}, 2);
+        assertArrayEquals(new int[] {7, 8}, table.probe(1));
+        table.store(1, new int[] {6}, 1);                 // Same position: not an eviction
+        table.store(5, new int[] {3}, 1);                 // Same slot as key 1: evicts it
+        assertNull(table.probe(1));
+        assertArrayEquals(new int[] {3}, table.probe(5));
+
+        assertEquals(2, table.getHits());
+        assertEquals(2, table.getMisses());
+        assertEquals(3, table.getStores());
+        assertEquals(1, table.getEvictions());
+        assertEquals(0.5, table.getHitRate());
+        assertEquals(1, table.size());
+
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void testExpertReusesTheMovesOfOtherGames() {
+        // Scenario: two games with the same opening shots share the analysis of their positions
+        GameConfig config = new GameConfig();
+        TranspositionTable table = new TranspositionTable(1024);
+        AIPlayer ai = new AIPlayer("AI", new Grid(config));
+
+        for (int game = 0; game < 2; game++) {
+            Grid target = new Grid(config);
+            HumanPlayer human = new HumanPlayer("Target", target);
+            new placer.RandomShipPlacer(config, new SplittableRandom(game)).placeAllShips(null, human);
+            GameState state = new GameState(human, ai, config);
+            ExpertReasoner expert = new ExpertReasoner(ai, config, new SplittableRandom(game));
+            expert.setTranspositionTable(table);
+            ExpertReasoner reference = new ExpertReasoner(ai, config);
+
+            for (int shot = 0; shot < 15 && !target.allShipsSunk(); shot++) {
+                Point move = expert.chooseMove(state.getObservation(ai));
+                reference.chooseMove(state.getObservation(ai));
+                double best = 0;
+                for (int y = 0; y < 10; y++) {
+                    for (int x = 0; x < 10; x++) {
+                        if (target.isPotentialTarget(x, y)) best = Math.max(best, reference.getProbability(x, y));
+                    }
+                }
+                assertEquals(best, reference.getProbability(move.x, move.y), "Not a best move: " + move);
+                target.fireAt(move.x, move.y);
+            }
+        }
+        assertTrue(table.getHits() > 0, "The empty board, at least, is found again");
+    }
+}
@@ -16,6 +16,7 @@ public class BattleView extends JFrame {
     private JButton[][] enemyGridButtons;
     
     private final Color SEA_COLOR = new Color(30, 144, 255);
+    private final int cellSize;                     // Button side in pixels, shrinks on large boards
     private final Color SUNK_COLOR = new Color(44, 62, 80); 
     
     private JLabel statusLabel;
@@ -33,6 +34,9 @@ public class BattleView extends JFrame {
      * Initializes the view with the specified grid dimensions.
      */
     public BattleView(int width, int height) {
+        // Keep both grids within roughly 1000 pixels, between 8 and 40 pixels per cell
+        this.cellSize = Math.max(8, Math.min(40, 500 / Math.max(width, height)));
+
         // Keeping original Italian titles and labels
         setTitle("Battaglia Navale - Comandante in Capo");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -127,7 +131,7 @@ public class BattleView extends JFrame {
 
             if (imgURL != null) {
                 ImageIcon icon = new ImageIcon(imgURL);
-                Image img = icon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
+                Image img = icon.getImage().getScaledInstance(cellSize, cellSize, Image.SCALE_SMOOTH);
                 return new ImageIcon(img);
             }
         } catch (Exception e) {
@@ -265,7 +269,7 @@ public class BattleView extends JFrame {
         for (int i = 0; i < w; i++) {
             for (int j = 0; j < h; j++) {
                 btns[i][j] = new JButton();
-                btns[i][j].setPreferredSize(new Dimension(40, 40));
+                btns[i][j].setPreferredSize(new Dimension(cellSize, cellSize));
                 btns[i][j].setBackground(SEA_COLOR);
                 btns[i][j].setBorder(BorderFactory.createLineBorder(new Color(255,255,255,50)));
                 gridBody.add(btns[i][j]);